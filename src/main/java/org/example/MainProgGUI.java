@@ -4,7 +4,19 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.example.services.DbExecutor;
+import org.example.services.forum.ContentMaskService;
+import org.example.services.forum.PostStatsService;
+import org.example.services.forum.ReactionWriteBuffer;
+import org.example.services.forum.SearchEngine;
+import org.example.services.forum.TagCache;
+import org.example.services.forum.TypeaheadIndex;
+import org.example.utils.FxStallDetector;
+import org.example.utils.ProfanityFilter;
+import utils.DatabaseUpdater;
+import utils.dataSource;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 public class MainProgGUI extends Application {
     public static void main(String[] args) {
@@ -13,6 +25,9 @@ public class MainProgGUI extends Application {
     
     @Override
     public void start(Stage primaryStage) throws IOException {
+        // Log handlers that block the UI thread for longer than a frame
+        FxStallDetector.install();
+        
         // Load the login screen
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/login.fxml"));
         Parent root = loader.load();
@@ -20,14 +35,44 @@ public class MainProgGUI extends Application {
         primaryStage.setScene(scene);
         primaryStage.setTitle("Esprit Login");
         
-        // Force database connection if needed
-        try {
-            utils.dataSource.getInstance();
-        } catch (Exception e) {
-            System.err.println("Warning: Database connection could not be established: " + e.getMessage());
-            // Continue anyway for testing the UI
-        }
+        // Extra profanity words, reloaded whenever the file changes
+        ProfanityFilter.watchWordList(Paths.get(System.getProperty(
+                "forum.profanity.words", System.getProperty("user.home") + "/.forum/profanity-words.txt")));
+        
+        // Schema changes run in the background so the window shows at once; everything that
+        // reads the updated schema starts once they are done
+        DbExecutor.run(() -> {
+                    dataSource.getInstance();
+                    DatabaseUpdater.update();
+                })
+                .thenRun(MainProgGUI::startServices)
+                .exceptionally(e -> {
+                    System.err.println("Warning: Database connection could not be established: " + DbExecutor.unwrap(e).getMessage());
+                    // Continue anyway for testing the UI
+                    return null;
+                });
         
         primaryStage.show();
     }
+    
+    private static void startServices() {
+        // Backfill and then periodically repair the post_stats counters
+        PostStatsService.startReconciliation();
+        ContentMaskService.startRemasking();
+        // Write reactions a previous run left in the journal
+        ReactionWriteBuffer.getInstance();
+        // Tags are served from memory once loaded; until then they are read from MySQL
+        DbExecutor.run(() -> TagCache.getInstance().load())
+                .exceptionally(e -> {
+                    System.err.println("❌ Tag cache not loaded: " + DbExecutor.unwrap(e).getMessage());
+                    return null;
+                });
+        // Builds the in-process search index when forum.search.engine is local
+        SearchEngine.configured().start();
+        DbExecutor.run(() -> TypeaheadIndex.getInstance().load())
+                .exceptionally(e -> {
+                    System.err.println("❌ Typeahead index not loaded: " + DbExecutor.unwrap(e).getMessage());
+                    return null;
+                });
+    }
 }
\ No newline at end of file
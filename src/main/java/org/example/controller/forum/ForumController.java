@@ -8,26 +8,28 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import org.example.models.forum.Post;
+import org.example.models.forum.PostSummary;
 import org.example.models.forum.Comment;
+import org.example.models.forum.CommentTree;
 import org.example.models.forum.Tag;
 import org.example.services.forum.PostService;
-import org.example.services.forum.CommentService;
-import org.example.services.forum.TagService;
 import org.example.services.forum.PostReactionService;
+import org.example.services.forum.AsyncForumService;
 import org.example.services.UserService;
 import org.example.utils.InputValidator;
 import org.example.utils.InputValidator.ValidationResult;
+import org.example.utils.FxRequest;
 
 import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 public class ForumController {
     @FXML
-    private ListView<String> forumListView;
+    private ListView<PostSummary> forumListView;
     @FXML
     private TextArea postTextField;
     @FXML
@@ -54,9 +56,6 @@ public class ForumController {
     private Button addCommentButton;
 
     private boolean editMode = false;
-    private PostService postService;
-    private CommentService commentService;
-    private TagService tagService;
     private PostReactionService reactionService;
     private Post selectedPost;
     private Comment selectedComment;
@@ -64,44 +63,43 @@ public class ForumController {
     private boolean editingComment = false;
     private boolean replyingToComment = false;
     private UserService userService;
+    private AsyncForumService asyncService;
+    // Display names of the authors of the shown comments, resolved with them in the background
+    private Map<Integer, String> authorNames = new HashMap<>();
+    // The comments shown, row i of commentsListView is position i (when not empty)
+    private CommentTree commentTree = CommentTree.build(List.of());
+    private static final int PAGE_SIZE = 50;
+    // Start loading the next page when a cell this close to the end of the list is shown
+    private static final int PREFETCH_DISTANCE = 10;
+    private PostService.PageCursor nextPageCursor;
+    private boolean pageLoading = false;
+    private boolean lastPageLoaded = false;
+    // Background requests; submitting a new one cancels the stale one in the same slot
+    private final FxRequest pageRequest = new FxRequest();
+    private final FxRequest detailsRequest = new FxRequest();
+    private final FxRequest commentsRequest = new FxRequest();
+    private final FxRequest reactionRequest = FxRequest.forWrites();
+    private final FxRequest deleteRequest = FxRequest.forWrites();
+    private final FxRequest postRequest = FxRequest.forWrites();
+    private final FxRequest commentRequest = FxRequest.forWrites();
 
     @FXML
     private void initialize() {
         try {
             // Initialize services only once
-            postService = new PostService();
-            commentService = new CommentService();
-            tagService = new TagService();
             reactionService = new PostReactionService();
             userService = new UserService();
+            asyncService = new AsyncForumService();
             
             // Try to get a valid user
             initializeValidUser();
             
+            setupForumListViewCellFactory();
             loadPosts();
             
             forumListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal != null) {
-                    try {
-                        String[] parts = newVal.split(" - ", 2);
-                        if (parts.length >= 1) {
-                            int postId = Integer.parseInt(parts[0].trim());
-                            selectedPost = postService.read(postId);
-                            if (selectedPost != null) {
-                                showPostDetails(selectedPost);
-                            } else {
-                                Platform.runLater(() -> showError("Post not found"));
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        Platform.runLater(() -> showError("Invalid post ID format: " + e.getMessage()));
-                    } catch (SQLException e) {
-                        Platform.runLater(() -> showError("Database error: " + e.getMessage()));
-                        e.printStackTrace(); // Log full stack trace
-                    } catch (Exception e) {
-                        Platform.runLater(() -> showError("Unexpected error: " + e.getMessage()));
-                        e.printStackTrace(); // Log full stack trace
-                    }
+                    showPostDetails(newVal.getId());
                 }
             });
         } catch (Exception e) {
@@ -120,27 +118,80 @@ public class ForumController {
         }
     }
 
-    private void loadPosts() {
-        try {
-            forumListView.getItems().clear();
-            List<Post> posts = postService.readAll();
-            for (Post post : posts) {
-                try {
-                    String userInfo = userService.getUsernameById(post.getOwnerId());
-                    forumListView.getItems().add(post.getId() + " - " + post.getTitle() + " (par " + userInfo + ")");
-                } catch (SQLException e) {
-                    // En cas d'erreur, afficher sans l'information d'utilisateur
-                    forumListView.getItems().add(post.getId() + " - " + post.getTitle());
-                    System.out.println("Error getting user info for post " + post.getId() + ": " + e.getMessage());
+    private void setupForumListViewCellFactory() {
+        forumListView.setCellFactory(listView -> new ListCell<PostSummary>() {
+            @Override
+            protected void updateItem(PostSummary post, boolean empty) {
+                super.updateItem(post, empty);
+                if (empty || post == null) {
+                    setText(null);
+                } else {
+                    if (getIndex() >= getListView().getItems().size() - PREFETCH_DISTANCE) {
+                        loadNextPage();
+                    }
+                    if (post.getOwnerName() != null) {
+                        setText(post.getId() + " - " + post.getTitle() + " (par " + post.getOwnerName() + ")");
+                    } else {
+                        // Sans information d'utilisateur
+                        setText(post.getId() + " - " + post.getTitle());
+                    }
                 }
             }
-        } catch (SQLException e) {
+        });
+    }
+
+    private void loadPosts() {
+        pageRequest.cancel();
+        nextPageCursor = null;
+        pageLoading = false;
+        lastPageLoaded = false;
+        forumListView.getItems().clear();
+        loadNextPage();
+    }
+
+    /**
+     * Fetch the next page of the feed in the background and append it to the list
+     */
+    private void loadNextPage() {
+        if (pageLoading || lastPageLoaded) {
+            return;
+        }
+        pageLoading = true;
+        
+        pageRequest.submit(asyncService.readPage(nextPageCursor, PAGE_SIZE), page -> {
+            pageLoading = false;
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                nextPageCursor = PostService.PageCursor.after(page.get(page.size() - 1));
+                forumListView.getItems().addAll(page);
+            }
+        }, e -> {
+            pageLoading = false;
             showError("Error loading posts: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
+    }
+
+    /**
+     * Load the selected post in the background; selecting another post first cancels this load
+     */
+    private void showPostDetails(int postId) {
+        detailsRequest.submit(asyncService.loadPostDetails(postId), details -> {
+            if (details == null) {
+                showError("Post not found");
+                return;
+            }
+            selectedPost = details.getPost();
+            showPostDetails(details);
+        }, e -> {
+            showError("Database error: " + e.getMessage());
+            e.printStackTrace(); // Log full stack trace
+        });
     }
 
-    private void showPostDetails(Post post) {
+    private void showPostDetails(AsyncForumService.PostDetails details) {
+        Post post = details.getPost();
+        
         // Hide initially for animation
         postDetailsBox.setOpacity(0);
         postDetailsBox.setScaleX(0.97);
@@ -151,164 +202,114 @@ public class ForumController {
         editMode = true;
         titleTextField.setText(post.getTitle());
         postTextField.setText(post.getContent());
+        postButton.setText("Update Post");
         
         // Ajouter le nom d'utilisateur et la date aux informations de post
-        try {
-            String userInfo = userService.getUsernameById(post.getOwnerId());
-            postButton.setText("Update Post");
-            
-            // Mettre à jour les labels d'auteur et de date
-            if (postAuthorLabel != null) {
-                postAuthorLabel.setText(userInfo);
-            }
-            if (postDateLabel != null) {
-                postDateLabel.setText("Date: " + post.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-            }
-        } catch (SQLException e) {
-            postButton.setText("Update Post");
-            
-            // Gérer l'erreur pour les labels
-            if (postAuthorLabel != null) {
-                postAuthorLabel.setText("User ID: " + post.getOwnerId());
-            }
-            if (postDateLabel != null) {
-                postDateLabel.setText("Date: " + (post.getCreatedAt() != null ? 
-                    post.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : 
-                    "Non disponible"));
-            }
-            
-            System.out.println("Error getting username: " + e.getMessage());
+        if (postAuthorLabel != null) {
+            postAuthorLabel.setText(details.getOwnerName());
+        }
+        if (postDateLabel != null) {
+            postDateLabel.setText("Date: " + (post.getCreatedAt() != null ? 
+                post.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")) : 
+                "Non disponible"));
         }
         
-        try {
-            // Load tags
-            List<Tag> tags = tagService.getTagsForPost(post.getId());
-            StringBuilder tagString = new StringBuilder();
-            for (Tag tag : tags) {
-                tagString.append(tag.getName()).append(", ");
-            }
-            // Remove trailing comma if exists
-            if (tagString.length() > 2) {
-                tagString.setLength(tagString.length() - 2);
-            }
-            tagTextField.setText(tagString.toString());
-            
-            // Load comments
-            loadComments(post.getId());
-            
-            // Load reactions
-            updateReactionCounts(post.getId());
-            
-            // Animate post details display
-            FadeTransition fadeIn = new FadeTransition(Duration.millis(300), postDetailsBox);
-            fadeIn.setFromValue(0);
-            fadeIn.setToValue(1);
-            
-            ScaleTransition scaleIn = new ScaleTransition(Duration.millis(300), postDetailsBox);
-            scaleIn.setFromX(0.97);
-            scaleIn.setFromY(0.97);
-            scaleIn.setToX(1);
-            scaleIn.setToY(1);
-            
-            fadeIn.play();
-            scaleIn.play();
-            
-        } catch (SQLException e) {
-            showError("Error loading post details: " + e.getMessage());
-            e.printStackTrace(); // Log full stack trace
+        // Load tags
+        StringBuilder tagString = new StringBuilder();
+        for (Tag tag : details.getTags()) {
+            tagString.append(tag.getName()).append(", ");
+        }
+        // Remove trailing comma if exists
+        if (tagString.length() > 2) {
+            tagString.setLength(tagString.length() - 2);
         }
+        tagTextField.setText(tagString.toString());
+        
+        // Show comments
+        showComments(details.getComments());
+        
+        // Show reactions
+        likesLabel.setText("Likes: " + details.getLikeCount());
+        dislikesLabel.setText("Dislikes: " + details.getDislikeCount());
+        
+        // Animate post details display
+        FadeTransition fadeIn = new FadeTransition(Duration.millis(300), postDetailsBox);
+        fadeIn.setFromValue(0);
+        fadeIn.setToValue(1);
+        
+        ScaleTransition scaleIn = new ScaleTransition(Duration.millis(300), postDetailsBox);
+        scaleIn.setFromX(0.97);
+        scaleIn.setFromY(0.97);
+        scaleIn.setToX(1);
+        scaleIn.setToY(1);
+        
+        fadeIn.play();
+        scaleIn.play();
     }
 
     private void loadComments(int postId) {
-        try {
-            commentsListView.getItems().clear();
-            List<Comment> comments = commentService.readByPostId(postId);
-            
-            if (comments.isEmpty()) {
-                commentsListView.getItems().add("Aucun commentaire pour le moment");
-            } else {
-                // Group comments by their parent IDs
-                Map<Integer, List<Comment>> commentsByParent = new HashMap<>();
-                List<Comment> topLevelComments = new ArrayList<>();
-                
-                // Organize comments into parent-child groups
-                for (Comment comment : comments) {
-                    if (comment.getParentId() == null) {
-                        topLevelComments.add(comment);
-                    } else {
-                        commentsByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                        .add(comment);
-                    }
-                }
-                
-                // Add comments recursively with indentation
-                addCommentsToListView(topLevelComments, commentsByParent, 0);
-            }
-            
-            // Assurez-vous que la ListView est visible
-            commentsListView.setVisible(true);
-            
-            // Log pour le débogage
-            System.out.println("Chargement de " + comments.size() + " commentaires");
-        } catch (SQLException e) {
+        commentsRequest.submit(asyncService.loadComments(postId), this::showComments, e -> {
             showError("Error loading comments: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
-    
-    private void addCommentsToListView(List<Comment> comments, Map<Integer, List<Comment>> commentsByParent, int level) {
-        if (comments == null) return;
-        
-        for (Comment comment : comments) {
-            // Récupérer le nom d'utilisateur
-            String userInfo;
-            try {
-                userInfo = userService.getUsernameById(comment.getOwnerId());
-            } catch (SQLException e) {
-                userInfo = "User ID: " + comment.getOwnerId();
-                System.out.println("Error getting user info for comment " + comment.getId() + ": " + e.getMessage());
-            }
-            
-            // Add indentation based on the level
-            String indent = "";
-            for (int i = 0; i < level; i++) {
-                indent += "    ";
-            }
-            
-            // Add reply indicator for nested comments
-            String replyPrefix = level > 0 ? "↪ " : "";
-            
-            String formattedComment = String.format("%d - %s[%s] %s%s - %s", 
-                comment.getId(),
-                indent,
-                userInfo,
-                replyPrefix,
-                comment.getContent(),
-                comment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-                
-            commentsListView.getItems().add(formattedComment);
-            
-            // Recursively add child comments
-            List<Comment> childComments = commentsByParent.get(comment.getId());
-            if (childComments != null) {
-                addCommentsToListView(childComments, commentsByParent, level + 1);
+
+    private void showComments(AsyncForumService.PostComments postComments) {
+        commentsListView.getItems().clear();
+        List<Comment> comments = postComments.getComments();
+        authorNames = postComments.getAuthorNames();
+        commentTree = CommentTree.build(comments);
+        
+        if (commentTree.isEmpty()) {
+            commentsListView.getItems().add("Aucun commentaire pour le moment");
+        } else {
+            // Each comment followed by its replies, with indentation
+            for (int position = 0; position < commentTree.size(); position++) {
+                commentsListView.getItems().add(formatComment(commentTree.get(position), commentTree.depth(position)));
             }
         }
+        
+        // Assurez-vous que la ListView est visible
+        commentsListView.setVisible(true);
+        
+        // Log pour le débogage
+        System.out.println("Chargement de " + comments.size() + " commentaires");
     }
-
-    private void updateReactionCounts(int postId) {
-        try {
-            int likes = reactionService.getLikeCount(postId);
-            int dislikes = reactionService.getDislikeCount(postId);
-            likesLabel.setText("Likes: " + likes);
-            dislikesLabel.setText("Dislikes: " + dislikes);
-        } catch (SQLException e) {
-            showError("Error loading reaction counts: " + e.getMessage());
-        }
+    
+    private String formatComment(Comment comment, int level) {
+        // Nom d'utilisateur résolu avec les commentaires
+        String userInfo = authorNames.getOrDefault(comment.getOwnerId(), "User ID: " + comment.getOwnerId());
+        
+        // Add indentation based on the level
+        String indent = "    ".repeat(level);
+        
+        // Add reply indicator for nested comments
+        String replyPrefix = level > 0 ? "↪ " : "";
+        
+        return String.format("%d - %s[%s] %s%s - %s", 
+            comment.getId(),
+            indent,
+            userInfo,
+            replyPrefix,
+            comment.getContent(),
+            comment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+    }
+    
+    /**
+     * @return The comment shown in the selected row, null if no comment is selected
+     */
+    private Comment getSelectedComment() {
+        int index = commentsListView.getSelectionModel().getSelectedIndex();
+        return index >= 0 && index < commentTree.size() ? commentTree.get(index) : null;
     }
 
     @FXML
     private void handlePost() {
+        // Ignore clicks while the previous post is being saved
+        if (postRequest.isPending()) {
+            return;
+        }
+
         String title = titleTextField.getText().trim();
         String content = postTextField.getText().trim();
         String tags = tagTextField.getText().trim();
@@ -334,62 +335,33 @@ public class ForumController {
             }
         }
 
-        try {
-            if (editMode && selectedPost != null) {
-                // Update existing post
-                selectedPost.setTitle(title);
-                selectedPost.setContent(content);
-                postService.update(selectedPost);
-                
+        if (editMode && selectedPost != null) {
+            // Update existing post
+            selectedPost.setTitle(title);
+            selectedPost.setContent(content);
+            postRequest.submit(asyncService.updatePost(selectedPost), done -> {
                 // Handle tags (optional - you could update tags here if needed)
                 
                 // Reset UI
                 loadPosts();
                 clearFields();
-                Platform.runLater(() -> showInfo("Post updated successfully"));
-            } else {
-                // Create new post
-                Post post = new Post();
-                post.setOwnerId(currentUserId);
-                post.setTitle(title);
-                post.setContent(content);
-                
-                try {
-                    postService.create(post);
-                } catch (SQLException e) {
-                    // Check if it's a foreign key constraint error
-                    if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("owner_id")) {
-                        try {
-                            // Try to reset the valid user and retry
-                            Platform.runLater(() -> showWarning("User reference error. Attempting reset..."));
-                            currentUserId = userService.getOrCreateValidUserId();
-                            
-                            // Retry creating the post with the new user ID
-                            post.setOwnerId(currentUserId);
-                            postService.create(post);
-                        } catch (SQLException retryEx) {
-                            Platform.runLater(() -> showError("Reset failed. Error: " + retryEx.getMessage()));
-                            retryEx.printStackTrace();
-                            return;
-                        }
-                    } else {
-                        throw e; // Re-throw exception if it's not a foreign key constraint error
-                    }
-                }
-
-                // Add tags
-                if (!tags.isEmpty()) {
-                    String[] tagNames = tags.split(",");
-                    for (String tagName : tagNames) {
-                        tagName = tagName.trim();
-                        if (!tagName.isEmpty()) {
-                            Tag tag = new Tag();
-                            tag.setName(tagName);
-                            tagService.create(tag);
-                            tagService.addTagToPost(post.getId(), tag.getId());
-                        }
-                    }
-                }
+                showInfo("Post updated successfully");
+            }, e -> {
+                showError("Error updating post: " + e.getMessage());
+                e.printStackTrace();
+            });
+        } else {
+            // Create new post
+            Post post = new Post();
+            post.setOwnerId(currentUserId);
+            post.setTitle(title);
+            post.setContent(content);
+            List<String> tagNames = tags.isEmpty() ? List.of() : Arrays.asList(tags.split(","));
+
+            // Post and tags in the background, reusing the tags that already exist
+            postRequest.submit(asyncService.createPost(post, tagNames), created -> {
+                // The post was created for another user if the current one no longer exists
+                currentUserId = created.getOwnerId();
 
                 // Animation effect for the button
                 Button postButton = this.postButton;
@@ -427,16 +399,20 @@ public class ForumController {
                 });
                 
                 scaleUp.play();
-            }
-        } catch (SQLException e) {
-            String action = editMode ? "updating" : "creating";
-            Platform.runLater(() -> showError("Error " + action + " post: " + e.getMessage()));
-            e.printStackTrace();
+            }, e -> {
+                showError("Error creating post: " + e.getMessage());
+                e.printStackTrace();
+            });
         }
     }
 
     @FXML
     private void handleComment() {
+        // Ignore clicks while the previous comment is being saved
+        if (commentRequest.isPending()) {
+            return;
+        }
+
         if (selectedPost == null) {
             Platform.runLater(() -> showError("Please select a post first"));
             return;
@@ -457,109 +433,65 @@ public class ForumController {
             return;
         }
 
-        try {
-            Comment comment = new Comment();
-            comment.setPostId(selectedPost.getId());
-            comment.setOwnerId(currentUserId);
-            comment.setContent(content);
-            
-            // Set parentId if replying to a comment
-            if (replyingToComment && selectedComment != null) {
-                comment.setParentId(selectedComment.getId());
-            }
-            
-            try {
-                commentService.create(comment);
-                System.out.println("Commentaire créé avec ID: " + comment.getId());
-            } catch (SQLException e) {
-                // Check if it's a foreign key constraint error
-                if (e.getMessage().contains("foreign key constraint") && (e.getMessage().contains("owner_id") || e.getMessage().contains("user"))) {
-                    try {
-                        // Try to reset the valid user and retry
-                        Platform.runLater(() -> showWarning("User reference error. Attempting reset..."));
-                        currentUserId = userService.getOrCreateValidUserId();
-                        
-                        // Retry creating the comment with the new user ID
-                        comment.setOwnerId(currentUserId);
-                        commentService.create(comment);
-                        System.out.println("Commentaire créé après correction avec ID: " + comment.getId());
-                    } catch (SQLException retryEx) {
-                        Platform.runLater(() -> showError("Reset failed. Error: " + retryEx.getMessage()));
-                        retryEx.printStackTrace();
-                        return;
-                    }
-                } else {
-                    throw e; // Re-throw exception if it's not a foreign key constraint error
-                }
-            }
+        Comment comment = new Comment();
+        comment.setPostId(selectedPost.getId());
+        comment.setOwnerId(currentUserId);
+        comment.setContent(content);
+        
+        // Set parentId if replying to a comment
+        boolean reply = replyingToComment && selectedComment != null;
+        if (reply) {
+            comment.setParentId(selectedComment.getId());
+        }
+        
+        commentRequest.submit(asyncService.createComment(comment), posted -> {
+            Comment created = posted.getComments().get(0);
+            System.out.println("Commentaire créé avec ID: " + created.getId());
+            // The comment was created for another user if the current one no longer exists
+            currentUserId = created.getOwnerId();
             
             // Clear comment text area and reset state
             commentTextArea.clear();
             resetCommentUI();
             
             // Refresh comments list with animation
-            try {
-                loadCommentsWithAnimation(selectedPost.getId());
-                
-                String message = replyingToComment ? "Reply added successfully" : "Comment added successfully";
-                selectedComment = null;
-                replyingToComment = false;
-                Platform.runLater(() -> showInfo(message));
-            } catch (SQLException e) {
-                // Fallback to regular load if animation fails
-                loadComments(selectedPost.getId());
-                Platform.runLater(() -> showInfo("Comment added successfully (with fallback refresh)"));
+            if (selectedPost != null && selectedPost.getId() == created.getPostId()) {
+                loadCommentsWithAnimation(created.getPostId());
             }
-        } catch (SQLException e) {
-            Platform.runLater(() -> showError("Error adding comment: " + e.getMessage()));
+            
+            String message = reply ? "Reply added successfully" : "Comment added successfully";
+            selectedComment = null;
+            replyingToComment = false;
+            Platform.runLater(() -> showInfo(message));
+        }, e -> {
+            showError("Error adding comment: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     @FXML
     private void handleLike() {
-        if (selectedPost == null) return;
-        try {
-            reactionService.toggleReaction(selectedPost.getId(), currentUserId, true);
-            updateReactionCounts(selectedPost.getId());
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("user_id")) {
-                try {
-                    // Try to reset the valid user and retry
-                    currentUserId = userService.getOrCreateValidUserId();
-                    reactionService.toggleReaction(selectedPost.getId(), currentUserId, true);
-                    updateReactionCounts(selectedPost.getId());
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> showError("Error updating reaction: " + retryEx.getMessage()));
-                }
-            } else {
-                Platform.runLater(() -> showError("Error updating reaction: " + e.getMessage()));
-            }
-        }
+        react(true);
     }
 
     @FXML
     private void handleDislike() {
+        react(false);
+    }
+
+    /**
+     * Toggle the current user's reaction on the selected post in the background
+     */
+    private void react(boolean isLike) {
         if (selectedPost == null) return;
-        try {
-            reactionService.toggleReaction(selectedPost.getId(), currentUserId, false);
-            updateReactionCounts(selectedPost.getId());
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("user_id")) {
-                try {
-                    // Try to reset the valid user and retry
-                    currentUserId = userService.getOrCreateValidUserId();
-                    reactionService.toggleReaction(selectedPost.getId(), currentUserId, false);
-                    updateReactionCounts(selectedPost.getId());
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> showError("Error updating reaction: " + retryEx.getMessage()));
-                }
-            } else {
-                Platform.runLater(() -> showError("Error updating reaction: " + e.getMessage()));
+        int postId = selectedPost.getId();
+        // Counts come back right away; the reaction itself is written by the next buffer flush
+        reactionRequest.submit(asyncService.toggleReaction(postId, currentUserId, isLike), stats -> {
+            if (selectedPost != null && selectedPost.getId() == postId) {
+                likesLabel.setText("Likes: " + stats.getLikes());
+                dislikesLabel.setText("Dislikes: " + stats.getDislikes());
             }
-        }
+        }, e -> showError("Error updating reaction: " + e.getMessage()));
     }
 
     @FXML
@@ -577,47 +509,22 @@ public class ForumController {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    int postId = selectedPost.getId();
-                    System.out.println("Deleting post ID: " + postId);
-                    
-                    // 1. Delete all reactions for this post
-                    try {
-                        reactionService.deleteAllForPost(postId);
-                    } catch (SQLException e) {
-                        System.out.println("Error deleting reactions: " + e.getMessage());
-                    }
-                    
-                    // 2. Delete all tag associations for this post
-                    try {
-                        tagService.removeAllTagsFromPost(postId);
-                    } catch (SQLException e) {
-                        System.out.println("Error removing tag associations: " + e.getMessage());
-                    }
-                    
-                    // 3. Delete all comments
-                    List<Comment> comments = commentService.readByPostId(postId);
-                    for (Comment comment : comments) {
-                        try {
-                            commentService.delete(comment.getId());
-                        } catch (SQLException e) {
-                            System.out.println("Error deleting comment " + comment.getId() + ": " + e.getMessage());
-                        }
-                    }
-                    
-                    // 4. Finally delete the post
-                    postService.delete(postId);
-                    
+                int postId = selectedPost.getId();
+                System.out.println("Deleting post ID: " + postId);
+                
+                // Post, comments, reactions and tag links in one transaction, in the background
+                deleteRequest.submit(asyncService.deletePost(postId), done -> {
                     // Update UI
                     loadPosts();
                     clearFields();
+                    detailsRequest.cancel();
                     postDetailsBox.setVisible(false);
                     selectedPost = null;
                     showInfo("Post deleted successfully");
-                } catch (SQLException e) {
-                    Platform.runLater(() -> showError("Error deleting post: " + e.getMessage()));
+                }, e -> {
+                    showError("Error deleting post: " + e.getMessage());
                     e.printStackTrace();
-                }
+                });
             }
         });
     }
@@ -638,19 +545,21 @@ public class ForumController {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    int index = commentsListView.getSelectionModel().getSelectedIndex();
-                    List<Comment> comments = commentService.readByPostId(selectedPost.getId());
-                    
-                    if (index >= 0 && index < comments.size()) {
-                        selectedComment = comments.get(index);
-                        commentService.delete(selectedComment.getId());
-                        loadComments(selectedPost.getId());
+                // Resolved from the row itself, rows follow the thread order, not the load order
+                Comment comment = getSelectedComment();
+                
+                if (comment != null) {
+                    selectedComment = comment;
+                    // The comment and its replies, in the background
+                    commentRequest.submit(asyncService.deleteComment(comment.getId()), count -> {
+                        if (selectedPost != null && selectedPost.getId() == comment.getPostId()) {
+                            loadComments(comment.getPostId());
+                        }
                         showInfo("Comment deleted successfully");
-                    }
-                } catch (SQLException e) {
-                    showError("Error deleting comment: " + e.getMessage());
-                    e.printStackTrace();
+                    }, e -> {
+                        showError("Error deleting comment: " + e.getMessage());
+                        e.printStackTrace();
+                    });
                 }
             }
         });
@@ -664,30 +573,17 @@ public class ForumController {
             return;
         }
         
-        try {
-            int index = commentsListView.getSelectionModel().getSelectedIndex();
-            List<Comment> comments = commentService.readByPostId(selectedPost.getId());
-            
-            if (index >= 0 && index < comments.size()) {
-                selectedComment = comments.get(index);
-                // Populate the text area with the comment content
-                commentTextArea.setText(selectedComment.getContent());
-                // Change the button text or provide some indication that we're editing
-                editingComment = true;
-                
-                // Show username of comment author
-                String userInfo;
-                try {
-                    userInfo = userService.getUsernameById(selectedComment.getOwnerId());
-                } catch (SQLException e) {
-                    userInfo = "User ID: " + selectedComment.getOwnerId();
-                    System.out.println("Error getting user info: " + e.getMessage());
-                }
-                showInfo("Editing comment by " + userInfo + ". Press 'Update Comment' when done.");
-            }
-        } catch (SQLException e) {
-            showError("Error editing comment: " + e.getMessage());
-            e.printStackTrace();
+        Comment comment = getSelectedComment();
+        if (comment != null) {
+            selectedComment = comment;
+            // Populate the text area with the comment content
+            commentTextArea.setText(selectedComment.getContent());
+            // Change the button text or provide some indication that we're editing
+            editingComment = true;
+            
+            // Show username of comment author
+            String userInfo = getUserDisplayName(selectedComment.getOwnerId());
+            showInfo("Editing comment by " + userInfo + ". Press 'Update Comment' when done.");
         }
     }
 
@@ -699,81 +595,36 @@ public class ForumController {
             return;
         }
         
-        try {
-            int index = commentsListView.getSelectionModel().getSelectedIndex();
-            List<Comment> comments = commentService.readByPostId(selectedPost.getId());
+        Comment comment = getSelectedComment();
+        if (comment != null) {
+            selectedComment = comment;
             
-            // Find the actual comment from the flattened view
-            Comment actualComment = null;
-            int count = 0;
+            // Set up for reply mode
+            replyingToComment = true;
+            editingComment = false;
             
-            Map<Integer, List<Comment>> commentsByParent = new HashMap<>();
-            List<Comment> topLevelComments = new ArrayList<>();
+            // Clear textarea and focus it
+            commentTextArea.clear();
+            commentTextArea.requestFocus();
             
-            // Group comments by their parent IDs
-            for (Comment comment : comments) {
-                if (comment.getParentId() == null) {
-                    topLevelComments.add(comment);
-                } else {
-                    commentsByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                    .add(comment);
-                }
+            // Update the UI to show we're in reply mode
+            if (addCommentButton != null) {
+                addCommentButton.setText("Envoyer Réponse");
+                addCommentButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 20; -fx-padding: 8 15; -fx-cursor: hand;");
             }
             
-            List<Comment> flattenedComments = new ArrayList<>();
-            flattenCommentsList(topLevelComments, commentsByParent, flattenedComments);
+            // Set prompt text to indicate reply mode
+            commentTextArea.setPromptText("Répondre au commentaire de " + getUserDisplayName(selectedComment.getOwnerId()) + "...");
             
-            if (index >= 0 && index < flattenedComments.size()) {
-                selectedComment = flattenedComments.get(index);
-                
-                // Set up for reply mode
-                replyingToComment = true;
-                editingComment = false;
-                
-                // Clear textarea and focus it
-                commentTextArea.clear();
-                commentTextArea.requestFocus();
-                
-                // Update the UI to show we're in reply mode
-                if (addCommentButton != null) {
-                    addCommentButton.setText("Envoyer Réponse");
-                    addCommentButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 20; -fx-padding: 8 15; -fx-cursor: hand;");
-                }
-                
-                // Set prompt text to indicate reply mode
-                commentTextArea.setPromptText("Répondre au commentaire de " + getUserDisplayName(selectedComment.getOwnerId()) + "...");
-                
-                // Show username of comment author being replied to
-                String userInfo = getUserDisplayName(selectedComment.getOwnerId());
-                showInfo("Replying to " + userInfo + ". Write your reply and press 'Send Reply'.");
-            }
-        } catch (SQLException e) {
-            showError("Error preparing reply: " + e.getMessage());
-            e.printStackTrace();
+            // Show username of comment author being replied to
+            String userInfo = getUserDisplayName(selectedComment.getOwnerId());
+            showInfo("Replying to " + userInfo + ". Write your reply and press 'Send Reply'.");
         }
     }
     
     private String getUserDisplayName(int userId) {
-        try {
-            return userService.getUsernameById(userId);
-        } catch (SQLException e) {
-            System.out.println("Error getting user info: " + e.getMessage());
-            return "User ID: " + userId;
-        }
-    }
-    
-    private void flattenCommentsList(List<Comment> comments, Map<Integer, List<Comment>> commentsByParent, List<Comment> result) {
-        if (comments == null) return;
-        
-        for (Comment comment : comments) {
-            result.add(comment);
-            
-            // Recursively add child comments
-            List<Comment> childComments = commentsByParent.get(comment.getId());
-            if (childComments != null) {
-                flattenCommentsList(childComments, commentsByParent, result);
-            }
-        }
+        // Comment authors are resolved together with the comments
+        return authorNames.getOrDefault(userId, "User ID: " + userId);
     }
 
     @FXML
@@ -789,13 +640,17 @@ public class ForumController {
             return;
         }
 
-        try {
-            // Get username for feedback message
-            String userInfo = getUserDisplayName(selectedComment.getOwnerId());
-            
-            selectedComment.setContent(content);
-            commentService.update(selectedComment);
-            
+        // Ignore clicks while the previous comment is being saved
+        if (commentRequest.isPending()) {
+            return;
+        }
+
+        // Get username for feedback message
+        String userInfo = getUserDisplayName(selectedComment.getOwnerId());
+        
+        Comment comment = selectedComment;
+        comment.setContent(content);
+        commentRequest.submit(asyncService.updateComment(comment), done -> {
             // Reset state
             commentTextArea.clear();
             selectedComment = null;
@@ -803,12 +658,14 @@ public class ForumController {
             resetCommentUI();
             
             // Refresh comments
-            loadComments(selectedPost.getId());
+            if (selectedPost != null && selectedPost.getId() == comment.getPostId()) {
+                loadComments(comment.getPostId());
+            }
             showInfo("Comment by " + userInfo + " updated successfully");
-        } catch (SQLException e) {
+        }, e -> {
             showError("Error updating comment: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     @FXML
@@ -860,47 +717,24 @@ public class ForumController {
         alert.showAndWait();
     }
 
-    private void loadCommentsWithAnimation(int postId) throws SQLException {
-        List<Comment> comments = commentService.readByPostId(postId);
-        
-        commentsListView.getItems().clear();
-        
-        if (comments.isEmpty()) {
-            commentsListView.getItems().add("Aucun commentaire pour le moment");
-        } else {
-            // Group comments by their parent IDs
-            Map<Integer, List<Comment>> commentsByParent = new HashMap<>();
-            List<Comment> topLevelComments = new ArrayList<>();
+    private void loadCommentsWithAnimation(int postId) {
+        commentsRequest.submit(asyncService.loadComments(postId), postComments -> {
+            showComments(postComments);
             
-            // Organize comments into parent-child groups
-            for (Comment comment : comments) {
-                if (comment.getParentId() == null) {
-                    topLevelComments.add(comment);
-                } else {
-                    commentsByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                    .add(comment);
-                }
-            }
+            // Apply fade transition to comment list
+            FadeTransition fade = new FadeTransition(Duration.millis(300), commentsListView);
+            fade.setFromValue(0.5);
+            fade.setToValue(1.0);
+            fade.play();
             
-            // Add comments recursively with indentation
-            addCommentsToListView(topLevelComments, commentsByParent, 0);
-        }
-        
-        System.out.println("Chargement avec animation de " + comments.size() + " commentaires");
-        
-        // Assurez-vous que la ListView est visible
-        commentsListView.setVisible(true);
-        
-        // Apply fade transition to comment list
-        FadeTransition fade = new FadeTransition(Duration.millis(300), commentsListView);
-        fade.setFromValue(0.5);
-        fade.setToValue(1.0);
-        fade.play();
-        
-        // Scroll to last comment if there are any
-        if (!comments.isEmpty()) {
-            commentsListView.scrollTo(commentsListView.getItems().size() - 1);
-        }
+            // Scroll to last comment if there are any
+            if (!postComments.getComments().isEmpty()) {
+                commentsListView.scrollTo(commentsListView.getItems().size() - 1);
+            }
+        }, e -> {
+            showError("Error loading comments: " + e.getMessage());
+            e.printStackTrace();
+        });
     }
 
     private void resetCommentUI() {
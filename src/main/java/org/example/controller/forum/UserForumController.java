@@ -1,6 +1,7 @@
 package org.example.controller.forum;
 
 import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
@@ -12,18 +13,23 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 import org.example.models.forum.Post;
+import org.example.models.forum.PostSummary;
 import org.example.models.forum.Comment;
+import org.example.models.forum.CommentTree;
 import org.example.models.forum.Tag;
 import org.example.services.forum.PostService;
 import org.example.services.forum.CommentService;
-import org.example.services.forum.TagService;
 import org.example.services.forum.PostReactionService;
+import org.example.services.forum.AsyncForumService;
+import org.example.services.forum.TypeaheadIndex;
+import org.example.services.forum.TypeaheadIndex.Suggestion;
 import org.example.services.UserService;
 import org.example.utils.InputValidator;
 import org.example.utils.InputValidator.ValidationResult;
@@ -32,21 +38,27 @@ import org.example.utils.EmojiSelector;
 import org.example.utils.FactService;
 import org.example.utils.DictionaryService;
 import org.example.utils.AiTitleSuggester;
+import org.example.utils.FxRequest;
 
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class UserForumController {
     @FXML
-    private ListView<Integer> forumListView;
+    private ListView<PostSummary> forumListView;
     @FXML
     private TextArea postTextField;
     @FXML
@@ -58,7 +70,7 @@ public class UserForumController {
     @FXML
     private TextArea commentTextArea;
     @FXML
-    private ListView<String> commentsListView;
+    private ListView<CommentRow> commentsListView;
     @FXML
     private Label likesLabel;
     @FXML
@@ -104,40 +116,71 @@ public class UserForumController {
     @FXML
     private Button suggestTitleButton;
     
-    private PostService postService;
-    private CommentService commentService;
-    private TagService tagService;
     private PostReactionService reactionService;
     private UserService userService;
+    private AsyncForumService asyncService;
     private Post selectedPost;
     private int currentUserId = 1; // Temporary hardcoded user ID
     private final int MAX_TITLE_LENGTH = 100;
     private final int MAX_CONTENT_LENGTH = 5000;
     private final int MAX_COMMENT_LENGTH = 1000;
-    private List<Comment> currentComments = new ArrayList<>();
+    // Comments of the selected post loaded so far, in loading order, and the thread built from them
+    private final List<Comment> loadedComments = new ArrayList<>();
+    private CommentTree commentTree = CommentTree.build(List.of());
+    // Comments with replies left to load (null for the top-level comments), with where the next page starts
+    // (null before the first page)
+    private final Map<Integer, CommentService.ThreadCursor> moreComments = new HashMap<>();
+    // Row of each comment of commentTree in commentsListView, "load more" rows sit between them
+    private int[] rowOfPosition = new int[0];
+    // Display names of the comment authors, resolved with them in the background
+    private Map<Integer, String> authorNames = new HashMap<>();
     private Comment selectedComment;
     private boolean replyingToComment = false;
     private VBox inlineReplyBox;
     private int replyToCommentId = -1;
+    // Position of the inline reply form in commentsListView, -1 when it is not shown
+    private int replyFormIndex = -1;
     private VBox postEmojiPane;
     private VBox commentEmojiPane;
     private VBox replyEmojiPane;
     private boolean emojiPaneVisible = false;
     private ScheduledExecutorService factScheduler;
+    private static final int PAGE_SIZE = 50;
+    // Top-level comments or replies read per page of a thread
+    private static final int COMMENT_PAGE_SIZE = 20;
+    private static final DateTimeFormatter COMMENT_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, HH:mm");
+    // Start loading the next page when a cell this close to the end of the list is shown
+    private static final int PREFETCH_DISTANCE = 10;
+    private PostService.PageCursor nextPageCursor;
+    private boolean pageLoading = false;
+    private boolean lastPageLoaded = false;
+    // Query whose results the list shows, null while it shows the feed
+    private String activeSearch;
+    private int searchOffset = 0;
+    // Background requests; submitting a new one cancels the stale one in the same slot
+    private final FxRequest pageRequest = new FxRequest();
+    private final FxRequest detailsRequest = new FxRequest();
+    private final FxRequest commentsRequest = new FxRequest();
+    private final FxRequest countsRequest = new FxRequest();
+    private final FxRequest reactionRequest = FxRequest.forWrites();
+    private final FxRequest searchRequest = new FxRequest();
+    private final FxRequest deleteRequest = FxRequest.forWrites();
+    private final FxRequest postRequest = FxRequest.forWrites();
+    private final FxRequest commentRequest = FxRequest.forWrites();
+    private final FxRequest suggestRequest = new FxRequest();
+    // Typeahead: suggestions are looked up once typing pauses for SUGGEST_DELAY_MS
+    private static final int SUGGEST_DELAY_MS = 150;
+    private static final int SUGGESTION_COUNT = 8;
+    private PauseTransition suggestDelay;
+    private ContextMenu suggestionMenu;
+    private boolean suppressSuggestions = false;
 
     @FXML
     private void initialize() {
         try {
-            postService = new PostService();
-            commentService = new CommentService();
-            tagService = new TagService();
             reactionService = new PostReactionService();
             userService = new UserService();
-            
-            // Initialize profanity filter with additional words if needed
-            ProfanityFilter.addBadWords(new String[] {
-                "damn", "hell", "crap", "shit", "fuck", "ass", "bitch"
-            });
+            asyncService = new AsyncForumService();
             
             // Find a valid user from the database
             initializeValidUser();
@@ -152,9 +195,11 @@ public class UserForumController {
             if (searchTextField != null) {
                 searchTextField.setOnKeyPressed(event -> {
                     if (event.getCode().toString().equals("ENTER")) {
+                        hideSuggestions();
                         handleSearch();
                     }
                 });
+                setupTypeahead();
             }
             
             // Set up Did You Know section
@@ -177,22 +222,7 @@ public class UserForumController {
             
             forumListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal != null) {
-                    try {
-                        // Extract post ID from the custom cell content
-                        int postId = (int) forumListView.getSelectionModel().getSelectedItem();
-                        selectedPost = postService.read(postId);
-                        if (selectedPost != null) {
-                            showPostDetails(selectedPost);
-                        } else {
-                            showError("Publication non trouvée");
-                        }
-                    } catch (SQLException e) {
-                        showError("Erreur de base de données: " + e.getMessage());
-                        e.printStackTrace();
-                    } catch (Exception e) {
-                        showError("Erreur inattendue: " + e.getMessage());
-                        e.printStackTrace();
-                    }
+                    showPostDetails(newVal.getId());
                 }
             });
         } catch (Exception e) {
@@ -212,7 +242,7 @@ public class UserForumController {
     }
 
     private void setupForumListViewCellFactory() {
-        forumListView.setCellFactory(listView -> new ListCell<Integer>() {
+        forumListView.setCellFactory(listView -> new ListCell<PostSummary>() {
             private final TranslateTransition translate = new TranslateTransition(Duration.millis(200));
             
             {
@@ -239,432 +269,542 @@ public class UserForumController {
             }
             
             @Override
-            protected void updateItem(Integer postId, boolean empty) {
-                super.updateItem(postId, empty);
+            protected void updateItem(PostSummary post, boolean empty) {
+                super.updateItem(post, empty);
                 
                 // Reset styles and transition state
                 setStyle("-fx-background-color: transparent;");
                 
-                if (empty || postId == null) {
+                if (empty || post == null) {
                     setText(null);
                     setGraphic(null);
                 } else {
-                    try {
-                        Post post = postService.read(postId);
-                        
-                        // Create custom layout for each post cell
-                        VBox container = new VBox();
-                        container.setSpacing(5);
-                        container.setPadding(new Insets(10));
-                        container.setStyle("-fx-background-color: white; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1;");
-                        
-                        // Filter post title for profanity
-                        String filteredTitle = ProfanityFilter.filter(post.getTitle());
-                        
-                        // Post title with styling
-                        Label titleLabel = new Label(filteredTitle);
-                        titleLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
-                        titleLabel.setStyle("-fx-text-fill: #303030;");
-                        
-                        // Post date
-                        Label dateLabel = new Label(post.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-                        dateLabel.setStyle("-fx-text-fill: #757575; -fx-font-size: 12px;");
-                        
-                        // Tags for the post
-                        HBox tagsBox = new HBox();
-                        tagsBox.setSpacing(5);
-                        List<Tag> tags = tagService.getTagsForPost(post.getId());
-                        for (Tag tag : tags) {
-                            Label tagLabel = new Label("#" + tag.getName());
-                            tagLabel.setStyle("-fx-text-fill: #5e35b1; -fx-font-size: 11px; -fx-background-color: #f3e5f5; -fx-background-radius: 12; -fx-padding: 2 8;");
-                            tagsBox.getChildren().add(tagLabel);
-                            if (tagsBox.getChildren().size() >= 3) break; // Limit to 3 tags
-                        }
-                        
-                        // Engagement statistics
-                        HBox statsBox = new HBox();
-                        statsBox.setSpacing(15);
-                        statsBox.setAlignment(Pos.CENTER_LEFT);
-                        
-                        Label likesStats = new Label("👍 " + reactionService.getLikeCount(post.getId()));
-                        likesStats.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 12px;");
-                        
-                        Label commentsStats = new Label("💬 " + getCommentCount(post.getId()));
-                        commentsStats.setStyle("-fx-text-fill: #3949ab; -fx-font-size: 12px;");
-                        
-                        statsBox.getChildren().addAll(likesStats, commentsStats);
-                        
-                        // Add all components to the container
-                        container.getChildren().addAll(titleLabel, dateLabel, tagsBox, statsBox);
-                        
-                        setGraphic(container);
-                        setText(null);
-                    } catch (SQLException e) {
-                        setText("Error loading post");
-                        setGraphic(null);
+                    if (getIndex() >= getListView().getItems().size() - PREFETCH_DISTANCE) {
+                        loadNextPage();
+                    }
+                    
+                    // Everything shown here comes from the summary, no SQL runs while scrolling
+                    VBox container = new VBox();
+                    container.setSpacing(5);
+                    container.setPadding(new Insets(10));
+                    container.setStyle("-fx-background-color: white; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1;");
+                    
+                    // Post title with styling, profanity masked when the post was saved
+                    Label titleLabel = new Label(post.getMaskedTitle());
+                    titleLabel.setFont(Font.font("System", FontWeight.BOLD, 14));
+                    titleLabel.setStyle("-fx-text-fill: #303030;");
+                    
+                    // Post date
+                    Label dateLabel = new Label(post.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
+                    dateLabel.setStyle("-fx-text-fill: #757575; -fx-font-size: 12px;");
+                    
+                    // Tags for the post
+                    HBox tagsBox = new HBox();
+                    tagsBox.setSpacing(5);
+                    for (String tagName : post.getTagNames()) {
+                        Label tagLabel = new Label("#" + tagName);
+                        tagLabel.setStyle("-fx-text-fill: #5e35b1; -fx-font-size: 11px; -fx-background-color: #f3e5f5; -fx-background-radius: 12; -fx-padding: 2 8;");
+                        tagsBox.getChildren().add(tagLabel);
+                        if (tagsBox.getChildren().size() >= 3) break; // Limit to 3 tags
                     }
+                    
+                    // Engagement statistics
+                    HBox statsBox = new HBox();
+                    statsBox.setSpacing(15);
+                    statsBox.setAlignment(Pos.CENTER_LEFT);
+                    
+                    Label likesStats = new Label("👍 " + post.getLikeCount());
+                    likesStats.setStyle("-fx-text-fill: #4CAF50; -fx-font-size: 12px;");
+                    
+                    Label commentsStats = new Label("💬 " + post.getCommentCount());
+                    commentsStats.setStyle("-fx-text-fill: #3949ab; -fx-font-size: 12px;");
+                    
+                    statsBox.getChildren().addAll(likesStats, commentsStats);
+                    
+                    // Add all components to the container
+                    container.getChildren().addAll(titleLabel, dateLabel, tagsBox, statsBox);
+                    
+                    setGraphic(container);
+                    setText(null);
                 }
             }
         });
     }
     
     private void setupCommentsListViewCellFactory() {
-        commentsListView.setCellFactory(listView -> new ListCell<String>() {
-            @Override
-            protected void updateItem(String commentStr, boolean empty) {
-                super.updateItem(commentStr, empty);
+        commentsListView.setCellFactory(listView -> new CommentCell());
+        
+        // Registered once: the rows carry their Comment, so selection needs no lookup
+        commentsListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
+            selectedComment = newVal != null ? newVal.comment : null;
+            // Afficher le bouton de suppression uniquement si le commentaire appartient à l'utilisateur actuel
+            boolean ownComment = selectedComment != null && selectedComment.getOwnerId() == currentUserId;
+            deleteCommentButton.setVisible(ownComment);
+            deleteCommentButton.setManaged(ownComment);
+        });
+    }
+    
+    /**
+     * A row of the comments list: a comment at its depth in the thread, the inline reply form,
+     * or a message
+     */
+    private static final class CommentRow {
+        static final CommentRow REPLY_FORM = new CommentRow(null, 0, null, false, null);
+        static final CommentRow NO_COMMENTS = new CommentRow(null, 0, "No comments yet. Be the first to comment!", false, null);
+        
+        final Comment comment;
+        final int depth;
+        final String message;
+        // "Load more" rows: the comment whose next replies they load, null for top-level comments
+        final boolean loadMore;
+        final Integer parentId;
+        
+        private CommentRow(Comment comment, int depth, String message, boolean loadMore, Integer parentId) {
+            this.comment = comment;
+            this.depth = depth;
+            this.message = message;
+            this.loadMore = loadMore;
+            this.parentId = parentId;
+        }
+        
+        static CommentRow of(CommentTree tree, int position) {
+            return new CommentRow(tree.get(position), tree.depth(position), null, false, null);
+        }
+        
+        static CommentRow loadMore(Integer parentId, int depth, String label) {
+            return new CommentRow(null, depth, label, true, parentId);
+        }
+    }
+    
+    /**
+     * Comment cell: the layout is built once per cell and only its texts and styles change
+     * when the list view recycles it for another row
+     */
+    private final class CommentCell extends ListCell<CommentRow> {
+        private static final int MAX_INDENT_DEPTH = 6;
+        
+        private final VBox container = new VBox();
+        private final Label replyIndicator = new Label("↪");
+        private final Label userLabel = new Label();
+        private final Label dateLabel = new Label();
+        private final Label contentLabel = new Label();
+        private final Button loadMoreButton = new Button();
+        
+        CommentCell() {
+            container.setSpacing(5);
+            container.setPadding(new Insets(8));
+            
+            // Comment user info
+            HBox userInfoBox = new HBox();
+            userInfoBox.setAlignment(Pos.CENTER_LEFT);
+            userInfoBox.setSpacing(8);
+            
+            replyIndicator.setFont(Font.font("System", 14));
+            replyIndicator.setStyle("-fx-text-fill: #5e35b1; -fx-font-weight: bold;");
+            
+            userLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
+            userLabel.setStyle("-fx-text-fill: #5e35b1;");
+            
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            
+            dateLabel.setStyle("-fx-text-fill: #757575; -fx-font-size: 11px;");
+            
+            // Add Reply link
+            Button replyButton = new Button("Reply");
+            replyButton.setStyle("-fx-background-color: transparent; -fx-text-fill: #3949ab; -fx-font-weight: bold; -fx-padding: 0; -fx-cursor: hand; -fx-font-size: 11px;");
+            replyButton.setOnAction(e -> {
+                CommentRow row = getItem();
+                if (row != null && row.comment != null) {
+                    showInlineReplyForm(row.comment);
+                }
+            });
+            
+            userInfoBox.getChildren().addAll(replyIndicator, userLabel, spacer, dateLabel, replyButton);
+            
+            contentLabel.setWrapText(true);
+            contentLabel.setStyle("-fx-text-fill: #424242; -fx-font-size: 13px;");
+            
+            container.getChildren().addAll(userInfoBox, contentLabel);
+            
+            loadMoreButton.setStyle("-fx-background-color: transparent; -fx-text-fill: #3949ab; -fx-font-weight: bold; -fx-padding: 4 8; -fx-cursor: hand; -fx-font-size: 12px;");
+            loadMoreButton.setOnAction(e -> {
+                CommentRow row = getItem();
+                if (row != null && row.loadMore) {
+                    loadMoreComments(row.parentId);
+                }
+            });
+        }
+        
+        @Override
+        protected void updateItem(CommentRow row, boolean empty) {
+            super.updateItem(row, empty);
+            
+            if (empty || row == null) {
+                setText(null);
+                setGraphic(null);
+                setStyle("-fx-background-color: transparent;");
+            } else if (row == CommentRow.REPLY_FORM) {
+                // This is our inline reply form
+                setText(null);
+                setGraphic(inlineReplyBox);
+                setStyle("-fx-background-color: transparent;");
+            } else if (row.loadMore) {
+                loadMoreButton.setText(row.message);
+                setText(null);
+                setGraphic(loadMoreButton);
+                setStyle("-fx-padding: 0 2 0 " + (2 + Math.min(row.depth, MAX_INDENT_DEPTH) * 16) + ";");
+            } else if (row.comment == null) {
+                // Handle the "no comments" message
+                setText(row.message);
+                setGraphic(null);
+                setStyle("-fx-text-fill: #757575; -fx-font-style: italic;");
+            } else {
+                Comment comment = row.comment;
                 
-                if (empty || commentStr == null) {
-                    setText(null);
-                    setGraphic(null);
-                    setStyle("-fx-background-color: transparent;");
-                } else if (commentStr.equals("No comments yet. Be the first to comment!")) {
-                    // Handle the "no comments" message
-                    setText(commentStr);
-                    setGraphic(null);
-                    setStyle("-fx-text-fill: #757575; -fx-font-style: italic;");
-                } else if (commentStr.startsWith("REPLY_FORM:")) {
-                    // This is our inline reply form
-                    setText(null);
-                    setGraphic(inlineReplyBox);
-                    setStyle("-fx-background-color: transparent;");
+                // Determine if this is a reply (has parent ID)
+                boolean isReply = comment.getParentId() != null;
+                
+                // Apply different styling based on whether it's a reply
+                if (isReply) {
+                    container.setStyle("-fx-background-color: #f3e5f5; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1; -fx-padding: 8 8 8 16;");
                 } else {
-                    try {
-                        // Extract comment ID from string
-                        // Format is: "%d - %s[%s] %s%s - %s" (id, indent, username, replyPrefix, content, datetime)
-                        String[] parts = commentStr.split(" - ", 3);
-                        
-                        if (parts.length >= 2) {
-                            String idAndIndent = parts[0];
-                            int commentId = Integer.parseInt(idAndIndent.trim().split(" ")[0]);
-                            Comment comment = null;
-                            
-                            // Find the comment in our cached list to avoid DB query
-                            for (Comment c : currentComments) {
-                                if (c.getId() == commentId) {
-                                    comment = c;
-                                    break;
-                                }
-                            }
-                            
-                            if (comment != null) {
-                                // Create custom layout for each comment cell
-                                VBox container = new VBox();
-                                container.setSpacing(5);
-                                container.setPadding(new Insets(8));
-                                
-                                // Determine if this is a reply (has parent ID)
-                                boolean isReply = comment.getParentId() != null;
-                                
-                                // Apply different styling based on whether it's a reply
-                                if (isReply) {
-                                    container.setStyle("-fx-background-color: #f3e5f5; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1; -fx-padding: 8 8 8 16;");
-                                } else {
-                                    container.setStyle("-fx-background-color: white; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1;");
-                                }
-                                
-                                // Comment user info
-                                HBox userInfoBox = new HBox();
-                                userInfoBox.setAlignment(Pos.CENTER_LEFT);
-                                userInfoBox.setSpacing(8);
-                                
-                                // Get username
-                                String username;
-                                try {
-                                    username = userService.getUsernameById(comment.getOwnerId());
-                                } catch (SQLException e) {
-                                    username = "User #" + comment.getOwnerId();
-                                }
-                                
-                                // Add reply indicator if it's a reply
-                                Label replyIndicator = null;
-                                if (isReply) {
-                                    replyIndicator = new Label("↪");
-                                    replyIndicator.setFont(Font.font("System", 14));
-                                    replyIndicator.setStyle("-fx-text-fill: #5e35b1; -fx-font-weight: bold;");
-                                }
-                                
-                                Label userLabel = new Label(username);
-                                userLabel.setFont(Font.font("System", FontWeight.BOLD, 12));
-                                userLabel.setStyle("-fx-text-fill: #5e35b1;");
-                                
-                                Region spacer = new Region();
-                                HBox.setHgrow(spacer, Priority.ALWAYS);
-                                
-                                Label dateLabel = new Label(comment.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, HH:mm")));
-                                dateLabel.setStyle("-fx-text-fill: #757575; -fx-font-size: 11px;");
-                                
-                                // Add Reply link
-                                final Comment finalComment = comment;
-                                Button replyButton = new Button("Reply");
-                                replyButton.setStyle("-fx-background-color: transparent; -fx-text-fill: #3949ab; -fx-font-weight: bold; -fx-padding: 0; -fx-cursor: hand; -fx-font-size: 11px;");
-                                replyButton.setOnAction(e -> {
-                                    showInlineReplyForm(finalComment);
-                                });
-                                
-                                if (replyIndicator != null) {
-                                    userInfoBox.getChildren().addAll(replyIndicator, userLabel, spacer, dateLabel, replyButton);
-                                } else {
-                                    userInfoBox.getChildren().addAll(userLabel, spacer, dateLabel, replyButton);
-                                }
-                                
-                                // Filter comment content for profanity
-                                String filteredContent = ProfanityFilter.filter(comment.getContent());
-                                
-                                // Comment content
-                                Label contentLabel = new Label(filteredContent);
-                                contentLabel.setWrapText(true);
-                                contentLabel.setStyle("-fx-text-fill: #424242; -fx-font-size: 13px;");
-                                
-                                // Add all components to the container
-                                container.getChildren().addAll(userInfoBox, contentLabel);
-                                
-                                setGraphic(container);
-                                setText(null);
-                            } else {
-                                setText(commentStr);
-                                setGraphic(null);
-                            }
-                        } else {
-                            setText(commentStr);
-                            setGraphic(null);
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        setText("Error loading comment");
-                        setGraphic(null);
-                    }
+                    container.setStyle("-fx-background-color: white; -fx-background-radius: 8; -fx-border-radius: 8; -fx-border-color: #e0e0e0; -fx-border-width: 1;");
                 }
+                replyIndicator.setVisible(isReply);
+                replyIndicator.setManaged(isReply);
+                
+                // Username resolved when the comments were loaded
+                userLabel.setText(authorNames.getOrDefault(comment.getOwnerId(), "User #" + comment.getOwnerId()));
+                dateLabel.setText(comment.getCreatedAt().format(COMMENT_DATE_FORMAT));
+                // Comment content, profanity masked when the comment was saved
+                contentLabel.setText(comment.getMaskedContent());
+                
+                setGraphic(container);
+                setText(null);
+                // Nested replies are indented, up to a limit so deep threads stay readable
+                setStyle("-fx-padding: 2 2 2 " + (2 + Math.min(row.depth, MAX_INDENT_DEPTH) * 16) + ";");
             }
-        });
+        }
     }
 
     private void loadPosts() {
-        try {
-            forumListView.getItems().clear();
-            List<Post> posts = postService.readAll();
-            for (Post post : posts) {
-                forumListView.getItems().add(post.getId());
+        pageRequest.cancel();
+        searchRequest.cancel();
+        activeSearch = null;
+        nextPageCursor = null;
+        pageLoading = false;
+        lastPageLoaded = false;
+        forumListView.getItems().clear();
+        loadNextPage();
+    }
+
+    /**
+     * Fetch the next page of the feed in the background and append it to the list
+     */
+    private void loadNextPage() {
+        if (pageLoading || lastPageLoaded) {
+            return;
+        }
+        pageLoading = true;
+        if (activeSearch != null) {
+            loadNextSearchPage();
+            return;
+        }
+        
+        pageRequest.submit(asyncService.readPage(nextPageCursor, PAGE_SIZE), page -> {
+            pageLoading = false;
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            if (!page.isEmpty()) {
+                nextPageCursor = PostService.PageCursor.after(page.get(page.size() - 1));
+                forumListView.getItems().addAll(page);
             }
-        } catch (SQLException e) {
+        }, e -> {
+            pageLoading = false;
             showError("Error loading posts: " + e.getMessage());
-        }
+        });
+    }
+
+    /**
+     * Load the selected post in the background; selecting another post first cancels this load
+     */
+    private void showPostDetails(int postId) {
+        detailsRequest.submit(asyncService.loadPostDetails(postId, COMMENT_PAGE_SIZE), details -> {
+            if (details == null) {
+                showError("Publication non trouvée");
+                return;
+            }
+            selectedPost = details.getPost();
+            showPostDetails(details);
+        }, e -> {
+            showError("Erreur de base de données: " + e.getMessage());
+            e.printStackTrace();
+        });
     }
 
-    private void showPostDetails(Post post) {
+    private void showPostDetails(AsyncForumService.PostDetails details) {
+        Post post = details.getPost();
+        
         // Hide the details box initially for animation
         postDetailsBox.setOpacity(0);
         postDetailsBox.setScaleX(0.95);
         postDetailsBox.setScaleY(0.95);
         postDetailsBox.setVisible(true);
         
-        try {
-            // Load tags
-            List<Tag> tags = tagService.getTagsForPost(post.getId());
-            StringBuilder tagString = new StringBuilder();
-            for (Tag tag : tags) {
-                tagString.append(tag.getName()).append(", ");
-            }
-            // Remove trailing comma if exists
-            if (tagString.length() > 2) {
-                tagString.setLength(tagString.length() - 2);
-            }
-            
-            // Filter post content for profanity
-            String filteredTitle = ProfanityFilter.filter(post.getTitle());
-            String filteredContent = ProfanityFilter.filter(post.getContent());
-            
-            // Set post details in post details section
-            postTitleLabel.setText(filteredTitle);
-            postContentLabel.setText(filteredContent);
-            postTagsLabel.setText("Tags: " + tagString.toString());
-            
-            // Check if the post belongs to the current user and update delete button visibility
-            if (post.getOwnerId() == currentUserId) {
-                // Post belongs to current user, allow deletion
-                deletePostButton.setVisible(true);
-                deletePostButton.setManaged(true);
-            } else {
-                // Post belongs to someone else, hide delete button
-                deletePostButton.setVisible(false);
-                deletePostButton.setManaged(false);
-            }
-            
-            // Load comments
-            loadComments(post.getId());
-            
-            // Hide the delete comment button initially as no comment is selected
-            deleteCommentButton.setVisible(false);
-            deleteCommentButton.setManaged(false);
-            
-            // Load reactions
-            updateReactionCounts(post.getId());
-            
-            // Animate the post details box
-            FadeTransition fadeIn = new FadeTransition(Duration.millis(300), postDetailsBox);
-            fadeIn.setFromValue(0);
-            fadeIn.setToValue(1);
-            
-            ScaleTransition scaleIn = new ScaleTransition(Duration.millis(300), postDetailsBox);
-            scaleIn.setFromX(0.95);
-            scaleIn.setFromY(0.95);
-            scaleIn.setToX(1);
-            scaleIn.setToY(1);
-            
-            fadeIn.play();
-            scaleIn.play();
-            
-        } catch (SQLException e) {
-            showError("Error loading post details: " + e.getMessage());
-            e.printStackTrace();
+        // Load tags
+        StringBuilder tagString = new StringBuilder();
+        for (Tag tag : details.getTags()) {
+            tagString.append(tag.getName()).append(", ");
         }
+        // Remove trailing comma if exists
+        if (tagString.length() > 2) {
+            tagString.setLength(tagString.length() - 2);
+        }
+        
+        // Set post details in post details section, profanity masked when the post was saved
+        postTitleLabel.setText(post.getMaskedTitle());
+        postContentLabel.setText(post.getMaskedContent());
+        postTagsLabel.setText("Tags: " + tagString.toString());
+        
+        // Check if the post belongs to the current user and update delete button visibility
+        if (post.getOwnerId() == currentUserId) {
+            // Post belongs to current user, allow deletion
+            deletePostButton.setVisible(true);
+            deletePostButton.setManaged(true);
+        } else {
+            // Post belongs to someone else, hide delete button
+            deletePostButton.setVisible(false);
+            deletePostButton.setManaged(false);
+        }
+        
+        // Show comments
+        showComments(details.getComments());
+        
+        // Hide the delete comment button initially as no comment is selected
+        deleteCommentButton.setVisible(false);
+        deleteCommentButton.setManaged(false);
+        
+        // Show reactions
+        likesLabel.setText("Likes: " + details.getLikeCount());
+        dislikesLabel.setText("Dislikes: " + details.getDislikeCount());
+        
+        // Animate the post details box
+        FadeTransition fadeIn = new FadeTransition(Duration.millis(300), postDetailsBox);
+        fadeIn.setFromValue(0);
+        fadeIn.setToValue(1);
+        
+        ScaleTransition scaleIn = new ScaleTransition(Duration.millis(300), postDetailsBox);
+        scaleIn.setFromX(0.95);
+        scaleIn.setFromY(0.95);
+        scaleIn.setToX(1);
+        scaleIn.setToY(1);
+        
+        fadeIn.play();
+        scaleIn.play();
     }
 
-    private void loadComments(int postId) {
-        try {
-            commentsListView.getItems().clear();
-            currentComments = commentService.readByPostId(postId);
-            
-            if (currentComments.isEmpty()) {
-                commentsListView.getItems().add("No comments yet. Be the first to comment!");
-                return;
-            }
-            
-            // Group comments by their parent IDs
-            Map<Integer, List<Comment>> commentsByParent = new HashMap<>();
-            List<Comment> topLevelComments = new ArrayList<>();
-            
-            // Organize comments into parent-child groups
-            for (Comment comment : currentComments) {
-                if (comment.getParentId() == null) {
-                    topLevelComments.add(comment);
-                } else {
-                    commentsByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                    .add(comment);
-                }
-            }
-            
-            // Add comments recursively with indentation
-            addCommentsToListView(topLevelComments, commentsByParent, 0);
-            
-            // Configurer le gestionnaire de sélection pour les commentaires
-            commentsListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal != null && !newVal.equals("No comments yet. Be the first to comment!")) {
-                    // Analyser la sélection pour extraire l'ID du commentaire
-                    try {
-                        int index = commentsListView.getSelectionModel().getSelectedIndex();
-                        // Get all comments in flattened form to match the list view
-                        List<Comment> flattenedComments = new ArrayList<>();
-                        Map<Integer, List<Comment>> commentMap = new HashMap<>();
-                        List<Comment> rootComments = new ArrayList<>();
-                        
-                        // Rebuild the hierarchy for proper indexing
-                        for (Comment comment : currentComments) {
-                            if (comment.getParentId() == null) {
-                                rootComments.add(comment);
-                            } else {
-                                commentMap.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                          .add(comment);
-                            }
-                        }
-                        
-                        // Get comments in display order
-                        flattenCommentsList(rootComments, commentMap, flattenedComments);
-                        
-                        if (index >= 0 && index < flattenedComments.size()) {
-                            selectedComment = flattenedComments.get(index);
-                            
-                            // Afficher le bouton de suppression uniquement si le commentaire appartient à l'utilisateur actuel
-                            if (selectedComment.getOwnerId() == currentUserId) {
-                                deleteCommentButton.setVisible(true);
-                                deleteCommentButton.setManaged(true);
-                            } else {
-                                deleteCommentButton.setVisible(false);
-                                deleteCommentButton.setManaged(false);
-                            }
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        deleteCommentButton.setVisible(false);
-                        deleteCommentButton.setManaged(false);
-                    }
-                } else {
-                    selectedComment = null;
-                    deleteCommentButton.setVisible(false);
-                    deleteCommentButton.setManaged(false);
-                }
-            });
-            
-        } catch (SQLException e) {
-            showError("Error loading comments: " + e.getMessage());
+    /**
+     * Start a new thread from the first page of top-level comments
+     */
+    private void showComments(AsyncForumService.PostComments postComments) {
+        commentsRequest.cancel();
+        loadedComments.clear();
+        moreComments.clear();
+        commentTree = CommentTree.build(loadedComments);
+        authorNames = new HashMap<>();
+        addCommentPage(null, postComments);
+    }
+    
+    /**
+     * Read the next page of top-level comments, or of the replies to a comment, in the background
+     * @param parentId The comment whose replies to load, null for top-level comments
+     */
+    private void loadMoreComments(Integer parentId) {
+        if (selectedPost == null || !moreComments.containsKey(parentId)) {
+            return;
         }
+        commentsRequest.submit(
+                asyncService.loadCommentPage(selectedPost.getId(), parentId, moreComments.get(parentId), COMMENT_PAGE_SIZE),
+                page -> addCommentPage(parentId, page),
+                e -> showError("Error loading comments: " + e.getMessage()));
     }
     
-    private void addCommentsToListView(List<Comment> comments, Map<Integer, List<Comment>> commentsByParent, int level) {
-        if (comments == null) return;
-        
+    /**
+     * Add a page read with readChildren to the thread and redraw it
+     */
+    private void addCommentPage(Integer parentId, AsyncForumService.PostComments page) {
+        List<Comment> comments = page.getComments();
         for (Comment comment : comments) {
-            // Récupérer le nom d'utilisateur
-            String userInfo;
-            try {
-                userInfo = userService.getUsernameById(comment.getOwnerId());
-            } catch (SQLException e) {
-                userInfo = "User ID: " + comment.getOwnerId();
-                System.out.println("Error getting user info for comment " + comment.getId() + ": " + e.getMessage());
+            // A comment posted from here since the thread was opened comes back in a later page
+            if (commentTree.positionOf(comment.getId()) < 0) {
+                loadedComments.add(comment);
+                if (comment.getReplyCount() > 0) {
+                    moreComments.put(comment.getId(), null);
+                }
             }
-            
-            // Add indentation based on the level
-            String indent = "";
-            for (int i = 0; i < level; i++) {
-                indent += "    ";
+        }
+        if (comments.size() == COMMENT_PAGE_SIZE) {
+            moreComments.put(parentId, CommentService.ThreadCursor.after(comments.get(comments.size() - 1)));
+        } else {
+            moreComments.remove(parentId);
+        }
+        authorNames.putAll(page.getAuthorNames());
+        commentTree = CommentTree.build(loadedComments);
+        renderComments();
+    }
+    
+    /**
+     * Fill the comments list from commentTree, one row per comment in display order, with a
+     * "load more" row after the last loaded reply of each comment that has more
+     */
+    private void renderComments() {
+        replyFormIndex = -1;
+        int count = commentTree.size();
+        rowOfPosition = new int[count];
+        if (count == 0) {
+            commentsListView.getItems().setAll(CommentRow.NO_COMMENTS);
+            return;
+        }
+        int[] loadedReplies = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (commentTree.parentPosition(i) >= 0) {
+                loadedReplies[commentTree.parentPosition(i)]++;
             }
-            
-            // Add reply indicator for nested comments
-            String replyPrefix = level > 0 ? "↪ " : "";
-            
-            // Filter comment content for profanity
-            String filteredContent = ProfanityFilter.filter(comment.getContent());
-            
-            String formattedComment = String.format("%d - %s[%s] %s%s - %s", 
-                comment.getId(),
-                indent,
-                userInfo,
-                replyPrefix,
-                filteredContent,
-                comment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-                
-            commentsListView.getItems().add(formattedComment);
-            
-            // Recursively add child comments
-            List<Comment> childComments = commentsByParent.get(comment.getId());
-            if (childComments != null) {
-                addCommentsToListView(childComments, commentsByParent, level + 1);
+        }
+        
+        List<CommentRow> rows = new ArrayList<>(count + 1);
+        // Comments whose replies are still being listed, from the top-level one down
+        int[] open = new int[count];
+        int openCount = 0;
+        for (int i = 0; i < count; i++) {
+            while (openCount > commentTree.depth(i)) {
+                addLoadMoreRow(rows, open[--openCount], loadedReplies);
             }
+            rowOfPosition[i] = rows.size();
+            rows.add(CommentRow.of(commentTree, i));
+            open[openCount++] = i;
+        }
+        while (openCount > 0) {
+            addLoadMoreRow(rows, open[--openCount], loadedReplies);
+        }
+        if (moreComments.containsKey(null)) {
+            rows.add(CommentRow.loadMore(null, 0, "Load more comments"));
         }
+        commentsListView.getItems().setAll(rows);
     }
     
-    private void flattenCommentsList(List<Comment> comments, Map<Integer, List<Comment>> commentsByParent, List<Comment> result) {
-        if (comments == null) return;
-        
-        for (Comment comment : comments) {
-            result.add(comment);
-            
-            // Recursively add child comments
-            List<Comment> childComments = commentsByParent.get(comment.getId());
-            if (childComments != null) {
-                flattenCommentsList(childComments, commentsByParent, result);
+    private void addLoadMoreRow(List<CommentRow> rows, int position, int[] loadedReplies) {
+        Comment comment = commentTree.get(position);
+        if (!moreComments.containsKey(comment.getId())) {
+            return;
+        }
+        int left = comment.getReplyCount() - loadedReplies[position];
+        String label;
+        if (left <= 0) {
+            label = "View more replies";
+        } else if (loadedReplies[position] == 0) {
+            label = left == 1 ? "View 1 reply" : "View " + left + " replies";
+        } else {
+            label = left == 1 ? "View 1 more reply" : "View " + left + " more replies";
+        }
+        rows.add(CommentRow.loadMore(comment.getId(), commentTree.depth(position) + 1, label));
+    }
+    
+    /**
+     * Show a comment the user just posted without reloading the thread
+     * @param posted The comment with its author's name, from {@link AsyncForumService#createComment}
+     */
+    private void showPostedComment(AsyncForumService.PostComments posted) {
+        Comment comment = posted.getComments().get(0);
+        if (comment.getCreatedAt() == null) {
+            comment.setCreatedAt(LocalDateTime.now());
+        }
+        if (comment.getParentId() != null) {
+            Comment parent = commentTree.find(comment.getParentId());
+            if (parent != null) {
+                parent.setReplyCount(parent.getReplyCount() + 1);
             }
         }
+        // Resolved in the background with the comment
+        authorNames.putAll(posted.getAuthorNames());
+        loadedComments.add(comment);
+        commentTree = CommentTree.build(loadedComments);
+        renderComments();
+        
+        // Apply a fade transition to the comments list
+        FadeTransition fade = new FadeTransition(Duration.millis(300), commentsListView);
+        fade.setFromValue(0.5);
+        fade.setToValue(1.0);
+        fade.play();
+        
+        // Scroll to the new comment
+        int position = commentTree.positionOf(comment.getId());
+        if (position >= 0) {
+            commentsListView.scrollTo(rowOfPosition[position]);
+        }
+    }
+    
+    /**
+     * Take a deleted comment and the replies shown under it out of the thread
+     */
+    private void removeDeletedComment(Comment comment) {
+        int position = commentTree.positionOf(comment.getId());
+        if (position < 0) {
+            return;
+        }
+        int parent = commentTree.parentPosition(position);
+        if (parent >= 0) {
+            Comment parentComment = commentTree.get(parent);
+            parentComment.setReplyCount(Math.max(0, parentComment.getReplyCount() - 1));
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (int i = position; i < commentTree.subtreeEnd(position); i++) {
+            removed.add(commentTree.get(i).getId());
+            moreComments.remove(commentTree.get(i).getId());
+        }
+        loadedComments.removeIf(c -> removed.contains(c.getId()));
+        commentTree = CommentTree.build(loadedComments);
+        renderComments();
+    }
+    
+    private void removeInlineReplyForm() {
+        if (replyFormIndex >= 0) {
+            commentsListView.getItems().remove(replyFormIndex);
+            replyFormIndex = -1;
+        }
     }
 
+    /**
+     * Reload the reaction and comment counts of a post in the background,
+     * for both the details pane and its list cell
+     */
     private void updateReactionCounts(int postId) {
-        try {
-            int likes = reactionService.getLikeCount(postId);
-            int dislikes = reactionService.getDislikeCount(postId);
-            likesLabel.setText("Likes: " + likes);
-            dislikesLabel.setText("Dislikes: " + dislikes);
-        } catch (SQLException e) {
-            showError("Error loading reaction counts: " + e.getMessage());
+        countsRequest.submit(asyncService.readSummaries(List.of(postId)), fresh -> {
+            if (fresh.isEmpty()) {
+                return;
+            }
+            PostSummary counts = fresh.get(0);
+            if (selectedPost != null && selectedPost.getId() == postId) {
+                likesLabel.setText("Likes: " + counts.getLikeCount());
+                dislikesLabel.setText("Dislikes: " + counts.getDislikeCount());
+            }
+            refreshSummary(counts);
+        }, e -> showError("Error loading reaction counts: " + e.getMessage()));
+    }
+
+    /**
+     * Copy fresh counts into the list cell of one post.
+     * The summary is updated in place: replacing the item would re-fire the selection listener.
+     */
+    private void refreshSummary(PostSummary fresh) {
+        for (PostSummary summary : forumListView.getItems()) {
+            if (summary.getId() == fresh.getId()) {
+                summary.setLikeCount(fresh.getLikeCount());
+                summary.setDislikeCount(fresh.getDislikeCount());
+                summary.setCommentCount(fresh.getCommentCount());
+                forumListView.refresh();
+                return;
+            }
         }
     }
 
@@ -730,6 +870,11 @@ public class UserForumController {
 
     @FXML
     private void handlePost() {
+        // Ignore clicks while the previous post is being saved
+        if (postRequest.isPending()) {
+            return;
+        }
+        
         // Valider le formulaire
         if (!validatePostForm()) {
             return;
@@ -747,24 +892,18 @@ public class UserForumController {
             }
         }
         
-        try {
-            // Create the post (original text is stored, but displayed filtered)
-            Post post = new Post();
-            post.setTitle(title);
-            post.setContent(content);
-            post.setOwnerId(currentUserId);
-            postService.create(post);
-            
-            // Add tags if present
-            if (!tags.isEmpty()) {
-                String[] tagArray = tags.split(",");
-                for (String tagName : tagArray) {
-                    Tag tag = new Tag();
-                    tag.setName(tagName.trim());
-                    tagService.create(tag);
-                    tagService.addTagToPost(post.getId(), tag.getId());
-                }
-            }
+        // Create the post (original text is stored, but displayed filtered)
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setOwnerId(currentUserId);
+        List<String> tagNames = tags.isEmpty() ? List.of() : Arrays.asList(tags.split(","));
+        
+        // Post and tags are written in the background, reusing the tags that already exist
+        postRequest.submit(asyncService.createPost(post, tagNames), created -> {
+            // The post was created for another user if the current one no longer exists
+            boolean userReset = created.getOwnerId() != currentUserId;
+            currentUserId = created.getOwnerId();
             
             // Animation for success feedback
             Button postButton = this.postButton;
@@ -805,7 +944,9 @@ public class UserForumController {
                 
                 // Show success message AFTER animation using Platform.runLater
                 Platform.runLater(() -> {
-                    showInfo("Publication créée avec succès !");
+                    showInfo(userReset
+                            ? "Publication créée avec succès après réinitialisation !"
+                            : "Publication créée avec succès !");
                 });
                 
                 // Reload the posts
@@ -813,51 +954,10 @@ public class UserForumController {
             });
             
             scaleUp.play();
-            
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("owner_id")) {
-                // Try to reinitialize valid user and retry
-                try {
-                    // Show warning using Platform.runLater
-                    Platform.runLater(() -> {
-                        showWarning("Erreur de référence utilisateur. Tentative de réinitialisation...");
-                    });
-                    
-                    currentUserId = userService.getOrCreateValidUserId();
-                    
-                    // Retry post creation with new user ID
-                    Post post = new Post();
-                    post.setTitle(title);
-                    post.setContent(content);
-                    post.setOwnerId(currentUserId);
-                    postService.create(post);
-                    
-                    // Clear the form
-                    titleTextField.clear();
-                    postTextField.clear();
-                    tagTextField.clear();
-                    
-                    // Success message and refresh using Platform.runLater
-                    Platform.runLater(() -> {
-                        showInfo("Publication créée avec succès après réinitialisation !");
-                    });
-                    
-                    // Reload the posts
-                    loadPosts();
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> {
-                        showError("Échec de la réinitialisation. Erreur: " + retryEx.getMessage());
-                    });
-                    retryEx.printStackTrace();
-                }
-            } else {
-                Platform.runLater(() -> {
-                    showError("Erreur lors de la création de la publication: " + e.getMessage());
-                });
-                e.printStackTrace();
-            }
-        }
+        }, e -> {
+            showError("Erreur lors de la création de la publication: " + e.getMessage());
+            e.printStackTrace();
+        });
     }
 
     /**
@@ -883,55 +983,34 @@ public class UserForumController {
 
     @FXML
     private void handleReplyComment() {
-        String selected = commentsListView.getSelectionModel().getSelectedItem();
-        if (selected == null || selected.equals("No comments yet. Be the first to comment!")) {
+        CommentRow selected = commentsListView.getSelectionModel().getSelectedItem();
+        if (selected == null || selected.comment == null) {
             showError("No comment selected");
             return;
         }
         
         try {
-            int index = commentsListView.getSelectionModel().getSelectedIndex();
-            // Get all comments in flattened form to match the list view
-            List<Comment> flattenedComments = new ArrayList<>();
-            Map<Integer, List<Comment>> commentMap = new HashMap<>();
-            List<Comment> rootComments = new ArrayList<>();
-            
-            // Rebuild the hierarchy for proper indexing
-            for (Comment comment : currentComments) {
-                if (comment.getParentId() == null) {
-                    rootComments.add(comment);
-                } else {
-                    commentMap.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                              .add(comment);
-                }
-            }
+            selectedComment = selected.comment;
             
-            // Get comments in display order
-            flattenCommentsList(rootComments, commentMap, flattenedComments);
+            // Set up for reply mode
+            replyingToComment = true;
             
-            if (index >= 0 && index < flattenedComments.size()) {
-                selectedComment = flattenedComments.get(index);
-                
-                // Set up for reply mode
-                replyingToComment = true;
-                
-                // Clear textarea and focus it
-                commentTextArea.clear();
-                commentTextArea.requestFocus();
-                
-                // Update the button to show reply mode
-                if (addCommentButton != null) {
-                    addCommentButton.setText("Post Reply");
-                    addCommentButton.setStyle("-fx-background-color: #3949ab; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 24; -fx-padding: 8 15; -fx-cursor: hand;");
-                }
-                
-                // Set prompt text to indicate reply mode
-                commentTextArea.setPromptText("Reply to " + getUserDisplayName(selectedComment.getOwnerId()) + "...");
-                
-                // Show username of comment author being replied to
-                String userInfo = getUserDisplayName(selectedComment.getOwnerId());
-                showInfo("Replying to " + userInfo + ". Write your reply and press 'Post Reply'.");
+            // Clear textarea and focus it
+            commentTextArea.clear();
+            commentTextArea.requestFocus();
+            
+            // Update the button to show reply mode
+            if (addCommentButton != null) {
+                addCommentButton.setText("Post Reply");
+                addCommentButton.setStyle("-fx-background-color: #3949ab; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 24; -fx-padding: 8 15; -fx-cursor: hand;");
             }
+            
+            // Set prompt text to indicate reply mode
+            commentTextArea.setPromptText("Reply to " + getUserDisplayName(selectedComment.getOwnerId()) + "...");
+            
+            // Show username of comment author being replied to
+            String userInfo = getUserDisplayName(selectedComment.getOwnerId());
+            showInfo("Replying to " + userInfo + ". Write your reply and press 'Post Reply'.");
         } catch (Exception e) {
             showError("Error preparing reply: " + e.getMessage());
             e.printStackTrace();
@@ -939,16 +1018,17 @@ public class UserForumController {
     }
     
     private String getUserDisplayName(int userId) {
-        try {
-            return userService.getUsernameById(userId);
-        } catch (SQLException e) {
-            System.out.println("Error getting user info: " + e.getMessage());
-            return "User ID: " + userId;
-        }
+        // Comment authors are resolved together with the comments
+        return authorNames.getOrDefault(userId, "User ID: " + userId);
     }
 
     @FXML
     private void handleComment() {
+        // Ignore clicks while the previous comment is being saved
+        if (commentRequest.isPending()) {
+            return;
+        }
+        
         // Valider le formulaire de commentaire
         if (!validateCommentForm()) {
             return;
@@ -964,24 +1044,30 @@ public class UserForumController {
             }
         }
         
-        try {
-            Comment comment = new Comment();
-            comment.setContent(content);
-            comment.setPostId(selectedPost.getId());
-            comment.setOwnerId(currentUserId);
-            
-            // Set parentId if replying to a comment
-            if (replyingToComment && selectedComment != null) {
-                comment.setParentId(selectedComment.getId());
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setPostId(selectedPost.getId());
+        comment.setOwnerId(currentUserId);
+        
+        // Set parentId if replying to a comment
+        boolean reply = replyingToComment && selectedComment != null;
+        if (reply) {
+            comment.setParentId(selectedComment.getId());
+        }
+        
+        commentRequest.submit(asyncService.createComment(comment), posted -> {
+            Comment created = posted.getComments().get(0);
+            // The comment was created for another user if the current one no longer exists
+            boolean userReset = created.getOwnerId() != currentUserId;
+            currentUserId = created.getOwnerId();
+            if (selectedPost != null && selectedPost.getId() == created.getPostId()) {
+                showPostedComment(posted);
             }
             
-            commentService.create(comment);
-            
             // Clear the comment text field and reset state
             commentTextArea.clear();
             commentTextArea.setStyle("");
             commentTextArea.setPromptText("Join the conversation...");
-            replyingToComment = false;
             
             // Reset button style
             if (addCommentButton != null) {
@@ -989,140 +1075,58 @@ public class UserForumController {
                 addCommentButton.setStyle("-fx-background-color: #5e35b1; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 24; -fx-padding: 8 15; -fx-cursor: hand;");
             }
             
-            // Show success message using Platform.runLater
-            Platform.runLater(() -> {
-                String message = replyingToComment ? "Reply added successfully!" : "Comment added successfully!";
-                showInfo(message);
-            });
-            
             // Reset state
             selectedComment = null;
             replyingToComment = false;
             
-            // Reload comments with animation
-            loadCommentsWithAnimation(selectedPost.getId());
+            // Show success message using Platform.runLater
+            Platform.runLater(() -> {
+                String message = reply ? "Reply added successfully!" : "Comment added successfully!";
+                if (userReset) {
+                    message += " (après réinitialisation de l'utilisateur)";
+                }
+                showInfo(message);
+            });
             
             // Update the reaction counts
-            updateReactionCounts(selectedPost.getId());
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && (e.getMessage().contains("owner_id") || e.getMessage().contains("user"))) {
-                // Try to reinitialize valid user and retry
-                try {
-                    showWarning("Erreur de référence utilisateur. Tentative de réinitialisation...");
-                    currentUserId = userService.getOrCreateValidUserId();
-                    
-                    // Retry comment creation with new user ID
-                    Comment comment = new Comment();
-                    comment.setContent(content);
-                    comment.setPostId(selectedPost.getId());
-                    comment.setOwnerId(currentUserId);
-                    
-                    // Set parentId if replying to a comment
-                    if (replyingToComment && selectedComment != null) {
-                        comment.setParentId(selectedComment.getId());
-                    }
-                    
-                    commentService.create(comment);
-                    
-                    // Clear the comment text field
-                    commentTextArea.clear();
-                    commentTextArea.setPromptText("Join the conversation...");
-                    replyingToComment = false;
-                    
-                    // Reset button style
-                    if (addCommentButton != null) {
-                        addCommentButton.setText("Post Comment");
-                        addCommentButton.setStyle("-fx-background-color: #5e35b1; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 24; -fx-padding: 8 15; -fx-cursor: hand;");
-                    }
-                    
-                    // Show messages using Platform.runLater
-                    Platform.runLater(() -> {
-                        showWarning("Erreur de référence utilisateur. Tentative de réinitialisation...");
-                    });
-                    
-                    // Show success message using Platform.runLater
-                    Platform.runLater(() -> {
-                        String message = replyingToComment ? "Reply added successfully!" : "Comment added successfully!";
-                        showInfo(message);
-                    });
-                    
-                    // Reset state
-                    selectedComment = null;
-                    replyingToComment = false;
-                    
-                    // Reload comments with animation
-                    loadCommentsWithAnimation(selectedPost.getId());
-                    
-                    // Update the reaction counts
-                    updateReactionCounts(selectedPost.getId());
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> {
-                        showError("Échec de la réinitialisation. Erreur: " + retryEx.getMessage());
-                    });
-                    retryEx.printStackTrace();
-                }
-            } else {
-                Platform.runLater(() -> {
-                    showError("Erreur lors de l'ajout du commentaire: " + e.getMessage());
-                });
-                e.printStackTrace();
-            }
-        }
+            updateReactionCounts(created.getPostId());
+        }, e -> {
+            showError("Erreur lors de l'ajout du commentaire: " + e.getMessage());
+            e.printStackTrace();
+        });
     }
 
     @FXML
     private void handleLike() {
-        if (selectedPost == null) return;
-        try {
-            reactionService.toggleReaction(selectedPost.getId(), currentUserId, true);
-            updateReactionCounts(selectedPost.getId());
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("user_id")) {
-                try {
-                    // Try to reinitialize valid user and retry
-                    currentUserId = userService.getOrCreateValidUserId();
-                    reactionService.toggleReaction(selectedPost.getId(), currentUserId, true);
-                    updateReactionCounts(selectedPost.getId());
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> {
-                        showError("Erreur lors de la réaction: " + retryEx.getMessage());
-                    });
-                }
-            } else {
-                Platform.runLater(() -> {
-                    showError("Erreur lors de la réaction: " + e.getMessage());
-                });
-            }
-        }
+        react(true);
     }
 
     @FXML
     private void handleDislike() {
+        react(false);
+    }
+
+    /**
+     * Toggle the current user's reaction on the selected post in the background
+     */
+    private void react(boolean isLike) {
         if (selectedPost == null) return;
-        try {
-            reactionService.toggleReaction(selectedPost.getId(), currentUserId, false);
-            updateReactionCounts(selectedPost.getId());
-        } catch (SQLException e) {
-            // Check if it's a foreign key constraint error
-            if (e.getMessage().contains("foreign key constraint") && e.getMessage().contains("user_id")) {
-                try {
-                    // Try to reinitialize valid user and retry
-                    currentUserId = userService.getOrCreateValidUserId();
-                    reactionService.toggleReaction(selectedPost.getId(), currentUserId, false);
-                    updateReactionCounts(selectedPost.getId());
-                } catch (SQLException retryEx) {
-                    Platform.runLater(() -> {
-                        showError("Erreur lors de la réaction: " + retryEx.getMessage());
-                    });
+        int postId = selectedPost.getId();
+        // Counts come back right away; the reaction itself is written by the next buffer flush
+        reactionRequest.submit(asyncService.toggleReaction(postId, currentUserId, isLike), stats -> {
+            if (selectedPost != null && selectedPost.getId() == postId) {
+                likesLabel.setText("Likes: " + stats.getLikes());
+                dislikesLabel.setText("Dislikes: " + stats.getDislikes());
+            }
+            for (PostSummary summary : forumListView.getItems()) {
+                if (summary.getId() == postId) {
+                    summary.setLikeCount(stats.getLikes());
+                    summary.setDislikeCount(stats.getDislikes());
+                    forumListView.refresh();
+                    break;
                 }
-            } else {
-                Platform.runLater(() -> {
-                    showError("Erreur lors de la réaction: " + e.getMessage());
-                });
             }
-        }
+        }, e -> showError("Erreur lors de la réaction: " + e.getMessage()));
     }
 
     private void showError(String message) {
@@ -1153,51 +1157,6 @@ public class UserForumController {
         this.currentUserId = userId;
     }
 
-    // Helper method to get comment count for a post
-    private int getCommentCount(int postId) throws SQLException {
-        List<Comment> comments = commentService.readByPostId(postId);
-        return comments.size();
-    }
-
-    private void loadCommentsWithAnimation(int postId) throws SQLException {
-        List<Comment> comments = commentService.readByPostId(postId);
-        currentComments = comments;
-        
-        commentsListView.getItems().clear();
-        
-        if (comments.isEmpty()) {
-            commentsListView.getItems().add("No comments yet. Be the first to comment!");
-        } else {
-            // Group comments by their parent IDs
-            Map<Integer, List<Comment>> commentsByParent = new HashMap<>();
-            List<Comment> topLevelComments = new ArrayList<>();
-            
-            // Organize comments into parent-child groups
-            for (Comment comment : comments) {
-                if (comment.getParentId() == null) {
-                    topLevelComments.add(comment);
-                } else {
-                    commentsByParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>())
-                                    .add(comment);
-                }
-            }
-            
-            // Add comments recursively with indentation
-            addCommentsToListView(topLevelComments, commentsByParent, 0);
-        }
-        
-        // Apply a fade transition to the comments list
-        FadeTransition fade = new FadeTransition(Duration.millis(300), commentsListView);
-        fade.setFromValue(0.5);
-        fade.setToValue(1.0);
-        fade.play();
-        
-        // Scroll to the last comment
-        if (!comments.isEmpty()) {
-            commentsListView.scrollTo(commentsListView.getItems().size() - 1);
-        }
-    }
-
     /**
      * Configure la validation en temps réel des champs de saisie
      */
@@ -1230,7 +1189,7 @@ public class UserForumController {
             }
             
             // Vérification du format
-            if (length > 0 && !newValue.matches("^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)]+$")) {
+            if (length > 0 && !InputValidator.hasOnlyAllowedCharacters(newValue)) {
                 titleTextField.setStyle("-fx-border-color: #ff5555; -fx-background-color: #fff0f0;");
             }
         });
@@ -1306,7 +1265,7 @@ public class UserForumController {
             }
             
             // Vérification du format
-            if (length > 0 && !newValue.matches("^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)\\[\\]]+$")) {
+            if (length > 0 && !InputValidator.hasOnlyAllowedCharacters(newValue)) {
                 commentTextArea.setStyle("-fx-border-color: #ff5555; -fx-background-color: #fff0f0;");
             }
         });
@@ -1503,49 +1462,24 @@ public class UserForumController {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    int postId = selectedPost.getId();
-                    System.out.println("Deleting post ID: " + postId);
-                    
-                    // 1. Supprimer les réactions
-                    try {
-                        reactionService.deleteAllForPost(postId);
-                    } catch (SQLException e) {
-                        System.out.println("Error deleting reactions: " + e.getMessage());
-                    }
-                    
-                    // 2. Supprimer les associations de tags
-                    try {
-                        tagService.removeAllTagsFromPost(postId);
-                    } catch (SQLException e) {
-                        System.out.println("Error removing tag associations: " + e.getMessage());
-                    }
-                    
-                    // 3. Supprimer les commentaires
-                    try {
-                        List<Comment> comments = commentService.readByPostId(postId);
-                        for (Comment comment : comments) {
-                            commentService.delete(comment.getId());
-                        }
-                    } catch (SQLException e) {
-                        System.out.println("Error deleting comments: " + e.getMessage());
-                    }
-                    
-                    // 4. Supprimer le post
-                    postService.delete(postId);
-                    
+                int postId = selectedPost.getId();
+                System.out.println("Deleting post ID: " + postId);
+                
+                // Post, commentaires, réactions et tags en une seule transaction, en arrière-plan
+                deleteRequest.submit(asyncService.deletePost(postId), done -> {
                     // Mettre à jour l'interface
                     loadPosts();
                     
                     // Masquer les détails du post
+                    detailsRequest.cancel();
                     postDetailsBox.setVisible(false);
                     selectedPost = null;
                     
                     showInfo("Post deleted successfully");
-                } catch (SQLException e) {
+                }, e -> {
                     showError("Error deleting post: " + e.getMessage());
                     e.printStackTrace();
-                }
+                });
             }
         });
     }
@@ -1574,25 +1508,28 @@ public class UserForumController {
         
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    // Supprimer le commentaire
-                    commentService.delete(selectedComment.getId());
-                    
-                    // Recharger les commentaires
-                    loadComments(selectedPost.getId());
+                Comment deleted = selectedComment;
+                // Supprimer le commentaire et ses réponses en arrière-plan
+                commentRequest.submit(asyncService.deleteComment(deleted.getId()), count -> {
+                    // Retirer le commentaire et ses réponses affichées
+                    if (selectedPost != null && selectedPost.getId() == deleted.getPostId()) {
+                        removeDeletedComment(deleted);
+                    }
                     
                     // Réinitialiser la sélection
-                    selectedComment = null;
-                    
-                    // Masquer le bouton de suppression
-                    deleteCommentButton.setVisible(false);
-                    deleteCommentButton.setManaged(false);
+                    if (selectedComment == deleted) {
+                        selectedComment = null;
+                        
+                        // Masquer le bouton de suppression
+                        deleteCommentButton.setVisible(false);
+                        deleteCommentButton.setManaged(false);
+                    }
                     
                     showInfo("Comment deleted successfully");
-                } catch (SQLException e) {
+                }, e -> {
                     showError("Error deleting comment: " + e.getMessage());
                     e.printStackTrace();
-                }
+                });
             }
         });
     }
@@ -1614,40 +1551,17 @@ public class UserForumController {
             replyTextArea.requestFocus();
         }
         
-        // Find the index of the comment in the list
-        int commentIndex = -1;
-        for (int i = 0; i < commentsListView.getItems().size(); i++) {
-            String item = commentsListView.getItems().get(i);
-            if (!item.startsWith("REPLY_FORM:") && !item.equals("No comments yet. Be the first to comment!")) {
-                String[] parts = item.split(" - ", 3);
-                if (parts.length >= 2) {
-                    try {
-                        int id = Integer.parseInt(parts[0].trim().split(" ")[0]);
-                        if (id == parentComment.getId()) {
-                            commentIndex = i;
-                            break;
-                        }
-                    } catch (NumberFormatException e) {
-                        // Skip this item
-                    }
-                }
-            }
-        }
+        // Find the row of the comment, the reply form shifts the rows below it by one
+        removeInlineReplyForm();
+        int commentIndex = commentTree.positionOf(parentComment.getId());
         
-        // If we found the comment, add the reply form after it
+        // If we found the comment, add the reply form after its row (load-more rows shift rows from positions)
         if (commentIndex >= 0) {
-            // First, remove any existing reply form
-            for (int i = commentsListView.getItems().size() - 1; i >= 0; i--) {
-                if (commentsListView.getItems().get(i).startsWith("REPLY_FORM:")) {
-                    commentsListView.getItems().remove(i);
-                }
-            }
-            
-            // Add the reply form below the selected comment
-            commentsListView.getItems().add(commentIndex + 1, "REPLY_FORM:" + parentComment.getId());
+            replyFormIndex = rowOfPosition[commentIndex] + 1;
+            commentsListView.getItems().add(replyFormIndex, CommentRow.REPLY_FORM);
             
             // Scroll to make it visible
-            commentsListView.scrollTo(commentIndex + 1);
+            commentsListView.scrollTo(replyFormIndex);
         }
     }
     
@@ -1691,12 +1605,7 @@ public class UserForumController {
         cancelButton.setStyle("-fx-background-color: #e0e0e0; -fx-text-fill: #424242; -fx-background-radius: 16; -fx-padding: 5 15;");
         cancelButton.setOnAction(e -> {
             // Remove the reply form from the list
-            for (int i = commentsListView.getItems().size() - 1; i >= 0; i--) {
-                if (commentsListView.getItems().get(i).startsWith("REPLY_FORM:")) {
-                    commentsListView.getItems().remove(i);
-                    break;
-                }
-            }
+            removeInlineReplyForm();
             replyToCommentId = -1;
         });
         
@@ -1753,42 +1662,113 @@ public class UserForumController {
             }
         }
         
-        try {
-            // Create the reply comment
-            Comment reply = new Comment();
-            reply.setContent(content.trim());
-            reply.setPostId(selectedPost.getId());
-            reply.setOwnerId(currentUserId);
-            reply.setParentId(replyToCommentId);
-            
-            commentService.create(reply);
+        // Ignore clicks while the previous comment is being saved
+        if (commentRequest.isPending()) {
+            return;
+        }
+        
+        // Create the reply comment
+        Comment reply = new Comment();
+        reply.setContent(content.trim());
+        reply.setPostId(selectedPost.getId());
+        reply.setOwnerId(currentUserId);
+        reply.setParentId(replyToCommentId);
+        
+        commentRequest.submit(asyncService.createComment(reply), posted -> {
+            Comment created = posted.getComments().get(0);
+            currentUserId = created.getOwnerId();
             
             // Remove the reply form
-            for (int i = commentsListView.getItems().size() - 1; i >= 0; i--) {
-                if (commentsListView.getItems().get(i).startsWith("REPLY_FORM:")) {
-                    commentsListView.getItems().remove(i);
-                    break;
-                }
-            }
+            removeInlineReplyForm();
             
             // Reset state
             replyToCommentId = -1;
             
-            // Reload comments
-            loadCommentsWithAnimation(selectedPost.getId());
+            if (selectedPost != null && selectedPost.getId() == created.getPostId()) {
+                showPostedComment(posted);
+            }
             
             // Show success message
             showInfo("Reply added successfully!");
-            
-        } catch (SQLException e) {
+        }, e -> {
             showError("Error adding reply: " + e.getMessage());
             e.printStackTrace();
+        });
+    }
+
+    private void setupTypeahead() {
+        suggestionMenu = new ContextMenu();
+        suggestDelay = new PauseTransition(Duration.millis(SUGGEST_DELAY_MS));
+        suggestDelay.setOnFinished(e -> showSuggestions(searchTextField.getText()));
+        searchTextField.textProperty().addListener((obs, oldText, newText) -> {
+            if (!suppressSuggestions) {
+                suggestDelay.playFromStart();
+            }
+        });
+        searchTextField.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                hideSuggestions();
+            }
+        });
+    }
+
+    /**
+     * Look the typed prefix up off the FX thread; a newer keystroke cancels a pending lookup
+     */
+    private void showSuggestions(String text) {
+        String prefix = text == null ? "" : text.trim();
+        if (prefix.length() < 2) {
+            hideSuggestions();
+            return;
+        }
+        suggestRequest.submit(
+            CompletableFuture.supplyAsync(() -> TypeaheadIndex.getInstance().suggest(prefix, SUGGESTION_COUNT)),
+            suggestions -> {
+                if (suggestions.isEmpty()) {
+                    suggestionMenu.hide();
+                    return;
+                }
+                List<MenuItem> items = new ArrayList<>();
+                for (Suggestion suggestion : suggestions) {
+                    MenuItem item = new MenuItem((suggestion.isTag() ? "#" : "") + suggestion.getText());
+                    item.setOnAction(e -> applySuggestion(suggestion));
+                    items.add(item);
+                }
+                suggestionMenu.getItems().setAll(items);
+                if (!suggestionMenu.isShowing()) {
+                    suggestionMenu.show(searchTextField, Side.BOTTOM, 0, 0);
+                }
+            },
+            e -> suggestionMenu.hide());
+    }
+
+    private void hideSuggestions() {
+        if (suggestDelay != null) {
+            suggestDelay.stop();
+            suggestRequest.cancel();
+            suggestionMenu.hide();
+        }
+    }
+
+    /**
+     * A post suggestion opens the post, a tag suggestion searches for the tag
+     */
+    private void applySuggestion(Suggestion suggestion) {
+        hideSuggestions();
+        suppressSuggestions = true;
+        searchTextField.setText(suggestion.getText());
+        searchTextField.positionCaret(suggestion.getText().length());
+        suppressSuggestions = false;
+        if (suggestion.isTag()) {
+            handleSearch();
+        } else {
+            showPostDetails(suggestion.getId());
         }
     }
 
     @FXML
     private void handleSearch() {
-        String searchTerm = searchTextField.getText().trim().toLowerCase();
+        String searchTerm = searchTextField.getText().trim();
         
         if (searchTerm.isEmpty()) {
             // If search is empty, reload all posts
@@ -1796,55 +1776,39 @@ public class UserForumController {
             return;
         }
         
-        try {
-            // Get all posts and filter them
-            List<Post> allPosts = postService.readAll();
-            List<Integer> filteredPostIds = new ArrayList<>();
-            
-            for (Post post : allPosts) {
-                boolean matchesTitle = post.getTitle().toLowerCase().contains(searchTerm);
-                boolean matchesContent = post.getContent().toLowerCase().contains(searchTerm);
-                
-                // Check tags
-                boolean matchesTags = false;
-                try {
-                    List<Tag> tags = tagService.getTagsForPost(post.getId());
-                    for (Tag tag : tags) {
-                        if (tag.getName().toLowerCase().contains(searchTerm)) {
-                            matchesTags = true;
-                            break;
-                        }
-                    }
-                } catch (SQLException e) {
-                    System.out.println("Error fetching tags for post " + post.getId() + ": " + e.getMessage());
-                }
-                
-                if (matchesTitle || matchesContent || matchesTags) {
-                    filteredPostIds.add(post.getId());
-                }
-            }
-            
-            // Update the UI with filtered posts
-            forumListView.getItems().clear();
-            if (filteredPostIds.isEmpty()) {
+        // Results replace the feed and are paged like it, best match first
+        pageRequest.cancel();
+        activeSearch = searchTerm;
+        searchOffset = 0;
+        lastPageLoaded = false;
+        pageLoading = true;
+        loadNextSearchPage();
+    }
+
+    private void loadNextSearchPage() {
+        String searchTerm = activeSearch;
+        boolean firstPage = searchOffset == 0;
+        searchRequest.submit(asyncService.searchPosts(searchTerm, searchOffset, PAGE_SIZE), results -> {
+            pageLoading = false;
+            lastPageLoaded = results.size() < PAGE_SIZE;
+            searchOffset += results.size();
+            if (!firstPage) {
+                forumListView.getItems().addAll(results);
+            } else if (results.isEmpty()) {
                 // No results found - show message
                 showInfo("No matching posts found for: " + searchTerm);
-                // Optionally add a placeholder in the list
                 loadPosts(); // Reload all posts
             } else {
-                for (Integer postId : filteredPostIds) {
-                    forumListView.getItems().add(postId);
-                }
+                forumListView.getItems().setAll(results);
                 // Highlight first result
-                if (!forumListView.getItems().isEmpty()) {
-                    forumListView.getSelectionModel().select(0);
-                    forumListView.scrollTo(0);
-                }
+                forumListView.getSelectionModel().select(0);
+                forumListView.scrollTo(0);
             }
-        } catch (SQLException e) {
+        }, e -> {
+            pageLoading = false;
             showError("Error searching posts: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -43,17 +43,24 @@ public class Login {
         if (email.isEmpty() || password.isEmpty()) {
             System.out.println("Please fill out both fields.");
         } else {
-            try {
-                Connection conn = dataSource.getInstance().getConnection();
-                String query = "SELECT * FROM user WHERE email = ? AND password = ?";
-                PreparedStatement stmt = conn.prepareStatement(query);
+            String query = "SELECT * FROM user WHERE email = ? AND password = ?";
+            boolean found;
+            // The connection goes back to the pool before the menu window is loaded
+            try (Connection conn = dataSource.getInstance().getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
                 stmt.setString(1, email);
                 stmt.setString(2, password);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    System.out.println("✅ Login successful!");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    found = rs.next();
+                }
+            } catch (SQLException e) {
+                System.err.println("❌ Database error: " + e.getMessage());
+                return;
+            }
 
+            if (found) {
+                System.out.println("✅ Login successful!");
+                try {
                     // Load the menu.fxml window
                     FXMLLoader loader = new FXMLLoader(getClass().getResource("/Menu/menu.fxml"));
                     Parent root = loader.load();
@@ -64,15 +71,11 @@ public class Login {
 
                     // Close the login window
                     loginButton.getScene().getWindow().hide();
-
-                } else {
-                    System.out.println("❌ Incorrect email or password.");
+                } catch (Exception e) {
+                    System.err.println("❌ UI loading error: " + e.getMessage());
                 }
-
-            } catch (SQLException e) {
-                System.err.println("❌ Database error: " + e.getMessage());
-            } catch (Exception e) {
-                System.err.println("❌ UI loading error: " + e.getMessage());
+            } else {
+                System.out.println("❌ Incorrect email or password.");
             }
         }
     }
@@ -9,6 +9,10 @@ public class Comment {
     private Integer parentId;
     private String content;
     private LocalDateTime createdAt;
+    // Content with profanity masked, for display
+    private String maskedContent;
+    // Number of direct replies, as counted by CommentService.readChildren
+    private int replyCount;
 
     public Comment() {}
 
@@ -34,4 +38,8 @@ public class Comment {
     public void setContent(String content) { this.content = content; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getMaskedContent() { return maskedContent; }
+    public void setMaskedContent(String maskedContent) { this.maskedContent = maskedContent; }
+    public int getReplyCount() { return replyCount; }
+    public void setReplyCount(int replyCount) { this.replyCount = replyCount; }
 } 
\ No newline at end of file
@@ -0,0 +1,229 @@
+package org.example.models.forum;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read model for a comment thread: the comments of a post in display order (each comment followed
+ * by its replies, depth first, siblings in loading order), built once per load.
+ * Positions, depths and the id → position index are int arrays, so looking a comment up by id
+ * or by list position is O(1) whatever the size of the thread.
+ *
+ * Replies whose parent is not in the list are shown as top-level comments.
+ */
+public final class CommentTree {
+    private static final int NONE = -1;
+
+    // Comments in display order, with their depth, parent and the end of their subtree
+    private final Comment[] comments;
+    private final int[] depths;
+    private final int[] parents;
+    private final int[] subtreeEnds;
+    // Open-addressing id -> position index; slots hold position + 1, 0 is empty
+    private final int[] slotIds;
+    private final int[] slotPositions;
+
+    private CommentTree(Comment[] comments, int[] depths, int[] parents, int[] subtreeEnds,
+                        int[] slotIds, int[] slotPositions) {
+        this.comments = comments;
+        this.depths = depths;
+        this.parents = parents;
+        this.subtreeEnds = subtreeEnds;
+        this.slotIds = slotIds;
+        this.slotPositions = slotPositions;
+    }
+
+    /**
+     * @param comments The comments of one post, oldest first
+     */
+    public static CommentTree build(List<Comment> comments) {
+        int count = comments.size();
+        int[] slotIds = new int[tableSize(count)];
+        int[] slotPositions = new int[slotIds.length];
+
+        // Index the input by id, then link each comment to its parent's child list
+        for (int i = 0; i < count; i++) {
+            put(slotIds, slotPositions, comments.get(i).getId(), i);
+        }
+        int[] firstChild = new int[count];
+        int[] lastChild = new int[count];
+        int[] nextSibling = new int[count];
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+        int firstRoot = NONE;
+        int lastRoot = NONE;
+        for (int i = 0; i < count; i++) {
+            Integer parentId = comments.get(i).getParentId();
+            int parent = parentId == null ? NONE : find(slotIds, slotPositions, parentId);
+            if (parent == i) {
+                parent = NONE;
+            }
+            if (parent == NONE) {
+                if (lastRoot == NONE) {
+                    firstRoot = i;
+                } else {
+                    nextSibling[lastRoot] = i;
+                }
+                lastRoot = i;
+            } else {
+                if (firstChild[parent] == NONE) {
+                    firstChild[parent] = i;
+                } else {
+                    nextSibling[lastChild[parent]] = i;
+                }
+                lastChild[parent] = i;
+            }
+        }
+
+        // Depth-first walk with an explicit stack, deep reply chains must not overflow
+        Comment[] ordered = new Comment[count];
+        int[] depths = new int[count];
+        int[] parents = new int[count];
+        int[] positionOfInput = new int[count];
+        int[] stack = new int[count];
+        int[] stackParent = new int[count];
+        int top = 0;
+        int position = 0;
+        for (int root = firstRoot; root != NONE; root = nextSibling[root]) {
+            stack[top] = root;
+            stackParent[top] = NONE;
+            top++;
+            while (top > 0) {
+                top--;
+                int node = stack[top];
+                int parent = stackParent[top];
+                ordered[position] = comments.get(node);
+                parents[position] = parent;
+                depths[position] = parent == NONE ? 0 : depths[parent] + 1;
+                positionOfInput[node] = position;
+                // Push children last to first so the first one is visited next
+                int childCount = 0;
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    childCount++;
+                }
+                int slot = top + childCount - 1;
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    stack[slot] = child;
+                    stackParent[slot] = position;
+                    slot--;
+                }
+                top += childCount;
+                position++;
+            }
+        }
+
+        // Replies come after their parent, so a backward pass sees every subtree before its root
+        int[] subtreeEnds = new int[position];
+        for (int p = position - 1; p >= 0; p--) {
+            subtreeEnds[p] = Math.max(subtreeEnds[p], p + 1);
+            if (parents[p] != NONE) {
+                subtreeEnds[parents[p]] = Math.max(subtreeEnds[parents[p]], subtreeEnds[p]);
+            }
+        }
+
+        // Comments on a parent cycle (not reachable from a root) cannot be placed, drop them
+        if (position < count) {
+            ordered = Arrays.copyOf(ordered, position);
+            depths = Arrays.copyOf(depths, position);
+            parents = Arrays.copyOf(parents, position);
+            Arrays.fill(slotIds, 0);
+            Arrays.fill(slotPositions, 0);
+            for (int i = 0; i < position; i++) {
+                put(slotIds, slotPositions, ordered[i].getId(), i);
+            }
+        } else {
+            // Re-point the index from input order to display order
+            for (int s = 0; s < slotPositions.length; s++) {
+                if (slotPositions[s] != 0) {
+                    slotPositions[s] = positionOfInput[slotPositions[s] - 1] + 1;
+                }
+            }
+        }
+        return new CommentTree(ordered, depths, parents, subtreeEnds, slotIds, slotPositions);
+    }
+
+    /**
+     * @return The number of comments
+     */
+    public int size() {
+        return comments.length;
+    }
+
+    public boolean isEmpty() {
+        return comments.length == 0;
+    }
+
+    /**
+     * @return The comment at a display position
+     */
+    public Comment get(int position) {
+        return comments[position];
+    }
+
+    /**
+     * @return 0 for a top-level comment, 1 for a reply to it, and so on
+     */
+    public int depth(int position) {
+        return depths[position];
+    }
+
+    /**
+     * @return The position of the parent of the comment at a position, -1 for a top-level comment
+     */
+    public int parentPosition(int position) {
+        return parents[position];
+    }
+
+    /**
+     * @return The position just after the last reply (direct or nested) to the comment at a position
+     */
+    public int subtreeEnd(int position) {
+        return subtreeEnds[position];
+    }
+
+    /**
+     * @return The display position of a comment, -1 if it is not in this thread
+     */
+    public int positionOf(int commentId) {
+        return find(slotIds, slotPositions, commentId);
+    }
+
+    /**
+     * @return The comment with this id, or null if it is not in this thread
+     */
+    public Comment find(int commentId) {
+        int position = positionOf(commentId);
+        return position < 0 ? null : comments[position];
+    }
+
+    private static int tableSize(int count) {
+        int size = Integer.highestOneBit(Math.max(4, count * 2));
+        return size < count * 2 ? size << 1 : size;
+    }
+
+    private static int slot(int id, int mask) {
+        return (id * 0x9E3779B9 >>> 7) & mask;
+    }
+
+    private static void put(int[] slotIds, int[] slotPositions, int id, int position) {
+        int mask = slotIds.length - 1;
+        int s = slot(id, mask);
+        while (slotPositions[s] != 0 && slotIds[s] != id) {
+            s = (s + 1) & mask;
+        }
+        slotIds[s] = id;
+        slotPositions[s] = position + 1;
+    }
+
+    private static int find(int[] slotIds, int[] slotPositions, int id) {
+        int mask = slotIds.length - 1;
+        int s = slot(id, mask);
+        while (slotPositions[s] != 0) {
+            if (slotIds[s] == id) {
+                return slotPositions[s] - 1;
+            }
+            s = (s + 1) & mask;
+        }
+        return NONE;
+    }
+}
@@ -8,6 +8,9 @@ public class Post {
     private String title;
     private String content;
     private LocalDateTime createdAt;
+    // Title and content with profanity masked, for display
+    private String maskedTitle;
+    private String maskedContent;
 
     public Post() {}
 
@@ -30,4 +33,8 @@ public class Post {
     public void setContent(String content) { this.content = content; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public String getMaskedTitle() { return maskedTitle; }
+    public void setMaskedTitle(String maskedTitle) { this.maskedTitle = maskedTitle; }
+    public String getMaskedContent() { return maskedContent; }
+    public void setMaskedContent(String maskedContent) { this.maskedContent = maskedContent; }
 } 
\ No newline at end of file
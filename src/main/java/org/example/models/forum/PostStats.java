@@ -0,0 +1,30 @@
+package org.example.models.forum;
+
+/**
+ * Denormalized reaction and comment counters of one post (table post_stats)
+ */
+public class PostStats {
+    private int postId;
+    private int likes;
+    private int dislikes;
+    private int comments;
+
+    public PostStats() {}
+
+    public PostStats(int postId, int likes, int dislikes, int comments) {
+        this.postId = postId;
+        this.likes = likes;
+        this.dislikes = dislikes;
+        this.comments = comments;
+    }
+
+    // Getters and Setters
+    public int getPostId() { return postId; }
+    public void setPostId(int postId) { this.postId = postId; }
+    public int getLikes() { return likes; }
+    public void setLikes(int likes) { this.likes = likes; }
+    public int getDislikes() { return dislikes; }
+    public void setDislikes(int dislikes) { this.dislikes = dislikes; }
+    public int getComments() { return comments; }
+    public void setComments(int comments) { this.comments = comments; }
+}
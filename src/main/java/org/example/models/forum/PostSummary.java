@@ -0,0 +1,59 @@
+package org.example.models.forum;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for the post list: everything a list cell shows, without the post content
+ */
+public class PostSummary {
+    private int id;
+    private int ownerId;
+    private String ownerName;
+    private String title;
+    // Title with profanity masked, for display
+    private String maskedTitle;
+    private LocalDateTime createdAt;
+    private List<String> tagNames = new ArrayList<>();
+    private int likeCount;
+    private int dislikeCount;
+    private int commentCount;
+
+    public PostSummary() {}
+
+    public PostSummary(int id, int ownerId, String ownerName, String title, LocalDateTime createdAt,
+                       List<String> tagNames, int likeCount, int dislikeCount, int commentCount) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.ownerName = ownerName;
+        this.title = title;
+        this.createdAt = createdAt;
+        this.tagNames = tagNames;
+        this.likeCount = likeCount;
+        this.dislikeCount = dislikeCount;
+        this.commentCount = commentCount;
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public int getOwnerId() { return ownerId; }
+    public void setOwnerId(int ownerId) { this.ownerId = ownerId; }
+    public String getOwnerName() { return ownerName; }
+    public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getMaskedTitle() { return maskedTitle; }
+    public void setMaskedTitle(String maskedTitle) { this.maskedTitle = maskedTitle; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public List<String> getTagNames() { return tagNames; }
+    public void setTagNames(List<String> tagNames) { this.tagNames = tagNames; }
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+    public int getDislikeCount() { return dislikeCount; }
+    public void setDislikeCount(int dislikeCount) { this.dislikeCount = dislikeCount; }
+    public int getCommentCount() { return commentCount; }
+    public void setCommentCount(int commentCount) { this.commentCount = commentCount; }
+}
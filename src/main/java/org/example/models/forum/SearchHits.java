@@ -0,0 +1,25 @@
+package org.example.models.forum;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of search results: post IDs, best match first, and the total number of matches
+ */
+public class SearchHits {
+    private List<Integer> postIds = new ArrayList<>();
+    private int total;
+
+    public SearchHits() {}
+
+    public SearchHits(List<Integer> postIds, int total) {
+        this.postIds = postIds;
+        this.total = total;
+    }
+
+    // Getters and Setters
+    public List<Integer> getPostIds() { return postIds; }
+    public void setPostIds(List<Integer> postIds) { this.postIds = postIds; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+}
@@ -0,0 +1,191 @@
+package org.example.services;
+
+import utils.PoolConfig;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executor for blocking JDBC work, so it never runs on the JavaFX Application Thread.
+ * Uses virtual threads when the runtime supports them (Java 21+); otherwise a fixed pool
+ * sized like the connection pool, since more threads would only queue on connections.
+ * Both modes run at most that many calls at once and accept at most {@value #QUEUE_CAPACITY}
+ * more waiting behind them, so a burst is rejected the same way whichever threads run it.
+ */
+public final class DbExecutor {
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int THREADS = Math.max(2, PoolConfig.load().getMaxPoolSize());
+    private static final ExecutorService EXECUTOR = createExecutor();
+    // Only set on virtual threads, where the executor itself puts no limit on either
+    private static final Semaphore RUNNING = isVirtual() ? new Semaphore(THREADS) : null;
+    private static final Semaphore ADMITTED = isVirtual() ? new Semaphore(THREADS + QUEUE_CAPACITY) : null;
+
+    /**
+     * A database call that may throw {@link SQLException}
+     */
+    @FunctionalInterface
+    public interface SqlCallable<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * A database call without a result
+     */
+    @FunctionalInterface
+    public interface SqlRunnable {
+        void run() throws SQLException;
+    }
+
+    private DbExecutor() {}
+
+    /**
+     * Run a database call in the background.
+     * Cancelling the returned future skips the call if it has not started yet. A call already
+     * running is left to finish and its result dropped: interrupting a thread blocked in a
+     * Connector/J socket read closes the physical connection, which costs more than the read.
+     * @param task The call to run
+     * @return A future completed with the result, or exceptionally with the thrown SQLException
+     */
+    public static <T> CompletableFuture<T> supply(SqlCallable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (ADMITTED != null && !ADMITTED.tryAcquire()) {
+            result.completeExceptionally(new SQLException("Too many pending database requests"));
+            return result;
+        }
+        try {
+            Future<?> submitted = EXECUTOR.submit(() -> {
+                try {
+                    call(task, result);
+                } finally {
+                    if (ADMITTED != null) {
+                        ADMITTED.release();
+                    }
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    submitted.cancel(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (ADMITTED != null) {
+                ADMITTED.release();
+            }
+            result.completeExceptionally(new SQLException("Too many pending database requests", e));
+        }
+        return result;
+    }
+
+    private static <T> void call(SqlCallable<T> task, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (RUNNING != null) {
+            try {
+                RUNNING.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(new SQLException("Interrupted while waiting to run", e));
+                return;
+            }
+        }
+        try {
+            // Cancelled while waiting for a running slot
+            if (!result.isDone()) {
+                result.complete(task.call());
+            }
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            if (RUNNING != null) {
+                RUNNING.release();
+            }
+        }
+    }
+
+    /**
+     * Run a database call without a result in the background
+     * @param task The call to run
+     * @return A future completed when the call finishes
+     */
+    public static CompletableFuture<Void> run(SqlRunnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a database write in the background. Unlike {@link #supply}, the write always runs to
+     * completion: cancelling the returned future only detaches the caller, it never interrupts
+     * the JDBC call half way through or drops a write that was queued.
+     * @param task The write to run
+     * @return A future completed with the result, or exceptionally with the thrown SQLException
+     */
+    public static <T> CompletableFuture<T> supplyWrite(SqlCallable<T> task) {
+        // Nobody else holds the original, so it is never cancelled
+        return supply(task).copy();
+    }
+
+    /**
+     * Run a database write without a result in the background, see {@link #supplyWrite}
+     * @param task The write to run
+     * @return A future completed when the write finishes
+     */
+    public static CompletableFuture<Void> runWrite(SqlRunnable task) {
+        return supplyWrite(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Unwrap the exception passed to a completion handler
+     * @param error The throwable from {@code whenComplete}/{@code exceptionally}
+     * @return The original exception thrown by the task
+     */
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static boolean isVirtual() {
+        return !(EXECUTOR instanceof ThreadPoolExecutor);
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            ExecutorService virtual = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            System.out.println("Database calls run on virtual threads");
+            return virtual;
+        } catch (ReflectiveOperationException e) {
+            // Java 17-20: fall back to platform threads
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                THREADS, THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "db-worker-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
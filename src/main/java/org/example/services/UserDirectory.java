@@ -0,0 +1,174 @@
+package org.example.services;
+
+import org.example.utils.CacheStats;
+import utils.dataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide cache of user display names, shared by everything that shows who wrote a post or comment.
+ * Names are kept in a bounded LRU map for {@code forum.users.ttlSeconds} (default 300); ids with no
+ * user are remembered too, for {@code forum.users.negativeTtlSeconds} (default 60), so a deleted author
+ * does not cost a query per comment. {@link #resolveAll} reads every missing name with one
+ * {@code IN (...)} query per {@value #BATCH_SIZE} ids.
+ */
+public final class UserDirectory {
+    public static final String UNKNOWN_USER = "Unknown User";
+
+    private static final UserDirectory INSTANCE = new UserDirectory(
+            Integer.getInteger("forum.users.cacheSize", 2048),
+            TimeUnit.SECONDS.toNanos(Long.getLong("forum.users.ttlSeconds", 300)),
+            TimeUnit.SECONDS.toNanos(Long.getLong("forum.users.negativeTtlSeconds", 60)));
+    // Largest IN (...) list sent in one statement
+    private static final int BATCH_SIZE = 512;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    // Access-ordered, so iteration starts at the least recently used name
+    private final LinkedHashMap<Integer, Entry> names = new LinkedHashMap<>(16, 0.75f, true);
+    private final CacheStats stats = new CacheStats();
+
+    private static final class Entry {
+        // null when there is no user with this id
+        final String name;
+        final long expiresAt;
+
+        Entry(String name, long expiresAt) {
+            this.name = name;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private UserDirectory(int maxSize, long ttlNanos, long negativeTtlNanos) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlNanos;
+        this.negativeTtlNanos = negativeTtlNanos;
+    }
+
+    public static UserDirectory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param userId The user ID
+     * @return The user's display name, or {@value #UNKNOWN_USER} if there is no such user
+     * @throws SQLException if the name was not cached and could not be read
+     */
+    public String resolve(int userId) throws SQLException {
+        return resolveAll(Collections.singleton(userId)).get(userId);
+    }
+
+    /**
+     * Get the display names of several users, reading the ones not cached in one query
+     * @param userIds The user IDs, duplicates are fine
+     * @return A new map with a name for every id ({@value #UNKNOWN_USER} for ids with no user)
+     * @throws SQLException if the missing names could not be read
+     */
+    public Map<Integer, String> resolveAll(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, String> resolved = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (Integer userId : userIds instanceof Set ? userIds : new HashSet<>(userIds)) {
+                Entry entry = names.get(userId);
+                if (entry != null && entry.expiresAt - now > 0) {
+                    stats.hit();
+                    resolved.put(userId, entry.name != null ? entry.name : UNKNOWN_USER);
+                } else {
+                    stats.miss();
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        Map<Integer, String> read = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += BATCH_SIZE) {
+            readBatch(missing.subList(from, Math.min(missing.size(), from + BATCH_SIZE)), read);
+        }
+        now = System.nanoTime();
+        synchronized (this) {
+            for (Integer userId : missing) {
+                String name = read.get(userId);
+                names.put(userId, new Entry(name, now + (name != null ? ttlNanos : negativeTtlNanos)));
+                resolved.put(userId, name != null ? name : UNKNOWN_USER);
+            }
+            Iterator<Entry> eldest = names.values().iterator();
+            while (names.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                stats.eviction();
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Forget a user's name, after it changed or the user was deleted
+     */
+    public synchronized void invalidate(int userId) {
+        names.remove(userId);
+    }
+
+    private static void readBatch(List<Integer> batch, Map<Integer, String> read) throws SQLException {
+        // Padded to a power of two so the pool's statement cache sees few distinct SQL texts
+        int size = Integer.highestOneBit(batch.size());
+        if (size < batch.size()) {
+            size <<= 1;
+        }
+        String query = "SELECT id, email FROM user WHERE id IN (" + String.join(",", Collections.nCopies(size, "?")) + ")";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.prepareStatement(query);
+            for (int i = 0; i < size; i++) {
+                stmt.setInt(i + 1, batch.get(Math.min(i, batch.size() - 1)));
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                read.put(rs.getInt("id"), rs.getString("email"));
+            }
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    public synchronized int getSize() {
+        return names.size();
+    }
+
+    /**
+     * @return Lookups per id (expired entries count as misses) and names pushed out by the size limit
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "UserDirectory{size=" + getSize()
+                + ", " + stats
+                + "}";
+    }
+}
@@ -0,0 +1,276 @@
+package org.example.services.forum;
+
+import org.example.models.forum.Comment;
+import org.example.models.forum.Post;
+import org.example.models.forum.PostStats;
+import org.example.models.forum.PostSummary;
+import org.example.models.forum.SearchHits;
+import org.example.models.forum.Tag;
+import org.example.services.DbExecutor;
+import org.example.services.UserDirectory;
+import org.example.services.UserService;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+/**
+ * Non-blocking variants of the forum service calls used by the controllers.
+ * Every call runs on {@link DbExecutor}; results must be handed back to the
+ * JavaFX thread by the caller (see {@code org.example.utils.FxRequest}).
+ * Writes use {@link DbExecutor#supplyWrite}, so cancelling their futures never interrupts them.
+ */
+public class AsyncForumService {
+    private final PostService postService = new PostService();
+    private final CommentService commentService = new CommentService();
+    private final TagService tagService = new TagService();
+    private final UserService userService = new UserService();
+    private final SearchEngine searchEngine = SearchEngine.configured();
+
+    /**
+     * Comments of a post together with the display names of their authors
+     */
+    public static class PostComments {
+        private final List<Comment> comments;
+        private final Map<Integer, String> authorNames;
+
+        public PostComments(List<Comment> comments, Map<Integer, String> authorNames) {
+            this.comments = comments;
+            this.authorNames = authorNames;
+        }
+
+        public List<Comment> getComments() { return comments; }
+        public Map<Integer, String> getAuthorNames() { return authorNames; }
+    }
+
+    /**
+     * Everything the post details pane shows, loaded in one background call
+     */
+    public static class PostDetails {
+        private final Post post;
+        private final String ownerName;
+        private final List<Tag> tags;
+        private final PostComments comments;
+        private final int likeCount;
+        private final int dislikeCount;
+
+        public PostDetails(Post post, String ownerName, List<Tag> tags, PostComments comments,
+                           int likeCount, int dislikeCount) {
+            this.post = post;
+            this.ownerName = ownerName;
+            this.tags = tags;
+            this.comments = comments;
+            this.likeCount = likeCount;
+            this.dislikeCount = dislikeCount;
+        }
+
+        public Post getPost() { return post; }
+        public String getOwnerName() { return ownerName; }
+        public List<Tag> getTags() { return tags; }
+        public PostComments getComments() { return comments; }
+        public int getLikeCount() { return likeCount; }
+        public int getDislikeCount() { return dislikeCount; }
+    }
+
+    public CompletableFuture<List<PostSummary>> readPage(PostService.PageCursor cursor, int limit) {
+        return DbExecutor.supply(() -> ReactionWriteBuffer.getInstance().applyPending(postService.readPage(cursor, limit)));
+    }
+
+    public CompletableFuture<List<PostSummary>> readSummaries(List<Integer> ids) {
+        return DbExecutor.supply(() -> ReactionWriteBuffer.getInstance().applyPending(postService.readSummaries(ids)));
+    }
+
+    /**
+     * Load a post with its owner, tags, comments and reaction counts
+     * @param postId The post ID
+     * @return The details, or null if the post no longer exists
+     */
+    public CompletableFuture<PostDetails> loadPostDetails(int postId) {
+        return DbExecutor.supply(() -> readDetails(postId, 0));
+    }
+
+    /**
+     * Load a post with its owner, tags, reaction counts and only the first page of its top-level
+     * comments; replies and further pages are read with {@link #loadCommentPage}
+     * @param postId The post ID
+     * @param commentLimit Maximum number of top-level comments to read
+     * @return The details, or null if the post no longer exists
+     */
+    public CompletableFuture<PostDetails> loadPostDetails(int postId, int commentLimit) {
+        return DbExecutor.supply(() -> readDetails(postId, commentLimit));
+    }
+
+    public CompletableFuture<PostComments> loadComments(int postId) {
+        return DbExecutor.supply(() -> readComments(postId));
+    }
+
+    /**
+     * Load one page of the top-level comments of a post or of the replies to a comment
+     * @see CommentService#readChildren
+     */
+    public CompletableFuture<PostComments> loadCommentPage(int postId, Integer parentId,
+                                                          CommentService.ThreadCursor cursor, int limit) {
+        return DbExecutor.supply(() -> withAuthorNames(commentService.readChildren(postId, parentId, cursor, limit), null));
+    }
+
+    /**
+     * Toggle a reaction through the write-behind buffer
+     * @param postId The post ID
+     * @param userId The reacting user ID
+     * @param isLike true for a like, false for a dislike
+     * @return The post's counters, including reactions not yet written
+     */
+    public CompletableFuture<PostStats> toggleReaction(int postId, int userId, boolean isLike) {
+        return DbExecutor.supplyWrite(() -> {
+            ReactionWriteBuffer buffer = ReactionWriteBuffer.getInstance();
+            buffer.record(postId, userId, isLike);
+            return buffer.stats(postId);
+        });
+    }
+
+    /**
+     * Find posts matching the query in their title, content or tags, best match first
+     * @param searchTerm The text typed by the user
+     * @param offset Number of results to skip
+     * @param limit Maximum number of results to return
+     * @return One page of matching posts
+     */
+    public CompletableFuture<List<PostSummary>> searchPosts(String searchTerm, int offset, int limit) {
+        return DbExecutor.supply(() -> {
+            SearchHits hits = searchEngine.search(searchTerm, offset, limit);
+            if (hits.getPostIds().isEmpty()) {
+                return Collections.<PostSummary>emptyList();
+            }
+            return ReactionWriteBuffer.getInstance().applyPending(postService.readSummaries(hits.getPostIds()));
+        });
+    }
+
+    /**
+     * Delete a post with its comments, reactions and tag links in one transaction
+     * @param postId The post ID
+     */
+    public CompletableFuture<Void> deletePost(int postId) {
+        return DbExecutor.runWrite(() -> {
+            // Drop buffered reactions on the post, and wait for a flush already writing some
+            ReactionWriteBuffer.getInstance().discard(List.of(postId));
+            postService.deleteCascade(postId);
+        });
+    }
+
+    /**
+     * Create a post and link its tags, reusing the ones that already exist.
+     * If the owner no longer exists, the post is created for a valid user instead.
+     * @param post The post to create, its ID and owner ID are set
+     * @param tagNames The tag names, may be empty
+     * @return The same post
+     */
+    public CompletableFuture<Post> createPost(Post post, List<String> tagNames) {
+        return DbExecutor.supplyWrite(() -> {
+            withValidOwner(post::setOwnerId, () -> postService.create(post));
+            if (!tagNames.isEmpty()) {
+                tagService.upsertAndLink(post.getId(), tagNames);
+            }
+            return post;
+        });
+    }
+
+    public CompletableFuture<Void> updatePost(Post post) {
+        return DbExecutor.runWrite(() -> postService.update(post));
+    }
+
+    /**
+     * Create a comment or a reply.
+     * If the owner no longer exists, the comment is created for a valid user instead.
+     * @param comment The comment to create, its ID and owner ID are set
+     * @return The same comment with the display name of its owner, so it can be shown right away
+     */
+    public CompletableFuture<PostComments> createComment(Comment comment) {
+        return DbExecutor.supplyWrite(() -> {
+            withValidOwner(comment::setOwnerId, () -> commentService.create(comment));
+            return withAuthorNames(List.of(comment), null);
+        });
+    }
+
+    public CompletableFuture<Void> updateComment(Comment comment) {
+        return DbExecutor.runWrite(() -> commentService.update(comment));
+    }
+
+    /**
+     * Delete a comment with every reply under it
+     * @param commentId The comment ID
+     * @return The number of comments deleted
+     */
+    public CompletableFuture<Integer> deleteComment(int commentId) {
+        return DbExecutor.supplyWrite(() -> commentService.deleteSubtree(commentId));
+    }
+
+    /**
+     * Run a create, and run it once more for a valid user if the owner it references no longer exists
+     */
+    private void withValidOwner(IntConsumer setOwnerId, DbExecutor.SqlRunnable create) throws SQLException {
+        try {
+            create.run();
+        } catch (SQLException e) {
+            String message = e.getMessage();
+            if (message == null || !message.contains("foreign key constraint")
+                    || !(message.contains("owner_id") || message.contains("user"))) {
+                throw e;
+            }
+            System.out.println("⚠ User reference error, retrying with a valid user: " + message);
+            setOwnerId.accept(userService.getOrCreateValidUserId());
+            create.run();
+        }
+    }
+
+    // commentLimit 0 reads every comment
+    private PostDetails readDetails(int postId, int commentLimit) throws SQLException {
+        Post post = postService.read(postId);
+        if (post == null) {
+            return null;
+        }
+        List<Comment> commentList = commentLimit > 0
+                ? commentService.readChildren(postId, null, null, commentLimit)
+                : commentService.readByPostId(postId);
+        // The post owner is resolved with the comment authors
+        PostComments comments = withAuthorNames(commentList, post.getOwnerId());
+        String ownerName = comments.getAuthorNames().get(post.getOwnerId());
+        PostStats stats = ReactionWriteBuffer.getInstance().stats(postId);
+        return new PostDetails(post, ownerName, tagService.getTagsForPost(postId), comments,
+                stats.getLikes(), stats.getDislikes());
+    }
+
+    private PostComments readComments(int postId) throws SQLException {
+        return withAuthorNames(commentService.readByPostId(postId), null);
+    }
+
+    /**
+     * Resolve the names of every comment author, plus {@code extraUserId} if not null, before the
+     * comments are shown: one cache lookup, and at most one query for the names not cached
+     */
+    private PostComments withAuthorNames(List<Comment> comments, Integer extraUserId) {
+        Set<Integer> ownerIds = new HashSet<>();
+        for (Comment comment : comments) {
+            ownerIds.add(comment.getOwnerId());
+        }
+        if (extraUserId != null) {
+            ownerIds.add(extraUserId);
+        }
+        Map<Integer, String> authorNames;
+        try {
+            authorNames = UserDirectory.getInstance().resolveAll(ownerIds);
+        } catch (SQLException e) {
+            System.out.println("Error getting user info for " + ownerIds.size() + " comment authors: " + e.getMessage());
+            authorNames = new HashMap<>();
+            for (Integer ownerId : ownerIds) {
+                authorNames.put(ownerId, "User ID: " + ownerId);
+            }
+        }
+        return new PostComments(comments, authorNames);
+    }
+}
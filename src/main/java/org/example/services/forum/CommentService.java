@@ -1,20 +1,53 @@
 package org.example.services.forum;
 
 import org.example.models.forum.Comment;
+import org.example.utils.ProfanityFilter;
 import utils.dataSource;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CommentService {
+    // Longest materialized path stored, longer ones (threads over ~100 levels deep) are left NULL
+    private static final int MAX_PATH_LENGTH = 700;
+    // Largest IN (...) list sent in one statement by deleteSubtree
+    private static final int DELETE_BATCH_SIZE = 512;
+
+    /**
+     * Position in a list of sibling comments, oldest first: the (created_at, id) of the last comment already shown
+     */
+    public static class ThreadCursor {
+        private final Timestamp createdAt;
+        private final int id;
+
+        public ThreadCursor(LocalDateTime createdAt, int id) {
+            this.createdAt = Timestamp.valueOf(createdAt);
+            this.id = id;
+        }
+
+        /**
+         * @param last The last comment of the current page
+         * @return A cursor pointing just past {@code last}
+         */
+        public static ThreadCursor after(Comment last) {
+            return new ThreadCursor(last.getCreatedAt(), last.getId());
+        }
+    }
+
     public void create(Comment comment) throws SQLException {
-        String query = "INSERT INTO comment (post_id, owner_id, parent_id, content, created_at) VALUES (?, ?, ?, ?, NOW())";
+        String query = "INSERT INTO comment (post_id, owner_id, parent_id, content, content_masked, mask_version, created_at) " +
+                       "VALUES (?, ?, ?, ?, ?, ?, NOW())";
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
         try {
             conn = dataSource.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            String parentPath = comment.getParentId() != null ? readPath(conn, comment.getParentId()) : "/";
             stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
             stmt.setInt(1, comment.getPostId());
             stmt.setInt(2, comment.getOwnerId());
@@ -24,12 +57,21 @@ public class CommentService {
                 stmt.setNull(3, Types.INTEGER);
             }
             stmt.setString(4, comment.getContent());
+            setMasked(stmt, 5, comment);
             stmt.executeUpdate();
             
             rs = stmt.getGeneratedKeys();
             if (rs.next()) {
                 comment.setId(rs.getInt(1));
             }
+            if (parentPath != null) {
+                writePath(conn, comment.getId(), parentPath + comment.getId() + "/");
+            }
+            PostStatsService.adjust(conn, comment.getPostId(), 0, 0, 1);
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
         } finally {
             if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
@@ -48,14 +90,7 @@ public class CommentService {
             stmt.setInt(1, id);
             rs = stmt.executeQuery();
             if (rs.next()) {
-                return new Comment(
-                    rs.getInt("id"),
-                    rs.getInt("post_id"),
-                    rs.getInt("owner_id"),
-                    rs.getObject("parent_id", Integer.class),
-                    rs.getString("content"),
-                    rs.getTimestamp("created_at").toLocalDateTime()
-                );
+                return mapComment(rs);
             }
             return null;
         } finally {
@@ -77,14 +112,7 @@ public class CommentService {
             stmt.setInt(1, postId);
             rs = stmt.executeQuery();
             while (rs.next()) {
-                comments.add(new Comment(
-                    rs.getInt("id"),
-                    rs.getInt("post_id"),
-                    rs.getInt("owner_id"),
-                    rs.getObject("parent_id", Integer.class),
-                    rs.getString("content"),
-                    rs.getTimestamp("created_at").toLocalDateTime()
-                ));
+                comments.add(mapComment(rs));
             }
             return comments;
         } finally {
@@ -94,34 +122,303 @@ public class CommentService {
         }
     }
 
-    public void update(Comment comment) throws SQLException {
-        String query = "UPDATE comment SET content = ? WHERE id = ?";
+    /**
+     * Read one page of the top-level comments of a post, or of the direct replies to a comment, oldest first.
+     * Seeks on the (post_id, parent_id, created_at, id) index instead of reading the whole thread,
+     * and counts the replies of each comment so they can be offered without being read.
+     * @param postId The post ID
+     * @param parentId The comment whose replies to read, or null for top-level comments
+     * @param cursor Position after which to start, or null for the first page
+     * @param limit Maximum number of comments to return
+     * @return Up to {@code limit} comments with their reply counts; fewer means there are no more
+     * @throws SQLException if a database error occurs
+     */
+    public List<Comment> readChildren(int postId, Integer parentId, ThreadCursor cursor, int limit) throws SQLException {
+        List<Comment> comments = new ArrayList<>();
+        String query = "SELECT c.*, " +
+                "(SELECT COUNT(*) FROM comment r WHERE r.post_id = c.post_id AND r.parent_id = c.id) AS reply_count " +
+                "FROM comment c WHERE c.post_id = ? AND " + (parentId == null ? "c.parent_id IS NULL " : "c.parent_id = ? ") +
+                (cursor == null ? "" : "AND (c.created_at > ? OR (c.created_at = ? AND c.id > ?)) ") +
+                "ORDER BY c.created_at ASC, c.id ASC LIMIT ?";
         Connection conn = null;
         PreparedStatement stmt = null;
+        ResultSet rs = null;
         try {
             conn = dataSource.getInstance().getConnection();
             stmt = conn.prepareStatement(query);
-            stmt.setString(1, comment.getContent());
-            stmt.setInt(2, comment.getId());
-            stmt.executeUpdate();
+            int index = 1;
+            stmt.setInt(index++, postId);
+            if (parentId != null) {
+                stmt.setInt(index++, parentId);
+            }
+            if (cursor != null) {
+                stmt.setTimestamp(index++, cursor.createdAt);
+                stmt.setTimestamp(index++, cursor.createdAt);
+                stmt.setInt(index++, cursor.id);
+            }
+            stmt.setInt(index, limit);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                Comment comment = mapComment(rs);
+                comment.setReplyCount(rs.getInt("reply_count"));
+                comments.add(comment);
+            }
+            return comments;
         } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
         }
     }
 
-    public void delete(int id) throws SQLException {
-        String query = "DELETE FROM comment WHERE id = ?";
+    /**
+     * Read a comment with its replies, direct or nested, in one recursive query.
+     * Each level is found through the (post_id, parent_id, ...) index.
+     * @param rootId The comment at the top of the subtree
+     * @param maxDepth Levels of replies to include below the root, 0 for the root alone
+     * @return The root and its replies, oldest first (see {@link org.example.models.forum.CommentTree}
+     *         for display order); empty if the root does not exist
+     * @throws SQLException if a database error occurs
+     */
+    public List<Comment> readSubtree(int rootId, int maxDepth) throws SQLException {
+        List<Comment> comments = new ArrayList<>();
+        String query = "WITH RECURSIVE thread AS (" +
+                " SELECT c.*, 0 AS depth FROM comment c WHERE c.id = ?" +
+                " UNION ALL" +
+                " SELECT c.*, t.depth + 1 FROM comment c" +
+                " JOIN thread t ON c.post_id = t.post_id AND c.parent_id = t.id" +
+                " WHERE t.depth < ?" +
+                ") SELECT * FROM thread ORDER BY created_at ASC, id ASC";
         Connection conn = null;
         PreparedStatement stmt = null;
+        ResultSet rs = null;
         try {
             conn = dataSource.getInstance().getConnection();
             stmt = conn.prepareStatement(query);
-            stmt.setInt(1, id);
+            stmt.setInt(1, rootId);
+            stmt.setInt(2, maxDepth);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                comments.add(mapComment(rs));
+            }
+            return comments;
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Read the comments a comment replies to, from the top-level one down to its parent.
+     * The ids come from the comment's materialized path, so the whole chain is read by primary key
+     * in one query whatever its depth; comments without a path fall back to a recursive query.
+     * @param commentId The comment ID
+     * @return The ancestors, top-level comment first; empty for a top-level or unknown comment
+     * @throws SQLException if a database error occurs
+     */
+    public List<Comment> readAncestors(int commentId) throws SQLException {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            String path = readPath(conn, commentId);
+            if (path == null) {
+                return readAncestorsRecursively(conn, commentId);
+            }
+            // "/1/5/9/" for comment 9: every id but the last one is an ancestor
+            String[] parts = path.substring(1, path.length() - 1).split("/");
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < parts.length - 1; i++) {
+                ids.add(Integer.parseInt(parts[i]));
+            }
+            List<Comment> ancestors = new ArrayList<>();
+            if (ids.isEmpty()) {
+                return ancestors;
+            }
+            stmt = conn.prepareStatement("SELECT * FROM comment WHERE id IN " + PostService.inList(ids.size()));
+            int size = PostService.paddedSize(ids.size());
+            for (int i = 0; i < size; i++) {
+                stmt.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+            }
+            rs = stmt.executeQuery();
+            Map<Integer, Comment> byId = new HashMap<>();
+            while (rs.next()) {
+                Comment comment = mapComment(rs);
+                byId.put(comment.getId(), comment);
+            }
+            for (int id : ids) {
+                Comment ancestor = byId.get(id);
+                if (ancestor != null) {
+                    ancestors.add(ancestor);
+                }
+            }
+            return ancestors;
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Delete a comment with all its replies, direct or nested, in one transaction, so no reply
+     * is left pointing at a deleted parent
+     * @param rootId The comment at the top of the subtree
+     * @return The number of comments deleted, 0 if the comment does not exist
+     * @throws SQLException if a database error occurs; nothing is deleted in that case
+     */
+    public int deleteSubtree(int rootId) throws SQLException {
+        String select = "SELECT post_id FROM comment WHERE id = ? FOR UPDATE";
+        String subtree = "WITH RECURSIVE thread (id, post_id) AS (" +
+                " SELECT c.id, c.post_id FROM comment c WHERE c.id = ?" +
+                " UNION ALL" +
+                " SELECT c.id, c.post_id FROM comment c" +
+                " JOIN thread t ON c.post_id = t.post_id AND c.parent_id = t.id" +
+                // Locked, so a reply inserted under one of them waits for this delete and then fails
+                // its parent_id check instead of being left pointing at a deleted comment
+                ") SELECT c.id FROM comment c JOIN thread t ON t.id = c.id FOR UPDATE";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            stmt = conn.prepareStatement(select);
+            stmt.setInt(1, rootId);
+            rs = stmt.executeQuery();
+            if (!rs.next()) {
+                conn.rollback();
+                return 0;
+            }
+            int postId = rs.getInt("post_id");
+            rs.close();
+            stmt.close();
+
+            stmt = conn.prepareStatement(subtree);
+            stmt.setInt(1, rootId);
+            rs = stmt.executeQuery();
+            List<Integer> ids = new ArrayList<>();
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
+            }
+
+            // Detach every reply before deleting anything: a parent and its replies can fall in
+            // different batches, and a reply still referencing a deleted parent fails the foreign key
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE));
+                PostService.executeForIds(conn, "UPDATE comment SET parent_id = NULL WHERE id IN "
+                        + PostService.inList(batch.size()), batch);
+            }
+            int deleted = 0;
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE));
+                deleted += PostService.executeForIds(conn, "DELETE FROM comment WHERE id IN "
+                        + PostService.inList(batch.size()), batch);
+            }
+            PostStatsService.adjust(conn, postId, 0, 0, -deleted);
+            conn.commit();
+            return deleted;
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    public void update(Comment comment) throws SQLException {
+        String query = "UPDATE comment SET content = ?, content_masked = ?, mask_version = ? WHERE id = ?";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.prepareStatement(query);
+            stmt.setString(1, comment.getContent());
+            setMasked(stmt, 2, comment);
+            stmt.setInt(4, comment.getId());
             stmt.executeUpdate();
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Delete a comment and its replies
+     * @see #deleteSubtree
+     */
+    public void delete(int id) throws SQLException {
+        deleteSubtree(id);
+    }
+
+    /**
+     * @return The materialized path of a comment, null if it has none or does not exist
+     */
+    private static String readPath(Connection conn, int commentId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT path FROM comment WHERE id = ?")) {
+            stmt.setInt(1, commentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("path") : null;
+            }
+        }
+    }
+
+    private static void writePath(Connection conn, int commentId, String path) throws SQLException {
+        if (path.length() > MAX_PATH_LENGTH) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE comment SET path = ? WHERE id = ?")) {
+            stmt.setString(1, path);
+            stmt.setInt(2, commentId);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Walks up parent_id for comments whose path is missing, top-level comment first
+    private List<Comment> readAncestorsRecursively(Connection conn, int commentId) throws SQLException {
+        String query = "WITH RECURSIVE chain AS (" +
+                " SELECT p.*, 1 AS up FROM comment c JOIN comment p ON p.id = c.parent_id WHERE c.id = ?" +
+                " UNION ALL" +
+                " SELECT p.*, ch.up + 1 FROM comment p JOIN chain ch ON p.id = ch.parent_id" +
+                ") SELECT * FROM chain ORDER BY up DESC";
+        List<Comment> ancestors = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, commentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ancestors.add(mapComment(rs));
+                }
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * Store the masked content with the version of the word list that masked it,
+     * and keep it on the comment for display
+     */
+    private static void setMasked(PreparedStatement stmt, int index, Comment comment) throws SQLException {
+        int version = ProfanityFilter.version();
+        String content = ContentMaskService.maskOrNull(comment.getContent());
+        stmt.setString(index, content);
+        stmt.setInt(index + 1, version);
+        comment.setMaskedContent(content != null ? content : comment.getContent());
+    }
+
+    private Comment mapComment(ResultSet rs) throws SQLException {
+        Comment comment = new Comment(
+            rs.getInt("id"),
+            rs.getInt("post_id"),
+            rs.getInt("owner_id"),
+            rs.getObject("parent_id", Integer.class),
+            rs.getString("content"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+        );
+        comment.setMaskedContent(ContentMaskService.readMasked(rs, "content", "content_masked"));
+        return comment;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.services.forum;
+
+import org.example.utils.ProfanityFilter;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Profanity-masked copies of post titles and contents and of comment contents, stored next to the
+ * raw text when it is written so that reading never runs the filter.
+ * A NULL masked column means the text is clean; mask_version is the {@link ProfanityFilter#version()}
+ * of the word list the row was checked against. When the word list changes, {@link #remask()}
+ * rewrites the rows checked against another version, in batches.
+ */
+public class ContentMaskService {
+    private static final int BATCH_SIZE = 500;
+    private static ExecutorService remasker;
+    private static final AtomicBoolean remaskPending = new AtomicBoolean();
+
+    /**
+     * @return The masked text, or null if the text is clean (or null)
+     */
+    static String maskOrNull(String text) {
+        if (text == null) {
+            return null;
+        }
+        String masked = ProfanityFilter.filter(text);
+        return masked == text ? null : masked;
+    }
+
+    /**
+     * The display text of a row: the stored masked text if it was masked with the current word
+     * list, otherwise the raw text filtered now (until {@link #remask()} catches up)
+     * @param rs A row with the raw and masked columns and mask_version
+     */
+    static String readMasked(ResultSet rs, String rawColumn, String maskedColumn) throws SQLException {
+        String raw = rs.getString(rawColumn);
+        String masked = rs.getString(maskedColumn);
+        int version = rs.getInt("mask_version");
+        if (!rs.wasNull() && version == ProfanityFilter.version()) {
+            return masked != null ? masked : raw;
+        }
+        return raw == null ? null : ProfanityFilter.filter(raw);
+    }
+
+    /**
+     * Mask again every post and comment checked against another word list
+     * @return The number of rows rewritten
+     * @throws SQLException if a database error occurs; the batches already done are kept
+     */
+    public int remask() throws SQLException {
+        int version = ProfanityFilter.version();
+        return remaskTable("post", new String[] {"title", "content"}, version)
+                + remaskTable("comment", new String[] {"content"}, version);
+    }
+
+    /**
+     * Mask one table in batches of {@value #BATCH_SIZE} rows, each in its own transaction.
+     * Stops early if the word list changes again, the next run takes over.
+     * @param columns The raw text columns, each with a {@code <column>_masked} copy
+     */
+    private int remaskTable(String table, String[] columns, int version) throws SQLException {
+        StringBuilder select = new StringBuilder("SELECT id");
+        StringBuilder update = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (String column : columns) {
+            select.append(", ").append(column);
+            update.append(column).append("_masked = ?, ");
+        }
+        select.append(" FROM ").append(table)
+              .append(" WHERE id > ? AND (mask_version IS NULL OR mask_version <> ?) ORDER BY id LIMIT ? FOR UPDATE");
+        update.append("mask_version = ? WHERE id = ?");
+
+        int rows = 0;
+        int lastId = 0;
+        int done;
+        do {
+            done = 0;
+            try (Connection conn = dataSource.getInstance().getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement selectStmt = conn.prepareStatement(select.toString());
+                     PreparedStatement updateStmt = conn.prepareStatement(update.toString())) {
+                    selectStmt.setInt(1, lastId);
+                    selectStmt.setInt(2, version);
+                    selectStmt.setInt(3, BATCH_SIZE);
+                    try (ResultSet rs = selectStmt.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = rs.getInt("id");
+                            for (int i = 0; i < columns.length; i++) {
+                                updateStmt.setString(i + 1, maskOrNull(rs.getString(columns[i])));
+                            }
+                            updateStmt.setInt(columns.length + 1, version);
+                            updateStmt.setInt(columns.length + 2, lastId);
+                            updateStmt.addBatch();
+                            done++;
+                        }
+                    }
+                    updateStmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            rows += done;
+        } while (done == BATCH_SIZE && version == ProfanityFilter.version());
+        return rows;
+    }
+
+    /**
+     * Run {@link #remask()} in the background now and again after every change of the word list.
+     * Changes arriving while a run is queued are folded into it.
+     */
+    public static synchronized void startRemasking() {
+        if (remasker != null) {
+            return;
+        }
+        remasker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "content-remasker");
+            t.setDaemon(true);
+            return t;
+        });
+        ProfanityFilter.addWordListListener(ContentMaskService::scheduleRemask);
+        scheduleRemask();
+    }
+
+    private static void scheduleRemask() {
+        if (!remaskPending.compareAndSet(false, true)) {
+            return;
+        }
+        ContentMaskService service = new ContentMaskService();
+        remasker.execute(() -> {
+            remaskPending.set(false);
+            try {
+                long start = System.currentTimeMillis();
+                int rows = service.remask();
+                if (rows > 0) {
+                    System.out.println("✅ Masked " + rows + " posts and comments with word list "
+                            + Integer.toHexString(ProfanityFilter.version()) + " in "
+                            + (System.currentTimeMillis() - start) + " ms");
+                }
+            } catch (SQLException e) {
+                System.err.println("❌ Masking posts and comments failed: " + e.getMessage());
+            }
+        });
+    }
+}
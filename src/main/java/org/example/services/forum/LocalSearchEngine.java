@@ -0,0 +1,28 @@
+package org.example.services.forum;
+
+import org.example.models.forum.SearchHits;
+import org.example.services.DbExecutor;
+
+import java.sql.SQLException;
+
+/**
+ * Searches the in-process {@link LocalSearchIndex}, scanning the posts while it is still loading
+ */
+public class LocalSearchEngine implements SearchEngine {
+    private final ScanSearchEngine fallback = new ScanSearchEngine();
+
+    @Override
+    public SearchHits search(String query, int offset, int limit) throws SQLException {
+        SearchHits hits = LocalSearchIndex.getInstance().search(query, offset, limit);
+        return hits != null ? hits : fallback.search(query, offset, limit);
+    }
+
+    @Override
+    public void start() {
+        DbExecutor.run(() -> LocalSearchIndex.getInstance().load())
+                .exceptionally(e -> {
+                    System.err.println("❌ Search index not loaded: " + DbExecutor.unwrap(e).getMessage());
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,548 @@
+package org.example.services.forum;
+
+import org.example.models.forum.SearchHits;
+import org.example.utils.IntObjectMap;
+import org.example.utils.SearchTokenizer;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over post titles, contents and tag names, ranked with BM25.
+ * Terms come from {@link SearchTokenizer}; each term maps to the sorted IDs of the posts that
+ * contain it, with the term frequencies alongside. Title and tag terms count double.
+ *
+ * Built in the background by {@link #load()}, then kept current by {@link PostService} and
+ * {@link TagService}. {@link #search} returns null until the index is loaded.
+ */
+public final class LocalSearchIndex {
+    private static final LocalSearchIndex INSTANCE = new LocalSearchIndex();
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int TAG_WEIGHT = 2;
+    // The last query word also matches longer words; this caps how many
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int LOAD_BATCH = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final IntObjectMap<Doc> docs = new IntObjectMap<>();
+    private long totalLength = 0;
+    private volatile boolean loaded = false;
+    // Posts changed while load() runs; their rows from the load query are older and skipped
+    private Set<Integer> touchedDuringLoad;
+
+    /**
+     * Sorted post IDs containing one term, with the term frequency of each
+     */
+    private static final class Postings {
+        int[] docs = new int[2];
+        int[] freqs = new int[2];
+        int size = 0;
+
+        void add(int doc, int freq) {
+            // Posts are mostly indexed in ID order, so this is usually an append
+            int index = size > 0 && docs[size - 1] < doc ? -(size + 1) : Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                freqs[index] += freq;
+                return;
+            }
+            index = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            System.arraycopy(freqs, index, freqs, index + 1, size - index);
+            docs[index] = doc;
+            freqs[index] = freq;
+            size++;
+        }
+
+        void subtract(int doc, int freq) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return;
+            }
+            freqs[index] -= freq;
+            if (freqs[index] <= 0) {
+                System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+                System.arraycopy(freqs, index + 1, freqs, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * What one post contributed to the index, so it can be taken out again
+     */
+    private static final class Doc {
+        TermCounts text = TermCounts.EMPTY;
+        TermCounts tags = TermCounts.EMPTY;
+        Set<String> tagNames = new LinkedHashSet<>();
+
+        int length() {
+            return text.length + tags.length;
+        }
+    }
+
+    private static final class TermCounts {
+        static final TermCounts EMPTY = new TermCounts(new String[0], new int[0]);
+
+        final String[] terms;
+        final int[] freqs;
+        final int length;
+
+        TermCounts(String[] terms, int[] freqs) {
+            this.terms = terms;
+            this.freqs = freqs;
+            int sum = 0;
+            for (int freq : freqs) {
+                sum += freq;
+            }
+            this.length = sum;
+        }
+    }
+
+    /**
+     * Posts matching one query word, sorted by ID, with that word's BM25 contribution
+     */
+    private static final class Matches {
+        final int[] docs;
+        final float[] scores;
+
+        Matches(int[] docs, float[] scores) {
+            this.docs = docs;
+            this.scores = scores;
+        }
+    }
+
+    private LocalSearchIndex() {}
+
+    public static LocalSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Index every post, streaming them from the database. Posts written meanwhile are indexed by
+     * the write hooks and keep that newer version.
+     * @throws SQLException if a database error occurs; the index then stays unloaded
+     */
+    public void load() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        String query = "SELECT p.id, p.title, p.content, " +
+                "(SELECT GROUP_CONCAT(t.name SEPARATOR '\\n') FROM post_tag pt JOIN tag t ON t.id = pt.tag_id " +
+                " WHERE pt.post_id = p.id) AS tag_names " +
+                "FROM post p";
+        long start = System.currentTimeMillis();
+        int count = 0;
+        try (Connection conn = dataSource.getInstance().getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Stream the rows instead of holding every post in memory at once
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                List<Object[]> batch = new ArrayList<>(LOAD_BATCH);
+                while (rs.next()) {
+                    String tagNames = rs.getString("tag_names");
+                    batch.add(new Object[] {
+                        rs.getInt("id"),
+                        countTerms(rs.getString("title"), rs.getString("content")),
+                        tagNames == null ? new ArrayList<String>() : Arrays.asList(tagNames.split("\n"))
+                    });
+                    if (batch.size() == LOAD_BATCH) {
+                        count += addLoaded(batch);
+                        batch.clear();
+                    }
+                }
+                count += addLoaded(batch);
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        loaded = true;
+        System.out.println("✅ Search index loaded: " + count + " posts, " + termCount() + " terms in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Index the title and content of a new or edited post, keeping its tags
+     */
+    public void index(int postId, String title, String content) {
+        TermCounts text = countTerms(title, content);
+        lock.writeLock().lock();
+        try {
+            touch(postId);
+            Doc doc = docs.get(postId);
+            if (doc == null) {
+                doc = new Doc();
+                docs.put(postId, doc);
+            }
+            replaceText(postId, doc, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add tags to an indexed post
+     */
+    public void addTags(int postId, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            touch(postId);
+            Doc doc = docs.get(postId);
+            if (doc != null && doc.tagNames.addAll(tagNames)) {
+                replaceTags(postId, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove tags from an indexed post; null removes all of them
+     */
+    public void removeTags(int postId, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            touch(postId);
+            Doc doc = docs.get(postId);
+            if (doc != null && !doc.tagNames.isEmpty()) {
+                if (tagNames == null) {
+                    doc.tagNames.clear();
+                } else {
+                    doc.tagNames.removeAll(tagNames);
+                }
+                replaceTags(postId, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Take deleted posts out of the index
+     */
+    public void remove(Collection<Integer> postIds) {
+        lock.writeLock().lock();
+        try {
+            for (int postId : postIds) {
+                touch(postId);
+                Doc doc = docs.remove(postId);
+                if (doc != null) {
+                    apply(postId, doc.text, -1);
+                    apply(postId, doc.tags, -1);
+                    totalLength -= doc.length();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the posts containing every word of the query, best BM25 score first.
+     * The last word also matches as a prefix, so partly typed words find results.
+     * @param query The text typed by the user
+     * @param offset Number of results to skip
+     * @param limit Maximum number of results to return
+     * @return The requested page, or null if the index is not loaded yet
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        if (!loaded) {
+            return null;
+        }
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (words.isEmpty()) {
+            return new SearchHits(new ArrayList<>(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            int docCount = docs.size();
+            float avgLength = docCount == 0 ? 1 : Math.max(1, (float) totalLength / docCount);
+            List<Matches> perWord = new ArrayList<>(words.size());
+            for (int i = 0; i < words.size(); i++) {
+                Matches matches = match(words.get(i), i == words.size() - 1, docCount, avgLength);
+                if (matches.docs.length == 0) {
+                    return new SearchHits(new ArrayList<>(), 0);
+                }
+                perWord.add(matches);
+            }
+            perWord.sort((a, b) -> Integer.compare(a.docs.length, b.docs.length));
+            Matches result = perWord.get(0);
+            for (int i = 1; i < perWord.size() && result.docs.length > 0; i++) {
+                result = intersect(result, perWord.get(i));
+            }
+            return new SearchHits(topResults(result, offset, limit), result.docs.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int addLoaded(List<Object[]> batch) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : batch) {
+                int postId = (Integer) row[0];
+                if (touchedDuringLoad.contains(postId)) {
+                    continue;
+                }
+                Doc doc = docs.get(postId);
+                if (doc == null) {
+                    doc = new Doc();
+                    docs.put(postId, doc);
+                }
+                replaceText(postId, doc, (TermCounts) row[1]);
+                doc.tagNames.clear();
+                @SuppressWarnings("unchecked")
+                List<String> tagNames = (List<String>) row[2];
+                doc.tagNames.addAll(tagNames);
+                replaceTags(postId, doc);
+                added++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    private void touch(int postId) {
+        if (touchedDuringLoad != null) {
+            touchedDuringLoad.add(postId);
+        }
+    }
+
+    private void replaceText(int postId, Doc doc, TermCounts text) {
+        apply(postId, doc.text, -1);
+        totalLength += text.length - doc.text.length;
+        doc.text = text;
+        apply(postId, text, 1);
+    }
+
+    private void replaceTags(int postId, Doc doc) {
+        StringBuilder names = new StringBuilder();
+        for (String name : doc.tagNames) {
+            names.append(name).append('\n');
+        }
+        TermCounts tags = count(SearchTokenizer.tokenize(names.toString()), TAG_WEIGHT, new HashMap<>());
+        apply(postId, doc.tags, -1);
+        totalLength += tags.length - doc.tags.length;
+        doc.tags = tags;
+        apply(postId, tags, 1);
+    }
+
+    private void apply(int postId, TermCounts counts, int sign) {
+        for (int i = 0; i < counts.terms.length; i++) {
+            String term = counts.terms[i];
+            if (sign > 0) {
+                postings.computeIfAbsent(term, k -> new Postings()).add(postId, counts.freqs[i]);
+            } else {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    list.subtract(postId, counts.freqs[i]);
+                    if (list.size == 0) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private static TermCounts countTerms(String title, String content) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (String term : SearchTokenizer.tokenize(title)) {
+            counts.computeIfAbsent(term, k -> new int[1])[0] += TITLE_WEIGHT;
+        }
+        return count(SearchTokenizer.tokenize(content), 1, counts);
+    }
+
+    private static TermCounts count(List<String> terms, int weight, Map<String, int[]> counts) {
+        for (String term : terms) {
+            counts.computeIfAbsent(term, k -> new int[1])[0] += weight;
+        }
+        String[] keys = new String[counts.size()];
+        int[] freqs = new int[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            keys[i] = entry.getKey();
+            freqs[i++] = entry.getValue()[0];
+        }
+        return new TermCounts(keys, freqs);
+    }
+
+    private Matches match(String word, boolean prefix, int docCount, float avgLength) {
+        if (!prefix) {
+            Postings list = postings.get(word);
+            return list == null ? new Matches(new int[0], new float[0]) : score(list, docCount, avgLength);
+        }
+        NavigableMap<String, Postings> expanded = postings.subMap(word, true, word + Character.MAX_VALUE, false);
+        if (expanded.size() <= 1) {
+            Postings list = expanded.isEmpty() ? null : expanded.firstEntry().getValue();
+            return list == null ? new Matches(new int[0], new float[0]) : score(list, docCount, avgLength);
+        }
+        // Union of the expanded terms: sort (post, score) pairs by post and keep the best score of each post
+        int total = 0;
+        List<Matches> parts = new ArrayList<>();
+        for (Postings list : expanded.values()) {
+            parts.add(score(list, docCount, avgLength));
+            total += list.size;
+            if (parts.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        long[] pairs = new long[total];
+        int n = 0;
+        for (Matches part : parts) {
+            for (int i = 0; i < part.docs.length; i++) {
+                pairs[n++] = ((long) part.docs[i] << 32) | (Float.floatToIntBits(part.scores[i]) & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(pairs, 0, n);
+        int[] docsOut = new int[n];
+        float[] scoresOut = new float[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            int doc = (int) (pairs[i] >>> 32);
+            float score = Float.intBitsToFloat((int) pairs[i]);
+            if (size > 0 && docsOut[size - 1] == doc) {
+                scoresOut[size - 1] = Math.max(scoresOut[size - 1], score);
+            } else {
+                docsOut[size] = doc;
+                scoresOut[size++] = score;
+            }
+        }
+        return new Matches(Arrays.copyOf(docsOut, size), Arrays.copyOf(scoresOut, size));
+    }
+
+    private Matches score(Postings list, int docCount, float avgLength) {
+        float idf = (float) Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5));
+        int[] docIds = Arrays.copyOf(list.docs, list.size);
+        float[] scores = new float[list.size];
+        for (int i = 0; i < list.size; i++) {
+            Doc doc = docs.get(docIds[i]);
+            int length = doc == null ? 0 : doc.length();
+            float freq = list.freqs[i];
+            scores[i] = idf * freq * (K1 + 1) / (freq + K1 * (1 - B + B * length / avgLength));
+        }
+        return new Matches(docIds, scores);
+    }
+
+    // Walk the smaller list and binary search the larger one
+    private static Matches intersect(Matches small, Matches large) {
+        int[] docsOut = new int[small.docs.length];
+        float[] scoresOut = new float[small.docs.length];
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < small.docs.length && from < large.docs.length; i++) {
+            int index = Arrays.binarySearch(large.docs, from, large.docs.length, small.docs[i]);
+            if (index >= 0) {
+                docsOut[size] = small.docs[i];
+                scoresOut[size++] = small.scores[i] + large.scores[index];
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+        }
+        return new Matches(Arrays.copyOf(docsOut, size), Arrays.copyOf(scoresOut, size));
+    }
+
+    /**
+     * Keep the best offset + limit results with a bounded min-heap; ties go to the newer post.
+     * Scores are positive, so their float bits sort like the scores and (score, id) packs into one long.
+     */
+    private static List<Integer> topResults(Matches matches, int offset, int limit) {
+        int wanted = Math.min(matches.docs.length, offset + limit);
+        List<Integer> ids = new ArrayList<>();
+        if (wanted <= offset) {
+            return ids;
+        }
+        long[] heap = new long[wanted];
+        int size = 0;
+        for (int i = 0; i < matches.docs.length; i++) {
+            long key = ((long) Float.floatToIntBits(matches.scores[i]) << 32) | (matches.docs[i] & 0xFFFFFFFFL);
+            if (size < wanted) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        for (int i = size - 1 - offset; i >= 0; i--) {
+            ids.add((int) heap[i]);
+        }
+        return ids;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[index] <= heap[child]) {
+                return;
+            }
+            long swap = heap[child];
+            heap[child] = heap[index];
+            heap[index] = swap;
+            index = child;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.services.forum;
+
+import org.example.models.forum.SearchHits;
+import org.example.utils.SearchTokenizer;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Searches with the FULLTEXT indexes on post (title, content) and tag (name) in boolean mode,
+ * so the server ranks and pages the results. A post matches when its title and content contain
+ * every query word, or when one of its tags does; the last word also matches as a prefix.
+ * Words shorter than the server's {@code innodb_ft_min_token_size} (3 by default) are ignored by MySQL.
+ */
+public class MysqlFulltextSearchEngine implements SearchEngine {
+
+    @Override
+    public SearchHits search(String query, int offset, int limit) throws SQLException {
+        String against = toBooleanQuery(query);
+        if (against.isEmpty()) {
+            return new SearchHits(new ArrayList<>(), 0);
+        }
+        String sql = "SELECT m.post_id, SUM(m.score) AS score, COUNT(*) OVER () AS total FROM (" +
+                "  SELECT p.id AS post_id, MATCH(p.title, p.content) AGAINST (? IN BOOLEAN MODE) AS score " +
+                "  FROM post p WHERE MATCH(p.title, p.content) AGAINST (? IN BOOLEAN MODE) " +
+                "  UNION ALL " +
+                "  SELECT pt.post_id, MATCH(t.name) AGAINST (? IN BOOLEAN MODE) AS score " +
+                "  FROM tag t JOIN post_tag pt ON pt.tag_id = t.id WHERE MATCH(t.name) AGAINST (? IN BOOLEAN MODE)" +
+                ") m GROUP BY m.post_id ORDER BY score DESC, m.post_id DESC LIMIT ? OFFSET ?";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.prepareStatement(sql);
+            for (int i = 1; i <= 4; i++) {
+                stmt.setString(i, against);
+            }
+            stmt.setInt(5, limit);
+            stmt.setInt(6, offset);
+            rs = stmt.executeQuery();
+            List<Integer> ids = new ArrayList<>();
+            int total = 0;
+            while (rs.next()) {
+                ids.add(rs.getInt("post_id"));
+                total = rs.getInt("total");
+            }
+            if (ids.isEmpty() && offset > 0) {
+                // Past the last page: the window count is not available without rows
+                total = offset;
+            }
+            return new SearchHits(ids, total);
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Turn user input into a boolean-mode query where every word is required: "java bases de donn"
+     * becomes "+java +bases +donn*". Only letters and digits reach MySQL, so operators typed by the
+     * user cannot change the query.
+     */
+    static String toBooleanQuery(String query) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        StringBuilder against = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) {
+                against.append(' ');
+            }
+            against.append('+').append(words.get(i));
+            if (i == words.size() - 1) {
+                against.append('*');
+            }
+        }
+        return against.toString();
+    }
+}
@@ -0,0 +1,292 @@
+package org.example.services.forum;
+
+import org.example.models.forum.Post;
+import org.example.utils.CacheStats;
+import org.example.utils.ProfanityFilter;
+
+import java.lang.ref.SoftReference;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of posts in front of {@link PostService#read}, in two levels:
+ * <ul>
+ * <li>headers (owner, title, date), small, in an LRU map of {@code forum.posts.cacheSize} entries (default 1024);</li>
+ * <li>content bodies, held through soft references so the GC can take them back under memory
+ *     pressure, and in LRU order within {@code forum.posts.contentCacheChars} characters (default 4M).</li>
+ * </ul>
+ * A post is served from the cache only when both levels hit; a header without its body is reloaded.
+ * Concurrent misses for the same id share one database read. {@link PostService} invalidates posts
+ * it writes or deletes, and entries masked with an older profanity word list are treated as misses.
+ * Callers get a copy, so changing the returned post never changes the cache.
+ */
+public final class PostCache {
+    private static final PostCache INSTANCE = new PostCache(
+            Integer.getInteger("forum.posts.cacheSize", 1024),
+            Long.getLong("forum.posts.contentCacheChars", 4L * 1024 * 1024));
+
+    /**
+     * Reads a post from the database, null if it does not exist
+     */
+    @FunctionalInterface
+    interface Loader {
+        Post load(int postId) throws SQLException;
+    }
+
+    private final int maxHeaders;
+    private final long maxContentChars;
+    // Access-ordered, so iteration starts at the least recently used post
+    private final LinkedHashMap<Integer, Header> headers = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, BodyRef> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    private long contentChars = 0;
+    private final ConcurrentHashMap<Integer, CompletableFuture<Post>> loading = new ConcurrentHashMap<>();
+    // Bumped by every invalidation, so a load that started before a write does not cache stale data
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    private final CacheStats stats = new CacheStats();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    private static final class Header {
+        final int ownerId;
+        final String title;
+        final String maskedTitle;
+        final LocalDateTime createdAt;
+        // ProfanityFilter.version() the masked texts were read with
+        final int maskVersion;
+
+        Header(Post post, int maskVersion) {
+            this.ownerId = post.getOwnerId();
+            this.title = post.getTitle();
+            this.maskedTitle = post.getMaskedTitle();
+            this.createdAt = post.getCreatedAt();
+            this.maskVersion = maskVersion;
+        }
+    }
+
+    private static final class Body {
+        final String content;
+        final String maskedContent;
+
+        Body(String content, String maskedContent) {
+            this.content = content;
+            this.maskedContent = maskedContent;
+        }
+    }
+
+    private static final class BodyRef extends SoftReference<Body> {
+        // Kept outside the referent so the budget stays right after the GC clears it
+        final int chars;
+
+        BodyRef(Body body) {
+            super(body);
+            this.chars = length(body.content) + (body.maskedContent == body.content ? 0 : length(body.maskedContent));
+        }
+    }
+
+    private PostCache(int maxHeaders, long maxContentChars) {
+        this.maxHeaders = Math.max(1, maxHeaders);
+        this.maxContentChars = Math.max(0, maxContentChars);
+    }
+
+    public static PostCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return A copy of the cached post, or the one read by {@code loader}; null if it does not exist
+     */
+    Post get(int postId, Loader loader) throws SQLException {
+        Post cached = lookup(postId);
+        if (cached != null) {
+            stats.hit();
+            return cached;
+        }
+        stats.miss();
+
+        CompletableFuture<Post> mine = new CompletableFuture<>();
+        CompletableFuture<Post> pending = loading.putIfAbsent(postId, mine);
+        if (pending != null) {
+            return copy(await(pending));
+        }
+        long generation = writeGeneration.get();
+        int maskVersion = ProfanityFilter.version();
+        long start = System.nanoTime();
+        try {
+            Post post = loader.load(postId);
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+            if (post != null && writeGeneration.get() == generation) {
+                store(post, maskVersion, generation);
+            }
+            mine.complete(post);
+            return copy(post);
+        } catch (SQLException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(postId, mine);
+        }
+    }
+
+    /**
+     * Drop cached posts after they were written or deleted
+     */
+    public void invalidate(Collection<Integer> postIds) {
+        writeGeneration.incrementAndGet();
+        synchronized (this) {
+            for (Integer postId : postIds) {
+                headers.remove(postId);
+                removeBody(postId);
+            }
+        }
+        for (Integer postId : postIds) {
+            // Readers arriving now start a fresh load instead of joining one that may predate the write
+            loading.remove(postId);
+        }
+    }
+
+    public void invalidate(int postId) {
+        invalidate(List.of(postId));
+    }
+
+    public synchronized void clear() {
+        writeGeneration.incrementAndGet();
+        headers.clear();
+        bodies.clear();
+        contentChars = 0;
+    }
+
+    private synchronized Post lookup(int postId) {
+        Header header = headers.get(postId);
+        if (header == null) {
+            return null;
+        }
+        if (header.maskVersion != ProfanityFilter.version()) {
+            headers.remove(postId);
+            removeBody(postId);
+            return null;
+        }
+        BodyRef ref = bodies.get(postId);
+        Body body = ref != null ? ref.get() : null;
+        if (body == null) {
+            if (ref != null) {
+                // Cleared by the GC
+                removeBody(postId);
+            }
+            return null;
+        }
+        Post post = new Post(postId, header.ownerId, header.title, body.content, header.createdAt);
+        post.setMaskedTitle(header.maskedTitle);
+        post.setMaskedContent(body.maskedContent);
+        return post;
+    }
+
+    private synchronized void store(Post post, int maskVersion, long generation) {
+        // Checked again under the lock: an invalidation may have run since the load finished
+        if (writeGeneration.get() != generation) {
+            return;
+        }
+        headers.put(post.getId(), new Header(post, maskVersion));
+        Iterator<Integer> eldestHeader = headers.keySet().iterator();
+        while (headers.size() > maxHeaders && eldestHeader.hasNext()) {
+            Integer evicted = eldestHeader.next();
+            eldestHeader.remove();
+            removeBody(evicted);
+            stats.eviction();
+        }
+
+        removeBody(post.getId());
+        BodyRef ref = new BodyRef(new Body(post.getContent(), post.getMaskedContent()));
+        if (ref.chars > maxContentChars) {
+            return;
+        }
+        bodies.put(post.getId(), ref);
+        contentChars += ref.chars;
+        Iterator<BodyRef> eldestBody = bodies.values().iterator();
+        while (contentChars > maxContentChars && eldestBody.hasNext()) {
+            contentChars -= eldestBody.next().chars;
+            eldestBody.remove();
+            stats.eviction();
+        }
+    }
+
+    private void removeBody(Integer postId) {
+        BodyRef ref = bodies.remove(postId);
+        if (ref != null) {
+            contentChars -= ref.chars;
+        }
+    }
+
+    private static Post await(CompletableFuture<Post> pending) throws SQLException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Post copy(Post post) {
+        if (post == null) {
+            return null;
+        }
+        Post copy = new Post(post.getId(), post.getOwnerId(), post.getTitle(), post.getContent(), post.getCreatedAt());
+        copy.setMaskedTitle(post.getMaskedTitle());
+        copy.setMaskedContent(post.getMaskedContent());
+        return copy;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    public synchronized int getSize() {
+        return headers.size();
+    }
+
+    /**
+     * @return Characters of content currently held, including bodies the GC has cleared but not yet noticed
+     */
+    public synchronized long getContentChars() {
+        return contentChars;
+    }
+
+    /**
+     * @return Lookup counters; evictions are headers and bodies pushed out by the size limits (GC-cleared bodies are not counted)
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return Average time of a database read on a miss, in milliseconds, 0 before the first one
+     */
+    public double getAverageLoadMillis() {
+        long count = loads.sum();
+        return count == 0 ? 0.0 : loadNanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public String toString() {
+        return "PostCache{size=" + getSize()
+                + ", contentChars=" + getContentChars()
+                + ", " + stats
+                + ", avgLoadMs=" + String.format("%.2f", getAverageLoadMillis())
+                + "}";
+    }
+}
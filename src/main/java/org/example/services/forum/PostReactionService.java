@@ -5,22 +5,33 @@ import utils.dataSource;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PostReactionService {
     public void create(PostReaction reaction) throws SQLException {
         String query = "INSERT INTO post_reaction (post_id, user_id, is_like) VALUES (?, ?, ?)";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, reaction.getPostId());
-            stmt.setInt(2, reaction.getUserId());
-            stmt.setBoolean(3, reaction.isLike());
-            stmt.executeUpdate();
-            
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    reaction.setId(rs.getInt(1));
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, reaction.getPostId());
+                stmt.setInt(2, reaction.getUserId());
+                stmt.setBoolean(3, reaction.isLike());
+                stmt.executeUpdate();
+                
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        reaction.setId(rs.getInt(1));
+                    }
                 }
+                adjustStats(conn, reaction.getPostId(), null, reaction.isLike());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
     }
@@ -68,62 +79,188 @@ public class PostReactionService {
 
     public void update(PostReaction reaction) throws SQLException {
         String query = "UPDATE post_reaction SET is_like = ? WHERE id = ?";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setBoolean(1, reaction.isLike());
-            stmt.setInt(2, reaction.getId());
-            stmt.executeUpdate();
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PostReaction previous = lockById(conn, reaction.getId());
+                if (previous != null && previous.isLike() != reaction.isLike()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                        stmt.setBoolean(1, reaction.isLike());
+                        stmt.setInt(2, reaction.getId());
+                        stmt.executeUpdate();
+                    }
+                    adjustStats(conn, previous.getPostId(), previous.isLike(), reaction.isLike());
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
     public void delete(int id) throws SQLException {
         String query = "DELETE FROM post_reaction WHERE id = ?";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PostReaction previous = lockById(conn, id);
+                if (previous != null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                        stmt.setInt(1, id);
+                        stmt.executeUpdate();
+                    }
+                    adjustStats(conn, previous.getPostId(), previous.isLike(), null);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
+    /**
+     * Set a user's reaction on a post, updating post_stats in the same transaction
+     * @param postId The post ID
+     * @param userId The user ID
+     * @param isLike true for a like, false for a dislike
+     * @throws SQLException if a database error occurs
+     */
     public void toggleReaction(int postId, int userId, boolean isLike) throws SQLException {
+        String select = "SELECT is_like FROM post_reaction WHERE post_id = ? AND user_id = ? FOR UPDATE";
         String query = "INSERT INTO post_reaction (post_id, user_id, is_like) VALUES (?, ?, ?) " +
                       "ON DUPLICATE KEY UPDATE is_like = ?";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, postId);
-            stmt.setInt(2, userId);
-            stmt.setBoolean(3, isLike);
-            stmt.setBoolean(4, isLike);
-            stmt.executeUpdate();
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Boolean previous = null;
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    stmt.setInt(1, postId);
+                    stmt.setInt(2, userId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            previous = rs.getBoolean("is_like");
+                        }
+                    }
+                }
+                // Same reaction as before: nothing to write
+                if (previous == null || previous != isLike) {
+                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                        stmt.setInt(1, postId);
+                        stmt.setInt(2, userId);
+                        stmt.setBoolean(3, isLike);
+                        stmt.setBoolean(4, isLike);
+                        stmt.executeUpdate();
+                    }
+                    adjustStats(conn, postId, previous, isLike);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
-    public int getLikeCount(int postId) throws SQLException {
-        String query = "SELECT COUNT(*) FROM post_reaction WHERE post_id = ? AND is_like = true";
+    /**
+     * Get a user's current reaction on a post
+     * @param postId The post ID
+     * @param userId The user ID
+     * @return true for a like, false for a dislike, null if the user has not reacted
+     * @throws SQLException if a database error occurs
+     */
+    public Boolean getUserReaction(int postId, int userId) throws SQLException {
+        String query = "SELECT is_like FROM post_reaction WHERE post_id = ? AND user_id = ?";
         try (Connection conn = dataSource.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, postId);
+            stmt.setInt(2, userId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    return rs.getBoolean("is_like");
                 }
             }
         }
-        return 0;
+        return null;
     }
 
-    public int getDislikeCount(int postId) throws SQLException {
-        String query = "SELECT COUNT(*) FROM post_reaction WHERE post_id = ? AND is_like = false";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, postId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+    /**
+     * Set many reactions in one transaction: the current rows are locked in one query,
+     * the changed ones written with one multi-row upsert, and post_stats adjusted once per post
+     * @param reactions The reactions to set; at most one per (post, user)
+     * @throws SQLException if a database error occurs; nothing is written in that case
+     */
+    public void applyReactions(Collection<PostReaction> reactions) throws SQLException {
+        if (reactions.isEmpty()) {
+            return;
+        }
+        String pairs = String.join(",", Collections.nCopies(reactions.size(), "(?, ?)"));
+        String select = "SELECT post_id, user_id, is_like FROM post_reaction " +
+                        "WHERE (post_id, user_id) IN (" + pairs + ") FOR UPDATE";
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<Long, Boolean> previous = new HashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(select)) {
+                    int index = 1;
+                    for (PostReaction reaction : reactions) {
+                        stmt.setInt(index++, reaction.getPostId());
+                        stmt.setInt(index++, reaction.getUserId());
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            previous.put(pairKey(rs.getInt("post_id"), rs.getInt("user_id")), rs.getBoolean("is_like"));
+                        }
+                    }
                 }
+                
+                List<PostReaction> changed = new ArrayList<>();
+                Map<Integer, int[]> deltas = new HashMap<>();
+                for (PostReaction reaction : reactions) {
+                    Boolean before = previous.get(pairKey(reaction.getPostId(), reaction.getUserId()));
+                    if (before != null && before == reaction.isLike()) {
+                        continue;
+                    }
+                    changed.add(reaction);
+                    int[] delta = deltas.computeIfAbsent(reaction.getPostId(), k -> new int[2]);
+                    if (before != null) {
+                        delta[before ? 0 : 1]--;
+                    }
+                    delta[reaction.isLike() ? 0 : 1]++;
+                }
+                
+                if (!changed.isEmpty()) {
+                    String upsert = "INSERT INTO post_reaction (post_id, user_id, is_like) VALUES " +
+                                    String.join(",", Collections.nCopies(changed.size(), "(?, ?, ?)")) +
+                                    " ON DUPLICATE KEY UPDATE is_like = VALUES(is_like)";
+                    try (PreparedStatement stmt = conn.prepareStatement(upsert)) {
+                        int index = 1;
+                        for (PostReaction reaction : changed) {
+                            stmt.setInt(index++, reaction.getPostId());
+                            stmt.setInt(index++, reaction.getUserId());
+                            stmt.setBoolean(index++, reaction.isLike());
+                        }
+                        stmt.executeUpdate();
+                    }
+                    for (Map.Entry<Integer, int[]> delta : deltas.entrySet()) {
+                        PostStatsService.adjust(conn, delta.getKey(), delta.getValue()[0], delta.getValue()[1], 0);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
-        return 0;
+    }
+
+    public int getLikeCount(int postId) throws SQLException {
+        return new PostStatsService().read(postId).getLikes();
+    }
+
+    public int getDislikeCount(int postId) throws SQLException {
+        return new PostStatsService().read(postId).getDislikes();
     }
 
     /**
@@ -133,11 +270,58 @@ public class PostReactionService {
      */
     public void deleteAllForPost(int postId) throws SQLException {
         String query = "DELETE FROM post_reaction WHERE post_id = ?";
-        try (Connection conn = dataSource.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, postId);
-            int count = stmt.executeUpdate();
-            System.out.println("Deleted " + count + " reactions for post " + postId);
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, postId);
+                int count = stmt.executeUpdate();
+                PostStatsService.clearReactions(conn, postId);
+                conn.commit();
+                System.out.println("Deleted " + count + " reactions for post " + postId);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static long pairKey(int postId, int userId) {
+        return ((long) postId << 32) | (userId & 0xFFFFFFFFL);
+    }
+
+    private PostReaction lockById(Connection conn, int id) throws SQLException {
+        String query = "SELECT * FROM post_reaction WHERE id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PostReaction(
+                        rs.getInt("id"),
+                        rs.getInt("post_id"),
+                        rs.getInt("user_id"),
+                        rs.getBoolean("is_like"),
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Move one reaction between the like/dislike counters
+     * @param previous The reaction before the change, null if there was none
+     * @param current The reaction after the change, null if it was removed
+     */
+    private void adjustStats(Connection conn, int postId, Boolean previous, Boolean current) throws SQLException {
+        int likes = 0;
+        int dislikes = 0;
+        if (previous != null) {
+            if (previous) likes--; else dislikes--;
+        }
+        if (current != null) {
+            if (current) likes++; else dislikes++;
         }
+        PostStatsService.adjust(conn, postId, likes, dislikes, 0);
     }
 } 
\ No newline at end of file
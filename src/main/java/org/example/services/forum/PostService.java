@@ -1,15 +1,50 @@
 package org.example.services.forum;
 
 import org.example.models.forum.Post;
+import org.example.models.forum.PostSummary;
+import org.example.utils.ProfanityFilter;
 import utils.dataSource;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 public class PostService {
+    // Largest IN (...) list sent in one statement by readSummaries
+    private static final int SUMMARY_BATCH_SIZE = 512;
+    private static final int DELETE_BATCH_SIZE = 512;
+
+    /**
+     * Position in the feed, newest first: the (created_at, id) of the last post already shown
+     */
+    public static class PageCursor {
+        private final Timestamp createdAt;
+        private final int id;
+
+        public PageCursor(LocalDateTime createdAt, int id) {
+            this.createdAt = Timestamp.valueOf(createdAt);
+            this.id = id;
+        }
+
+        /**
+         * @param last The last summary of the current page
+         * @return A cursor pointing just past {@code last}
+         */
+        public static PageCursor after(PostSummary last) {
+            return new PageCursor(last.getCreatedAt(), last.getId());
+        }
+    }
+
     public void create(Post post) throws SQLException {
-        String query = "INSERT INTO post (owner_id, title, content, created_at) VALUES (?, ?, ?, NOW())";
+        String query = "INSERT INTO post (owner_id, title, content, title_masked, content_masked, mask_version, created_at) " +
+                       "VALUES (?, ?, ?, ?, ?, ?, NOW())";
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -19,11 +54,17 @@ public class PostService {
             stmt.setInt(1, post.getOwnerId());
             stmt.setString(2, post.getTitle());
             stmt.setString(3, post.getContent());
+            setMasked(stmt, 4, post);
             stmt.executeUpdate();
             
             rs = stmt.getGeneratedKeys();
             if (rs.next()) {
                 post.setId(rs.getInt(1));
+                // Nothing is cached for a new id, unless an earlier post with it was read before a rollback
+                PostCache.getInstance().invalidate(post.getId());
+                TagCache.getInstance().setPostTags(post.getId(), Collections.emptyList());
+                LocalSearchIndex.getInstance().index(post.getId(), post.getTitle(), post.getContent());
+                TypeaheadIndex.getInstance().indexPost(post.getId(), post.getTitle());
             }
         } finally {
             if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
@@ -32,7 +73,17 @@ public class PostService {
         }
     }
 
+    /**
+     * Read a post, through {@link PostCache}
+     * @param id The post ID
+     * @return A post the caller may change freely, or null if it does not exist
+     * @throws SQLException if the post was not cached and could not be read
+     */
     public Post read(int id) throws SQLException {
+        return PostCache.getInstance().get(id, this::readFromDatabase);
+    }
+
+    private Post readFromDatabase(int id) throws SQLException {
         String query = "SELECT * FROM post WHERE id = ?";
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -43,13 +94,7 @@ public class PostService {
             stmt.setInt(1, id);
             rs = stmt.executeQuery();
             if (rs.next()) {
-                return new Post(
-                    rs.getInt("id"),
-                    rs.getInt("owner_id"),
-                    rs.getString("title"),
-                    rs.getString("content"),
-                    rs.getTimestamp("created_at").toLocalDateTime()
-                );
+                return mapPost(rs);
             }
             return null;
         } finally {
@@ -70,13 +115,7 @@ public class PostService {
             stmt = conn.prepareStatement(query);
             rs = stmt.executeQuery();
             while (rs.next()) {
-                posts.add(new Post(
-                    rs.getInt("id"),
-                    rs.getInt("owner_id"),
-                    rs.getString("title"),
-                    rs.getString("content"),
-                    rs.getTimestamp("created_at").toLocalDateTime()
-                ));
+                posts.add(mapPost(rs));
             }
             return posts;
         } finally {
@@ -87,7 +126,8 @@ public class PostService {
     }
 
     public void update(Post post) throws SQLException {
-        String query = "UPDATE post SET title = ?, content = ? WHERE id = ?";
+        String query = "UPDATE post SET title = ?, content = ?, title_masked = ?, content_masked = ?, mask_version = ? " +
+                       "WHERE id = ?";
         Connection conn = null;
         PreparedStatement stmt = null;
         try {
@@ -95,8 +135,12 @@ public class PostService {
             stmt = conn.prepareStatement(query);
             stmt.setString(1, post.getTitle());
             stmt.setString(2, post.getContent());
-            stmt.setInt(3, post.getId());
+            setMasked(stmt, 3, post);
+            stmt.setInt(6, post.getId());
             stmt.executeUpdate();
+            PostCache.getInstance().invalidate(post.getId());
+            LocalSearchIndex.getInstance().index(post.getId(), post.getTitle(), post.getContent());
+            TypeaheadIndex.getInstance().indexPost(post.getId(), post.getTitle());
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
@@ -109,12 +153,254 @@ public class PostService {
         PreparedStatement stmt = null;
         try {
             conn = dataSource.getInstance().getConnection();
+            conn.setAutoCommit(false);
             stmt = conn.prepareStatement(query);
             stmt.setInt(1, id);
             stmt.executeUpdate();
+            PostStatsService.deleteForPost(conn, id);
+            conn.commit();
+            PostCache.getInstance().invalidate(id);
+            TagCache.getInstance().removePosts(List.of(id));
+            LocalSearchIndex.getInstance().remove(List.of(id));
+            TypeaheadIndex.getInstance().removePosts(List.of(id));
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Delete a post with its comments (including nested replies), reactions, tag links and counters
+     * in one transaction
+     * @param postId The post ID
+     * @return true if the post existed
+     * @throws SQLException if a database error occurs; nothing is deleted in that case
+     */
+    public boolean deleteCascade(int postId) throws SQLException {
+        return deleteCascade(List.of(postId)) > 0;
+    }
+
+    /**
+     * Delete many posts with everything attached to them in one transaction, for moderation.
+     * Each table is cleared with one set-based statement per {@value #DELETE_BATCH_SIZE} posts,
+     * whatever the number of comments.
+     * @param postIds The post IDs
+     * @return The number of posts deleted
+     * @throws SQLException if a database error occurs; nothing is deleted in that case
+     */
+    public int deleteCascade(Collection<Integer> postIds) throws SQLException {
+        if (postIds == null || postIds.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(postIds));
+        Connection conn = null;
+        int deleted = 0;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE));
+                String in = inList(batch.size());
+                // Detach replies first so the whole thread goes in one DELETE despite the parent_id reference
+                executeForIds(conn, "UPDATE comment SET parent_id = NULL WHERE post_id IN " + in + " AND parent_id IS NOT NULL", batch);
+                executeForIds(conn, "DELETE FROM comment WHERE post_id IN " + in, batch);
+                executeForIds(conn, "DELETE FROM post_reaction WHERE post_id IN " + in, batch);
+                executeForIds(conn, "DELETE FROM post_tag WHERE post_id IN " + in, batch);
+                executeForIds(conn, "DELETE FROM post_stats WHERE post_id IN " + in, batch);
+                deleted += executeForIds(conn, "DELETE FROM post WHERE id IN " + in, batch);
+            }
+            conn.commit();
+            PostCache.getInstance().invalidate(ids);
+            TagCache.getInstance().removePosts(ids);
+            LocalSearchIndex.getInstance().remove(ids);
+            TypeaheadIndex.getInstance().removePosts(ids);
+            System.out.println("Deleted " + deleted + " posts with their comments, reactions and tags");
+            return deleted;
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * Load list summaries (title, author, tags, reaction and comment counts) for several posts
+     * in one round trip per {@value #SUMMARY_BATCH_SIZE} ids
+     * @param ids The post IDs, in display order
+     * @return Summaries in the same order as {@code ids}; unknown IDs are skipped
+     * @throws SQLException if a database error occurs
+     */
+    public List<PostSummary> readSummaries(List<Integer> ids) throws SQLException {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, PostSummary> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += SUMMARY_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + SUMMARY_BATCH_SIZE));
+            readSummaryBatch(batch, byId);
+        }
+        List<PostSummary> summaries = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            PostSummary summary = byId.get(id);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Read one page of the feed, newest first, without the post content.
+     * Seeks on the (created_at, id) index instead of using OFFSET, so every page costs the same.
+     * @param cursor Position after which to start, or null for the first page
+     * @param limit Maximum number of posts to return
+     * @return Up to {@code limit} summaries; fewer means the end of the feed was reached
+     * @throws SQLException if a database error occurs
+     */
+    public List<PostSummary> readPage(PageCursor cursor, int limit) throws SQLException {
+        List<PostSummary> summaries = new ArrayList<>();
+        String where = cursor == null ? "" : "WHERE created_at < ? OR (created_at = ? AND id < ?) ";
+        String query = "SELECT p.id, p.owner_id, p.title, p.title_masked, p.mask_version, p.created_at, u.email AS owner_name, " +
+                "(SELECT GROUP_CONCAT(t.name ORDER BY t.id SEPARATOR ',') FROM post_tag pt JOIN tag t ON t.id = pt.tag_id " +
+                " WHERE pt.post_id = p.id) AS tag_names, " +
+                "COALESCE(s.likes, 0) AS like_count, COALESCE(s.dislikes, 0) AS dislike_count, " +
+                "COALESCE(s.comments, 0) AS comment_count " +
+                "FROM (SELECT id, owner_id, title, title_masked, mask_version, created_at FROM post " + where +
+                "      ORDER BY created_at DESC, id DESC LIMIT ?) p " +
+                "LEFT JOIN user u ON u.id = p.owner_id " +
+                "LEFT JOIN post_stats s ON s.post_id = p.id " +
+                "ORDER BY p.created_at DESC, p.id DESC";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.prepareStatement(query);
+            int index = 1;
+            if (cursor != null) {
+                stmt.setTimestamp(index++, cursor.createdAt);
+                stmt.setTimestamp(index++, cursor.createdAt);
+                stmt.setInt(index++, cursor.id);
+            }
+            stmt.setInt(index, limit);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                summaries.add(mapSummary(rs));
+            }
+            return summaries;
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    private void readSummaryBatch(List<Integer> batch, Map<Integer, PostSummary> byId) throws SQLException {
+        int size = paddedSize(batch.size());
+        String placeholders = String.join(",", Collections.nCopies(size, "?"));
+        String query = "SELECT p.id, p.owner_id, p.title, p.title_masked, p.mask_version, p.created_at, u.email AS owner_name, " +
+                "tg.tag_names, COALESCE(s.likes, 0) AS like_count, " +
+                "COALESCE(s.dislikes, 0) AS dislike_count, COALESCE(s.comments, 0) AS comment_count " +
+                "FROM post p " +
+                "LEFT JOIN user u ON u.id = p.owner_id " +
+                "LEFT JOIN post_stats s ON s.post_id = p.id " +
+                "LEFT JOIN (SELECT pt.post_id, GROUP_CONCAT(t.name ORDER BY t.id SEPARATOR ',') AS tag_names " +
+                "           FROM post_tag pt JOIN tag t ON t.id = pt.tag_id " +
+                "           WHERE pt.post_id IN (" + placeholders + ") GROUP BY pt.post_id) tg ON tg.post_id = p.id " +
+                "WHERE p.id IN (" + placeholders + ")";
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.prepareStatement(query);
+            int index = 1;
+            for (int list = 0; list < 2; list++) {
+                for (int i = 0; i < size; i++) {
+                    stmt.setInt(index++, batch.get(Math.min(i, batch.size() - 1)));
+                }
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                PostSummary summary = mapSummary(rs);
+                byId.put(summary.getId(), summary);
+            }
+        } finally {
+            if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * IN lists are padded to a power of two (repeating the last id) so only a handful of
+     * distinct statements end up in the prepared statement cache
+     */
+    static int paddedSize(int count) {
+        int size = Integer.highestOneBit(count);
+        return size < count ? size << 1 : size;
+    }
+
+    static String inList(int count) {
+        return "(" + String.join(",", Collections.nCopies(paddedSize(count), "?")) + ")";
+    }
+
+    static int executeForIds(Connection conn, String query, List<Integer> ids) throws SQLException {
+        int size = paddedSize(ids.size());
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (int i = 0; i < size; i++) {
+                stmt.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Store the masked title and content with the version of the word list that masked them,
+     * and keep them on the post for display
+     */
+    private static void setMasked(PreparedStatement stmt, int index, Post post) throws SQLException {
+        int version = ProfanityFilter.version();
+        String title = ContentMaskService.maskOrNull(post.getTitle());
+        String content = ContentMaskService.maskOrNull(post.getContent());
+        stmt.setString(index, title);
+        stmt.setString(index + 1, content);
+        stmt.setInt(index + 2, version);
+        post.setMaskedTitle(title != null ? title : post.getTitle());
+        post.setMaskedContent(content != null ? content : post.getContent());
+    }
+
+    private Post mapPost(ResultSet rs) throws SQLException {
+        Post post = new Post(
+            rs.getInt("id"),
+            rs.getInt("owner_id"),
+            rs.getString("title"),
+            rs.getString("content"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+        );
+        post.setMaskedTitle(ContentMaskService.readMasked(rs, "title", "title_masked"));
+        post.setMaskedContent(ContentMaskService.readMasked(rs, "content", "content_masked"));
+        return post;
+    }
+
+    private PostSummary mapSummary(ResultSet rs) throws SQLException {
+        String tagNames = rs.getString("tag_names");
+        PostSummary summary = new PostSummary(
+            rs.getInt("id"),
+            rs.getInt("owner_id"),
+            rs.getString("owner_name"),
+            rs.getString("title"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            tagNames == null || tagNames.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(tagNames.split(","))),
+            rs.getInt("like_count"),
+            rs.getInt("dislike_count"),
+            rs.getInt("comment_count")
+        );
+        summary.setMaskedTitle(ContentMaskService.readMasked(rs, "title", "title_masked"));
+        return summary;
+    }
+}
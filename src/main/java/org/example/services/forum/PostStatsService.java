@@ -0,0 +1,162 @@
+package org.example.services.forum;
+
+import org.example.models.forum.PostStats;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters kept in post_stats so reaction and comment counts are primary-key reads.
+ * Writers update them in the same transaction as the row they change (see {@link #adjust});
+ * {@link #reconcile()} recomputes them from the source tables to repair any drift.
+ */
+public class PostStatsService {
+    private static final long DEFAULT_RECONCILE_INTERVAL_MINUTES = 60;
+    private static ScheduledExecutorService reconciler;
+
+    /**
+     * Read the counters of a post
+     * @param postId The post ID
+     * @return The counters, all zero if the post has none yet
+     * @throws SQLException if a database error occurs
+     */
+    public PostStats read(int postId) throws SQLException {
+        String query = "SELECT likes, dislikes, comments FROM post_stats WHERE post_id = ?";
+        try (Connection conn = dataSource.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, postId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PostStats(postId, rs.getInt("likes"), rs.getInt("dislikes"), rs.getInt("comments"));
+                }
+            }
+        }
+        return new PostStats(postId, 0, 0, 0);
+    }
+
+    /**
+     * Recompute every post's counters from post_reaction and comment, and drop counters of deleted posts.
+     * A post without a post_stats row reads as all zero, so rows are only added for posts with activity.
+     * @return The number of counter rows that were wrong, missing or orphaned
+     * @throws SQLException if a database error occurs
+     */
+    public int reconcile() throws SQLException {
+        String reactionCounts = "(SELECT post_id, SUM(is_like = true) AS likes, SUM(is_like = false) AS dislikes " +
+                " FROM post_reaction GROUP BY post_id) r";
+        String commentCounts = "(SELECT post_id, COUNT(*) AS comments FROM comment GROUP BY post_id) c";
+        // Only drifted rows are written, so the update counts are the number of repaired posts
+        String fixExisting = "UPDATE post_stats s " +
+                "LEFT JOIN " + reactionCounts + " ON r.post_id = s.post_id " +
+                "LEFT JOIN " + commentCounts + " ON c.post_id = s.post_id " +
+                "SET s.likes = COALESCE(r.likes, 0), s.dislikes = COALESCE(r.dislikes, 0), s.comments = COALESCE(c.comments, 0) " +
+                "WHERE s.likes <> COALESCE(r.likes, 0) OR s.dislikes <> COALESCE(r.dislikes, 0) " +
+                "   OR s.comments <> COALESCE(c.comments, 0)";
+        String addMissing = "INSERT INTO post_stats (post_id, likes, dislikes, comments) " +
+                "SELECT p.id, COALESCE(r.likes, 0), COALESCE(r.dislikes, 0), COALESCE(c.comments, 0) " +
+                "FROM post p " +
+                "LEFT JOIN post_stats s ON s.post_id = p.id " +
+                "LEFT JOIN " + reactionCounts + " ON r.post_id = p.id " +
+                "LEFT JOIN " + commentCounts + " ON c.post_id = p.id " +
+                "WHERE s.post_id IS NULL AND (r.post_id IS NOT NULL OR c.post_id IS NOT NULL)";
+        String removeOrphans = "DELETE s FROM post_stats s LEFT JOIN post p ON p.id = s.post_id WHERE p.id IS NULL";
+        try (Connection conn = dataSource.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                int repaired = stmt.executeUpdate(fixExisting);
+                repaired += stmt.executeUpdate(addMissing);
+                repaired += stmt.executeUpdate(removeOrphans);
+                conn.commit();
+                return repaired;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Run {@link #reconcile()} in the background now and then periodically.
+     * The {@code forum.stats.reconcileMinutes} system property sets the period, 0 runs it only once.
+     */
+    public static synchronized void startReconciliation() {
+        if (reconciler != null) {
+            return;
+        }
+        long minutes = Long.getLong("forum.stats.reconcileMinutes", DEFAULT_RECONCILE_INTERVAL_MINUTES);
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "post-stats-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        PostStatsService service = new PostStatsService();
+        Runnable job = () -> {
+            try {
+                int repaired = service.reconcile();
+                if (repaired > 0) {
+                    System.out.println("⚠ Repaired post_stats counters for " + repaired + " posts");
+                }
+            } catch (SQLException e) {
+                System.err.println("❌ post_stats reconciliation failed: " + e.getMessage());
+            }
+        };
+        if (minutes > 0) {
+            reconciler.scheduleWithFixedDelay(job, 0, minutes, TimeUnit.MINUTES);
+        } else {
+            reconciler.execute(job);
+        }
+    }
+
+    /**
+     * Add deltas to a post's counters, creating them if needed.
+     * Meant to run on the caller's connection, inside the transaction that changed the counted rows.
+     * @param conn The connection of the caller's transaction
+     * @param postId The post ID
+     * @param likes Change of the like count
+     * @param dislikes Change of the dislike count
+     * @param comments Change of the comment count
+     * @throws SQLException if a database error occurs
+     */
+    static void adjust(Connection conn, int postId, int likes, int dislikes, int comments) throws SQLException {
+        if (likes == 0 && dislikes == 0 && comments == 0) {
+            return;
+        }
+        String query = "INSERT INTO post_stats (post_id, likes, dislikes, comments) " +
+                "VALUES (?, GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0)) " +
+                "ON DUPLICATE KEY UPDATE likes = GREATEST(likes + ?, 0), " +
+                "dislikes = GREATEST(dislikes + ?, 0), comments = GREATEST(comments + ?, 0)";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, postId);
+            stmt.setInt(2, likes);
+            stmt.setInt(3, dislikes);
+            stmt.setInt(4, comments);
+            stmt.setInt(5, likes);
+            stmt.setInt(6, dislikes);
+            stmt.setInt(7, comments);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Zero the reaction counters of a post, inside the caller's transaction
+     */
+    static void clearReactions(Connection conn, int postId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE post_stats SET likes = 0, dislikes = 0 WHERE post_id = ?")) {
+            stmt.setInt(1, postId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Drop the counters of a deleted post, inside the caller's transaction
+     */
+    static void deleteForPost(Connection conn, int postId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM post_stats WHERE post_id = ?")) {
+            stmt.setInt(1, postId);
+            stmt.executeUpdate();
+        }
+    }
+}
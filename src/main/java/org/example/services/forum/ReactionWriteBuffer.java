@@ -0,0 +1,534 @@
+package org.example.services.forum;
+
+import org.example.models.forum.PostReaction;
+import org.example.models.forum.PostStats;
+import org.example.models.forum.PostSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for reaction toggles.
+ * Repeated toggles of the same (post, user) are coalesced in memory and only the last value
+ * is written, in one multi-row transaction per flush. Flushes run on a timer, when the buffer
+ * reaches its size threshold and at shutdown. Every toggle is first appended to a local journal
+ * that is replayed at startup, so a crash does not lose buffered reactions.
+ *
+ * The journal line is appended under the buffer lock but forced to disk after it is released,
+ * and toggles recorded at the same time share one fsync (group commit). {@link #record} returns
+ * only once its line is on disk, so the durability window is the toggles whose {@code record}
+ * call has not returned yet: those may be lost on a crash, any that returned are not.
+ *
+ * Settings (system properties): {@code forum.reactions.flushIntervalMs} (500),
+ * {@code forum.reactions.batchSize} (256), {@code forum.reactions.journal}
+ * (~/.forum/reaction-journal.log).
+ */
+public class ReactionWriteBuffer {
+    private static volatile ReactionWriteBuffer instance;
+
+    private final PostReactionService reactionService = new PostReactionService();
+    private final PostStatsService statsService = new PostStatsService();
+    private final int batchSize;
+    private final Path journalPath;
+    private final ScheduledExecutorService flusher;
+
+    // Buffered toggles not yet handed to the database, and those being written by the running flush
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    private final Map<Long, Entry> inFlight = new LinkedHashMap<>();
+    private FileChannel journal;
+    private boolean flushScheduled = false;
+    // Lines appended to the journal so far, and how many of them are known to be on disk
+    private long journaled = 0;
+    private final Object syncLock = new Object();
+    private long synced = 0;
+
+    /**
+     * A buffered reaction with the value the database held before it (the baseline),
+     * which lets counts be adjusted optimistically
+     */
+    private static final class Entry {
+        final int postId;
+        final int userId;
+        final Boolean baseline;
+        boolean isLike;
+
+        Entry(int postId, int userId, Boolean baseline, boolean isLike) {
+            this.postId = postId;
+            this.userId = userId;
+            this.baseline = baseline;
+            this.isLike = isLike;
+        }
+
+        int likeDelta() {
+            return (isLike ? 1 : 0) - (Boolean.TRUE.equals(baseline) ? 1 : 0);
+        }
+
+        int dislikeDelta() {
+            return (isLike ? 0 : 1) - (Boolean.FALSE.equals(baseline) ? 1 : 0);
+        }
+    }
+
+    private ReactionWriteBuffer() {
+        long flushIntervalMs = Long.getLong("forum.reactions.flushIntervalMs", 500);
+        this.batchSize = Math.max(1, Integer.getInteger("forum.reactions.batchSize", 256));
+        this.journalPath = Paths.get(System.getProperty("forum.reactions.journal",
+                Paths.get(System.getProperty("user.home"), ".forum", "reaction-journal.log").toString()));
+
+        replayJournal();
+        openJournal();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reaction-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "reaction-flush-on-exit"));
+        if (flushScheduled) {
+            // Write what the previous run left in the journal
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Get the buffer, replaying the journal of a previous run on first use
+     */
+    public static ReactionWriteBuffer getInstance() {
+        ReactionWriteBuffer buffer = instance;
+        if (buffer == null) {
+            synchronized (ReactionWriteBuffer.class) {
+                buffer = instance;
+                if (buffer == null) {
+                    buffer = new ReactionWriteBuffer();
+                    instance = buffer;
+                }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Buffer a reaction. It is journaled and forced to disk before this returns, and written by a later flush.
+     * @param postId The post ID
+     * @param userId The user ID
+     * @param isLike true for a like, false for a dislike
+     * @throws SQLException if the user's current reaction cannot be read
+     */
+    public void record(int postId, int userId, boolean isLike) throws SQLException {
+        long key = key(postId, userId);
+        Boolean baseline = null;
+        boolean known;
+        synchronized (this) {
+            known = pending.containsKey(key) || inFlight.containsKey(key);
+        }
+        if (!known) {
+            // Read outside the lock; re-checked below in case another toggle got there first
+            baseline = reactionService.getUserReaction(postId, userId);
+        }
+
+        boolean flushNow;
+        long line;
+        synchronized (this) {
+            Entry entry = pending.get(key);
+            if (entry != null) {
+                entry.isLike = isLike;
+            } else {
+                Entry writing = inFlight.get(key);
+                pending.put(key, new Entry(postId, userId, writing != null ? (Boolean) writing.isLike : baseline, isLike));
+            }
+            line = appendToJournal(postId, userId, isLike) ? ++journaled : 0;
+            flushNow = pending.size() >= batchSize && !flushScheduled;
+            if (flushNow) {
+                flushScheduled = true;
+            }
+        }
+        if (line > 0) {
+            syncJournal(line);
+        }
+        if (flushNow) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Counters of a post including reactions that are still buffered
+     * @param postId The post ID
+     * @return The optimistic counters
+     * @throws SQLException if a database error occurs
+     */
+    public PostStats stats(int postId) throws SQLException {
+        PostStats stats = statsService.read(postId);
+        int[] delta = pendingDelta(postId);
+        stats.setLikes(Math.max(0, stats.getLikes() + delta[0]));
+        stats.setDislikes(Math.max(0, stats.getDislikes() + delta[1]));
+        return stats;
+    }
+
+    /**
+     * Add still-buffered reactions to summaries read from the database
+     * @param summaries The summaries to adjust in place
+     * @return The same list
+     */
+    public List<PostSummary> applyPending(List<PostSummary> summaries) {
+        synchronized (this) {
+            if (pending.isEmpty() && inFlight.isEmpty()) {
+                return summaries;
+            }
+        }
+        for (PostSummary summary : summaries) {
+            int[] delta = pendingDelta(summary.getId());
+            if (delta[0] != 0 || delta[1] != 0) {
+                summary.setLikeCount(Math.max(0, summary.getLikeCount() + delta[0]));
+                summary.setDislikeCount(Math.max(0, summary.getDislikeCount() + delta[1]));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Write every buffered reaction to the database now
+     * @throws SQLException if the batch could not be written; the reactions stay buffered
+     */
+    public void flush() throws SQLException {
+        List<PostReaction> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty() || !inFlight.isEmpty()) {
+                return;
+            }
+            inFlight.putAll(pending);
+            pending.clear();
+            batch = new ArrayList<>(inFlight.size());
+            for (Entry entry : inFlight.values()) {
+                batch.add(new PostReaction(0, entry.postId, entry.userId, entry.isLike, null));
+            }
+        }
+
+        List<PostReaction> failed = new ArrayList<>();
+        SQLException error = null;
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<PostReaction> chunk = batch.subList(from, Math.min(batch.size(), from + batchSize));
+            try {
+                reactionService.applyReactions(chunk);
+                continue;
+            } catch (SQLException e) {
+                System.err.println("⚠ Reaction batch failed, writing rows one by one: " + e.getMessage());
+            }
+            // Find the rows that broke the batch instead of retrying it forever
+            for (PostReaction reaction : chunk) {
+                try {
+                    reactionService.toggleReaction(reaction.getPostId(), reaction.getUserId(), reaction.isLike());
+                } catch (SQLException rowError) {
+                    if (isPermanent(rowError)) {
+                        System.err.println("❌ Dropping reaction of user " + reaction.getUserId() + " on post "
+                                + reaction.getPostId() + ": " + rowError.getMessage());
+                    } else {
+                        failed.add(reaction);
+                        error = rowError;
+                    }
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (PostReaction reaction : failed) {
+                long key = key(reaction.getPostId(), reaction.getUserId());
+                Entry unwritten = inFlight.get(key);
+                Entry newer = pending.get(key);
+                if (newer == null) {
+                    pending.put(key, unwritten);
+                } else {
+                    // The newer toggle assumed this one was written; its baseline is the older one's
+                    pending.put(key, new Entry(newer.postId, newer.userId, unwritten.baseline, newer.isLike));
+                }
+            }
+            inFlight.clear();
+            rewriteJournal();
+            // Wake up discard() calls waiting for this batch
+            notifyAll();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Forget buffered reactions on posts that are being deleted, so none is written after the delete.
+     * Waits for a running flush that writes reactions on these posts, then drops them from the
+     * buffer and the journal, including any the flush failed to write.
+     * @param postIds The IDs of the deleted posts
+     * @throws SQLException if interrupted while waiting for the running flush
+     */
+    public void discard(Collection<Integer> postIds) throws SQLException {
+        Set<Integer> ids = new HashSet<>(postIds);
+        synchronized (this) {
+            try {
+                while (inFlight.values().stream().anyMatch(entry -> ids.contains(entry.postId))) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a reaction flush", e);
+            }
+            if (pending.values().removeIf(entry -> ids.contains(entry.postId))) {
+                rewriteJournal();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("⚠ Reaction flush failed, will retry: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("⚠ Reaction flush failed, will retry: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        synchronized (this) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    // Journal content is already forced to disk
+                }
+            }
+        }
+    }
+
+    private synchronized int[] pendingDelta(int postId) {
+        int[] delta = new int[2];
+        // A pending entry's baseline is the in-flight value of the same key, so the deltas chain
+        for (Map<Long, Entry> entries : List.of(inFlight, pending)) {
+            for (Entry entry : entries.values()) {
+                if (entry.postId == postId) {
+                    delta[0] += entry.likeDelta();
+                    delta[1] += entry.dislikeDelta();
+                }
+            }
+        }
+        return delta;
+    }
+
+    private void replayJournal() {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        int replayed = 0;
+        try {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length != 3) {
+                    continue; // torn last line from a crash
+                }
+                try {
+                    int postId = Integer.parseInt(parts[0]);
+                    int userId = Integer.parseInt(parts[1]);
+                    boolean isLike = parts[2].equals("L");
+                    // Baselines are unknown here; they are only used for optimistic counts
+                    pending.put(key(postId, userId), new Entry(postId, userId, isLike, isLike));
+                    replayed++;
+                } catch (NumberFormatException e) {
+                    // Skip a corrupted line
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Could not read reaction journal " + journalPath + ": " + e.getMessage());
+            return;
+        }
+        if (replayed > 0) {
+            System.out.println("Replaying " + pending.size() + " buffered reactions from " + journalPath);
+            flushScheduled = true;
+        }
+    }
+
+    private void openJournal() {
+        try {
+            Files.createDirectories(journalPath.toAbsolutePath().getParent());
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("⚠ Reaction journal unavailable, buffered reactions are not crash-safe: " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Append a toggle to the journal without forcing it, see {@link #syncJournal}
+     * @return true if the line was written
+     */
+    private boolean appendToJournal(int postId, int userId, boolean isLike) {
+        if (journal == null) {
+            return false;
+        }
+        String line = postId + " " + userId + " " + (isLike ? "L" : "D") + "\n";
+        // An interrupt during a FileChannel call closes the channel, so it is held off until the line
+        // is written; one arriving mid-call anyway is survived by reopening the journal once
+        boolean interrupted = Thread.interrupted();
+        try {
+            for (boolean retry = false; ; retry = true) {
+                try {
+                    // A leading newline ends the torn line the interrupted write may have left
+                    ByteBuffer buffer = ByteBuffer.wrap((retry ? "\n" + line : line).getBytes(StandardCharsets.US_ASCII));
+                    while (buffer.hasRemaining()) {
+                        journal.write(buffer);
+                    }
+                    return true;
+                } catch (ClosedChannelException e) {
+                    interrupted |= Thread.interrupted();
+                    if (retry || !reopenJournal()) {
+                        System.err.println("⚠ Could not journal reaction: journal channel closed");
+                        return false;
+                    }
+                } catch (IOException e) {
+                    System.err.println("⚠ Could not journal reaction: " + e.getMessage());
+                    return false;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Force the journal to disk up to the given line, outside the buffer lock so other toggles can
+     * keep appending meanwhile. One fsync covers every line appended before it started, so callers
+     * that arrive while it runs usually find their line already synced.
+     * @param line The line number returned for the caller's append
+     */
+    private void syncJournal(long line) {
+        synchronized (syncLock) {
+            if (synced >= line) {
+                return;
+            }
+            // Same as appendToJournal: an interrupt during force() would close the channel
+            boolean interrupted = Thread.interrupted();
+            try {
+                for (boolean retry = false; ; retry = true) {
+                    long upTo;
+                    FileChannel channel;
+                    synchronized (this) {
+                        upTo = journaled;
+                        channel = journal;
+                    }
+                    if (channel == null) {
+                        return;
+                    }
+                    try {
+                        channel.force(false);
+                        synced = upTo;
+                        return;
+                    } catch (ClosedChannelException e) {
+                        interrupted |= Thread.interrupted();
+                        // Usually replaced by rewriteJournal, whose copy is forced before the swap;
+                        // forcing the channel now open covers the case where it was closed by an interrupt
+                        synchronized (this) {
+                            if (journal == channel && !channel.isOpen()) {
+                                reopenJournal();
+                            }
+                        }
+                        if (retry) {
+                            System.err.println("⚠ Could not sync reaction journal: journal channel closed");
+                            return;
+                        }
+                    } catch (IOException e) {
+                        System.err.println("⚠ Could not sync reaction journal: " + e.getMessage());
+                        return;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private boolean reopenJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // Already closed by the interrupt
+        }
+        openJournal();
+        return journal != null;
+    }
+
+    /**
+     * Replace the journal with what is still buffered or being written, so it does not grow forever
+     */
+    private void rewriteJournal() {
+        if (journal == null) {
+            return;
+        }
+        Path compacted = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        // Same as appendToJournal: do not let an interrupt close the channels half way through
+        boolean interrupted = Thread.interrupted();
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.US_ASCII)) {
+                // Pending entries are newer, so they come last and win on replay
+                for (Map<Long, Entry> entries : List.of(inFlight, pending)) {
+                    for (Entry entry : entries.values()) {
+                        writer.write(entry.postId + " " + entry.userId + " " + (entry.isLike ? "L" : "D") + "\n");
+                    }
+                }
+            }
+            try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            journal.close();
+            Files.move(compacted, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("⚠ Could not compact reaction journal: " + e.getMessage());
+            if (!journal.isOpen()) {
+                openJournal();
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static boolean isPermanent(SQLException e) {
+        // Class 23: integrity constraint violation, e.g. the post or user no longer exists
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+
+    private static long key(int postId, int userId) {
+        return ((long) postId << 32) | (userId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.services.forum;
+
+import org.example.models.forum.Post;
+import org.example.models.forum.SearchHits;
+import org.example.models.forum.Tag;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads every post and keeps those whose title, content or tags contain the query as a substring.
+ * No index to build or keep current, but each search costs a full read of the post table.
+ */
+public class ScanSearchEngine implements SearchEngine {
+    private final PostService postService = new PostService();
+    private final TagService tagService = new TagService();
+
+    @Override
+    public SearchHits search(String query, int offset, int limit) throws SQLException {
+        String searchTerm = query.trim().toLowerCase();
+        List<Integer> filteredPostIds = new ArrayList<>();
+        for (Post post : postService.readAll()) {
+            boolean matches = post.getTitle().toLowerCase().contains(searchTerm)
+                    || post.getContent().toLowerCase().contains(searchTerm);
+            if (!matches) {
+                try {
+                    for (Tag tag : tagService.getTagsForPost(post.getId())) {
+                        if (tag.getName().toLowerCase().contains(searchTerm)) {
+                            matches = true;
+                            break;
+                        }
+                    }
+                } catch (SQLException e) {
+                    System.out.println("Error fetching tags for post " + post.getId() + ": " + e.getMessage());
+                }
+            }
+            if (matches) {
+                filteredPostIds.add(post.getId());
+            }
+        }
+        int from = Math.min(offset, filteredPostIds.size());
+        int to = Math.min(offset + limit, filteredPostIds.size());
+        return new SearchHits(new ArrayList<>(filteredPostIds.subList(from, to)), filteredPostIds.size());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.services.forum;
+
+import org.example.models.forum.SearchHits;
+
+import java.sql.SQLException;
+
+/**
+ * Full-text search over forum posts (title, content and tag names).
+ * The implementation is chosen with the {@code forum.search.engine} system property:
+ * {@code local} (default) searches the in-process {@link LocalSearchIndex}, {@code mysql} uses
+ * MySQL FULLTEXT indexes so clients need not hold the whole corpus, and {@code scan} is the
+ * unindexed substring scan.
+ */
+public interface SearchEngine {
+
+    /**
+     * @param query The text typed by the user
+     * @param offset Number of results to skip
+     * @param limit Maximum number of results to return
+     * @return One page of post IDs, best match first
+     * @throws SQLException if a database error occurs
+     */
+    SearchHits search(String query, int offset, int limit) throws SQLException;
+
+    /**
+     * Prepare the engine at application startup; may return before it is ready
+     */
+    default void start() {}
+
+    /**
+     * @return The engine named by {@code forum.search.engine}
+     */
+    static SearchEngine configured() {
+        return forName(System.getProperty("forum.search.engine", "local"));
+    }
+
+    static SearchEngine forName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "mysql":
+                return new MysqlFulltextSearchEngine();
+            case "scan":
+                return new ScanSearchEngine();
+            case "local":
+                return new LocalSearchEngine();
+            default:
+                System.err.println("⚠ Unknown forum.search.engine '" + name + "', using the local index");
+                return new LocalSearchEngine();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.services.forum;
+
+import org.example.models.forum.Tag;
+import org.example.utils.IntObjectMap;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Process-wide copy of the tag table and of every post's tag links.
+ * Loaded once at startup with {@link #load()}, then kept current by {@link TagService} and
+ * {@link PostService} as they write. Tags are indexed by id and by case-insensitive name; the tag
+ * ids of a post are kept as a sorted {@code int[]}.
+ *
+ * Until it is loaded (or if loading failed) every lookup misses and the services query MySQL.
+ * Changes made by other processes are only seen for posts the cache does not know yet.
+ */
+public final class TagCache {
+    private static final TagCache INSTANCE = new TagCache();
+    private static final int[] NO_TAGS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntObjectMap<Tag> tagsById = new IntObjectMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private final IntObjectMap<int[]> tagIdsByPost = new IntObjectMap<>();
+    private volatile boolean loaded = false;
+
+    private TagCache() {}
+
+    public static TagCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Read all tags and post_tag links, replacing the current content
+     * @throws SQLException if a database error occurs; the cache then stays unloaded
+     */
+    public void load() throws SQLException {
+        IntObjectMap<Tag> tags = new IntObjectMap<>();
+        IntObjectMap<int[]> links = new IntObjectMap<>();
+        try (Connection conn = dataSource.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT id, name FROM tag")) {
+                while (rs.next()) {
+                    tags.put(rs.getInt("id"), new Tag(rs.getInt("id"), rs.getString("name")));
+                }
+            }
+            // Posts without tags come back once with a NULL tag_id, so they are known too
+            String query = "SELECT p.id, pt.tag_id FROM post p LEFT JOIN post_tag pt ON pt.post_id = p.id " +
+                           "ORDER BY p.id, pt.tag_id";
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                boolean first = true;
+                int postId = 0;
+                int[] ids = new int[8];
+                int count = 0;
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (!first && id != postId) {
+                        links.put(postId, count == 0 ? NO_TAGS : Arrays.copyOf(ids, count));
+                        count = 0;
+                    }
+                    first = false;
+                    postId = id;
+                    int tagId = rs.getInt(2);
+                    if (!rs.wasNull() && (count == 0 || ids[count - 1] != tagId)) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = tagId;
+                    }
+                }
+                if (!first) {
+                    links.put(postId, count == 0 ? NO_TAGS : Arrays.copyOf(ids, count));
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            tagsById.clear();
+            idsByName.clear();
+            tags.forEach((id, tag) -> {
+                tagsById.put(id, tag);
+                idsByName.put(tag.getName().toLowerCase(), id);
+            });
+            tagIdsByPost.clear();
+            links.forEach(tagIdsByPost::put);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("✅ Tag cache loaded: " + tags.size() + " tags, " + links.size() + " posts");
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return A copy of the tag, or null if it is unknown
+     */
+    public Tag get(int id) {
+        lock.readLock().lock();
+        try {
+            return copy(tagsById.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return A copy of the tag with this name (ignoring case), or null if it is unknown
+     */
+    public Tag findByName(String name) {
+        lock.readLock().lock();
+        try {
+            Integer id = idsByName.get(name.trim().toLowerCase());
+            return id == null ? null : copy(tagsById.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Copies of all tags sorted by name, or null if the cache is not loaded
+     */
+    public List<Tag> all() {
+        if (!loaded) {
+            return null;
+        }
+        List<Tag> tags = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            tagsById.forEach((id, tag) -> tags.add(copy(tag)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        tags.sort(Comparator.comparing(Tag::getName));
+        return tags;
+    }
+
+    /**
+     * @return The sorted tag ids of a post, or null if the post is unknown. The array is shared: do not modify it.
+     */
+    public int[] tagIdsForPost(int postId) {
+        lock.readLock().lock();
+        try {
+            return tagIdsByPost.get(postId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Copies of the tags of a post ordered by id, or null if the post is unknown
+     */
+    public List<Tag> tagsForPost(int postId) {
+        lock.readLock().lock();
+        try {
+            int[] ids = tagIdsByPost.get(postId);
+            if (ids == null) {
+                return null;
+            }
+            List<Tag> tags = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Tag tag = tagsById.get(id);
+                if (tag != null) {
+                    tags.add(copy(tag));
+                }
+            }
+            return tags;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or rename a tag
+     */
+    void put(Tag tag) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Tag previous = tagsById.put(tag.getId(), copy(tag));
+            if (previous != null) {
+                idsByName.remove(previous.getName().toLowerCase(), previous.getId());
+            }
+            idsByName.put(tag.getName().toLowerCase(), tag.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget a deleted tag and its links to posts
+     */
+    void removeTag(int tagId) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Tag previous = tagsById.remove(tagId);
+            if (previous != null) {
+                idsByName.remove(previous.getName().toLowerCase(), tagId);
+            }
+            List<Integer> affected = new ArrayList<>();
+            tagIdsByPost.forEach((postId, ids) -> {
+                if (Arrays.binarySearch(ids, tagId) >= 0) {
+                    affected.add(postId);
+                }
+            });
+            for (int postId : affected) {
+                tagIdsByPost.put(postId, without(tagIdsByPost.get(postId), tagId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the tag ids of a post, e.g. after reading them from the database
+     */
+    void setPostTags(int postId, Collection<Tag> tags) {
+        if (!loaded) {
+            return;
+        }
+        int[] ids = new int[tags.size()];
+        int count = 0;
+        for (Tag tag : tags) {
+            ids[count++] = tag.getId();
+        }
+        Arrays.sort(ids);
+        lock.writeLock().lock();
+        try {
+            tagIdsByPost.put(postId, count == 0 ? NO_TAGS : ids);
+            for (Tag tag : tags) {
+                if (!tagsById.containsKey(tag.getId())) {
+                    tagsById.put(tag.getId(), copy(tag));
+                    idsByName.put(tag.getName().toLowerCase(), tag.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add links from a post to tags already in the cache
+     */
+    void link(int postId, int... tagIds) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int[] ids = tagIdsByPost.get(postId);
+            if (ids == null) {
+                ids = NO_TAGS;
+            }
+            for (int tagId : tagIds) {
+                if (Arrays.binarySearch(ids, tagId) < 0) {
+                    int[] grown = Arrays.copyOf(ids, ids.length + 1);
+                    grown[ids.length] = tagId;
+                    Arrays.sort(grown);
+                    ids = grown;
+                }
+            }
+            tagIdsByPost.put(postId, ids);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void unlink(int postId, int tagId) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int[] ids = tagIdsByPost.get(postId);
+            if (ids != null) {
+                tagIdsByPost.put(postId, without(ids, tagId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget the links of deleted posts
+     */
+    void removePosts(Collection<Integer> postIds) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int postId : postIds) {
+                tagIdsByPost.remove(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int[] without(int[] ids, int tagId) {
+        int index = Arrays.binarySearch(ids, tagId);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return NO_TAGS;
+        }
+        int[] shrunk = new int[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, index);
+        System.arraycopy(ids, index + 1, shrunk, index, ids.length - index - 1);
+        return shrunk;
+    }
+
+    private static Tag copy(Tag tag) {
+        return tag == null ? null : new Tag(tag.getId(), tag.getName());
+    }
+}
@@ -5,7 +5,12 @@ import utils.dataSource;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TagService {
     public void create(Tag tag) throws SQLException {
@@ -22,6 +27,8 @@ public class TagService {
             rs = stmt.getGeneratedKeys();
             if (rs.next()) {
                 tag.setId(rs.getInt(1));
+                TagCache.getInstance().put(tag);
+                TypeaheadIndex.getInstance().indexTag(tag);
             }
         } finally {
             if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
@@ -31,6 +38,10 @@ public class TagService {
     }
 
     public Tag read(int id) throws SQLException {
+        Tag cached = TagCache.getInstance().get(id);
+        if (cached != null) {
+            return cached;
+        }
         String query = "SELECT * FROM tag WHERE id = ?";
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -55,6 +66,10 @@ public class TagService {
     }
 
     public List<Tag> readAll() throws SQLException {
+        List<Tag> cached = TagCache.getInstance().all();
+        if (cached != null) {
+            return cached;
+        }
         List<Tag> tags = new ArrayList<>();
         String query = "SELECT * FROM tag ORDER BY name ASC";
         Connection conn = null;
@@ -88,6 +103,8 @@ public class TagService {
             stmt.setString(1, tag.getName());
             stmt.setInt(2, tag.getId());
             stmt.executeUpdate();
+            TagCache.getInstance().put(tag);
+            TypeaheadIndex.getInstance().indexTag(tag);
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
@@ -103,6 +120,8 @@ public class TagService {
             stmt = conn.prepareStatement(query);
             stmt.setInt(1, id);
             stmt.executeUpdate();
+            TagCache.getInstance().removeTag(id);
+            TypeaheadIndex.getInstance().removeTag(id);
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
@@ -119,12 +138,138 @@ public class TagService {
             stmt.setInt(1, postId);
             stmt.setInt(2, tagId);
             stmt.executeUpdate();
+            TagCache.getInstance().link(postId, tagId);
+            Tag tag = read(tagId);
+            if (tag != null) {
+                LocalSearchIndex.getInstance().addTags(postId, List.of(tag.getName()));
+                TypeaheadIndex.getInstance().tagsLinked(List.of(tag));
+            }
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
         }
     }
 
+    /**
+     * Attach tags to a post by name, creating the ones that do not exist yet.
+     * Runs in one transaction: one query resolves existing tags, one multi-row insert creates
+     * the missing ones and one multi-row insert links them all to the post.
+     * @param postId The post ID
+     * @param names Tag names; blanks are skipped and names differing only by case are merged
+     * @return The linked tags
+     * @throws SQLException if a database error occurs; nothing is written in that case
+     */
+    public List<Tag> upsertAndLink(int postId, Collection<String> names) throws SQLException {
+        Map<String, String> wanted = new LinkedHashMap<>();
+        for (String name : names) {
+            String trimmed = name == null ? "" : name.trim();
+            if (!trimmed.isEmpty()) {
+                wanted.putIfAbsent(trimmed.toLowerCase(), trimmed);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Connection conn = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            
+            // Names known to the tag cache need no lookup
+            Map<String, Tag> found = new HashMap<>();
+            List<String> unknown = new ArrayList<>();
+            for (Map.Entry<String, String> name : wanted.entrySet()) {
+                Tag cached = TagCache.getInstance().findByName(name.getKey());
+                if (cached != null) {
+                    found.put(name.getKey(), cached);
+                } else {
+                    unknown.add(name.getValue());
+                }
+            }
+            if (!unknown.isEmpty()) {
+                found.putAll(findByNames(conn, unknown));
+            }
+            List<String> missing = new ArrayList<>();
+            for (Map.Entry<String, String> name : wanted.entrySet()) {
+                if (!found.containsKey(name.getKey())) {
+                    missing.add(name.getValue());
+                }
+            }
+            if (!missing.isEmpty()) {
+                // IGNORE: a concurrent post may create the same tag; the unique name keeps one row
+                String insert = "INSERT IGNORE INTO tag (name) VALUES " + String.join(",", Collections.nCopies(missing.size(), "(?)"));
+                try (PreparedStatement stmt = conn.prepareStatement(insert)) {
+                    for (int i = 0; i < missing.size(); i++) {
+                        stmt.setString(i + 1, missing.get(i));
+                    }
+                    stmt.executeUpdate();
+                }
+                found.putAll(findByNames(conn, missing));
+            }
+            
+            List<Tag> tags = new ArrayList<>();
+            for (String key : wanted.keySet()) {
+                Tag tag = found.get(key);
+                if (tag != null) {
+                    tags.add(tag);
+                }
+            }
+            if (!tags.isEmpty()) {
+                String link = "INSERT IGNORE INTO post_tag (post_id, tag_id) VALUES " + String.join(",", Collections.nCopies(tags.size(), "(?, ?)"));
+                try (PreparedStatement stmt = conn.prepareStatement(link)) {
+                    int index = 1;
+                    for (Tag tag : tags) {
+                        stmt.setInt(index++, postId);
+                        stmt.setInt(index++, tag.getId());
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+            conn.commit();
+            
+            int[] tagIds = new int[tags.size()];
+            for (int i = 0; i < tags.size(); i++) {
+                TagCache.getInstance().put(tags.get(i));
+                tagIds[i] = tags.get(i).getId();
+            }
+            TagCache.getInstance().link(postId, tagIds);
+            List<String> linkedNames = new ArrayList<>();
+            for (Tag tag : tags) {
+                linkedNames.add(tag.getName());
+            }
+            LocalSearchIndex.getInstance().addTags(postId, linkedNames);
+            TypeaheadIndex.getInstance().tagsLinked(tags);
+            return tags;
+        } catch (SQLException e) {
+            if (conn != null) conn.rollback();
+            throw e;
+        } finally {
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    /**
+     * @return The tags with the given names, keyed by lower-case name
+     */
+    private Map<String, Tag> findByNames(Connection conn, Collection<String> names) throws SQLException {
+        Map<String, Tag> tags = new HashMap<>();
+        String query = "SELECT id, name FROM tag WHERE name IN (" + String.join(",", Collections.nCopies(names.size(), "?")) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            for (String name : names) {
+                stmt.setString(index++, name);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Tag tag = new Tag(rs.getInt("id"), rs.getString("name"));
+                    tags.put(tag.getName().toLowerCase(), tag);
+                }
+            }
+        }
+        return tags;
+    }
+
     public void removeTagFromPost(int postId, int tagId) throws SQLException {
         String query = "DELETE FROM post_tag WHERE post_id = ? AND tag_id = ?";
         Connection conn = null;
@@ -135,6 +280,11 @@ public class TagService {
             stmt.setInt(1, postId);
             stmt.setInt(2, tagId);
             stmt.executeUpdate();
+            TagCache.getInstance().unlink(postId, tagId);
+            Tag tag = read(tagId);
+            if (tag != null) {
+                LocalSearchIndex.getInstance().removeTags(postId, List.of(tag.getName()));
+            }
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
             if (conn != null) dataSource.getInstance().releaseConnection(conn);
@@ -142,8 +292,12 @@ public class TagService {
     }
 
     public List<Tag> getTagsForPost(int postId) throws SQLException {
+        List<Tag> cached = TagCache.getInstance().tagsForPost(postId);
+        if (cached != null) {
+            return cached;
+        }
         List<Tag> tags = new ArrayList<>();
-        String query = "SELECT t.* FROM tag t JOIN post_tag pt ON t.id = pt.tag_id WHERE pt.post_id = ?";
+        String query = "SELECT t.* FROM tag t JOIN post_tag pt ON t.id = pt.tag_id WHERE pt.post_id = ? ORDER BY t.id";
         Connection conn = null;
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -158,6 +312,8 @@ public class TagService {
                     rs.getString("name")
                 ));
             }
+            // A post created by another client: remember it for the next call
+            TagCache.getInstance().setPostTags(postId, tags);
             return tags;
         } finally {
             if (rs != null) try { rs.close(); } catch (SQLException e) { /* ignore */ }
@@ -180,6 +336,8 @@ public class TagService {
             stmt = conn.prepareStatement(query);
             stmt.setInt(1, postId);
             int count = stmt.executeUpdate();
+            TagCache.getInstance().setPostTags(postId, Collections.emptyList());
+            LocalSearchIndex.getInstance().removeTags(postId, null);
             System.out.println("Removed " + count + " tag associations for post " + postId);
         } finally {
             if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
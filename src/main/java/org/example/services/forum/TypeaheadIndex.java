@@ -0,0 +1,274 @@
+package org.example.services.forum;
+
+import org.example.models.forum.Tag;
+import org.example.utils.IntObjectMap;
+import org.example.utils.RadixTrie;
+import org.example.utils.SearchTokenizer;
+import utils.dataSource;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-as-you-type suggestions: post titles and tag names in a {@link RadixTrie}.
+ * Every word of a title or tag is a key (folded like search terms, so "donn" finds
+ * "Base de données"); tags come first, most used first, then posts, newest first.
+ *
+ * Built in the background by {@link #load()}, then kept current by {@link PostService} and
+ * {@link TagService}. Lookups only touch memory.
+ */
+public final class TypeaheadIndex {
+    private static final TypeaheadIndex INSTANCE = new TypeaheadIndex();
+    // Keys are cut after this many characters; longer prefixes are rarely typed
+    private static final int MAX_KEY_LENGTH = 32;
+    // Tags outrank every post, whose weight is their (increasing) id
+    private static final long TAG_WEIGHT = 1L << 40;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTrie<Suggestion> trie = new RadixTrie<>();
+    private final IntObjectMap<String> postTitles = new IntObjectMap<>();
+    private final IntObjectMap<String> tagNames = new IntObjectMap<>();
+    private final IntObjectMap<int[]> tagUsage = new IntObjectMap<>();
+    // Posts changed while load() runs; their rows from the load query are older and skipped
+    private Set<Integer> touchedDuringLoad;
+
+    /**
+     * One suggestion: a post (selecting it opens the post) or a tag (selecting it searches for it)
+     */
+    public static final class Suggestion {
+        private final boolean tag;
+        private final int id;
+        private final String text;
+
+        Suggestion(boolean tag, int id, String text) {
+            this.tag = tag;
+            this.id = id;
+            this.text = text;
+        }
+
+        public boolean isTag() { return tag; }
+        public int getId() { return id; }
+        public String getText() { return text; }
+
+        // Identity is the post or tag, so a renamed one replaces its old entries
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Suggestion && ((Suggestion) other).tag == tag && ((Suggestion) other).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return tag ? ~id : id;
+        }
+    }
+
+    private TypeaheadIndex() {}
+
+    public static TypeaheadIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Read every post title and tag name
+     * @throws SQLException if a database error occurs
+     */
+    public void load() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long start = System.currentTimeMillis();
+        try (Connection conn = dataSource.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            String tags = "SELECT t.id, t.name, COUNT(pt.post_id) AS usage_count " +
+                          "FROM tag t LEFT JOIN post_tag pt ON pt.tag_id = t.id GROUP BY t.id, t.name";
+            try (ResultSet rs = stmt.executeQuery(tags)) {
+                lock.writeLock().lock();
+                try {
+                    while (rs.next()) {
+                        putTag(rs.getInt("id"), rs.getString("name"), rs.getInt("usage_count"));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id, title FROM post")) {
+                lock.writeLock().lock();
+                try {
+                    while (rs.next()) {
+                        int postId = rs.getInt("id");
+                        if (!touchedDuringLoad.contains(postId)) {
+                            putPost(postId, rs.getString("title"));
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        System.out.println("✅ Typeahead index loaded: " + trie.size() + " keys in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * @param text What the user has typed so far
+     * @param limit Maximum number of suggestions
+     * @return Matching tags and posts, best first
+     */
+    public List<Suggestion> suggest(String text, int limit) {
+        String prefix = SearchTokenizer.fold(text);
+        if (prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (prefix.length() > MAX_KEY_LENGTH) {
+            prefix = prefix.substring(0, MAX_KEY_LENGTH);
+        }
+        lock.readLock().lock();
+        try {
+            return trie.topK(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a new post or replace the title of an edited one
+     */
+    public void indexPost(int postId, String title) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(postId);
+            }
+            putPost(postId, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removePosts(Collection<Integer> postIds) {
+        lock.writeLock().lock();
+        try {
+            for (int postId : postIds) {
+                if (touchedDuringLoad != null) {
+                    touchedDuringLoad.add(postId);
+                }
+                String title = postTitles.remove(postId);
+                if (title != null) {
+                    Suggestion suggestion = new Suggestion(false, postId, title);
+                    for (String key : keys(title)) {
+                        trie.remove(key, suggestion);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a new tag or replace the name of a renamed one
+     */
+    public void indexTag(Tag tag) {
+        lock.writeLock().lock();
+        try {
+            int[] usage = tagUsage.get(tag.getId());
+            putTag(tag.getId(), tag.getName(), usage == null ? 0 : usage[0]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count new links to tags, moving them up in the suggestions
+     */
+    public void tagsLinked(Collection<Tag> tags) {
+        lock.writeLock().lock();
+        try {
+            for (Tag tag : tags) {
+                int[] usage = tagUsage.get(tag.getId());
+                putTag(tag.getId(), tag.getName(), usage == null ? 1 : usage[0] + 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeTag(int tagId) {
+        lock.writeLock().lock();
+        try {
+            String name = tagNames.remove(tagId);
+            tagUsage.remove(tagId);
+            if (name != null) {
+                Suggestion suggestion = new Suggestion(true, tagId, name);
+                for (String key : keys(name)) {
+                    trie.remove(key, suggestion);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putPost(int postId, String title) {
+        String previous = postTitles.put(postId, title);
+        Suggestion suggestion = new Suggestion(false, postId, title);
+        if (previous != null) {
+            for (String key : keys(previous)) {
+                trie.remove(key, suggestion);
+            }
+        }
+        for (String key : keys(title)) {
+            trie.put(key, suggestion, postId);
+        }
+    }
+
+    private void putTag(int tagId, String name, int usage) {
+        String previous = tagNames.put(tagId, name);
+        tagUsage.put(tagId, new int[] {usage});
+        Suggestion suggestion = new Suggestion(true, tagId, name);
+        if (previous != null && !previous.equals(name)) {
+            for (String key : keys(previous)) {
+                trie.remove(key, suggestion);
+            }
+        }
+        for (String key : keys(name)) {
+            trie.put(key, suggestion, TAG_WEIGHT + usage);
+        }
+    }
+
+    /**
+     * The folded text from the start of each word: "Base de données" gives
+     * "base de donnees" and "donnees" ("de" is a stop word and starts no key)
+     */
+    private static List<String> keys(String text) {
+        String folded = SearchTokenizer.fold(text);
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start < folded.length()) {
+            int end = folded.indexOf(' ', start);
+            if (end < 0) {
+                end = folded.length();
+            }
+            if (start == 0 || !SearchTokenizer.isStopWord(folded.substring(start, end))) {
+                keys.add(folded.substring(start, Math.min(folded.length(), start + MAX_KEY_LENGTH)));
+            }
+            start = end + 1;
+        }
+        return keys;
+    }
+}
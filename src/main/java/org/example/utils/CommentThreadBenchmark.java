@@ -0,0 +1,154 @@
+package org.example.utils;
+
+import org.example.models.forum.Comment;
+import org.example.models.forum.CommentTree;
+import org.example.models.forum.Post;
+import org.example.services.forum.CommentService;
+import org.example.services.forum.PostService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares reading a deep reply thread the way the controllers used to (every comment of the post,
+ * grouped by parent in Java) with {@link CommentService#readSubtree} and, for the ancestors of the
+ * deepest reply, with {@link CommentService#readAncestors}, on the configured database.
+ * Usage: CommentThreadBenchmark postId [depth]. A chain of {@code depth} replies, each with one
+ * sibling, is created under the post and removed with {@link CommentService#deleteSubtree} at the end.
+ */
+public class CommentThreadBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 20;
+    // Below MySQL's default cte_max_recursion_depth of 1000
+    private static final int DEFAULT_DEPTH = 200;
+
+    private interface Read {
+        int run() throws Exception;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: CommentThreadBenchmark postId [depth]");
+            System.exit(1);
+        }
+        int postId = Integer.parseInt(args[0]);
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEPTH;
+        CommentService commentService = new CommentService();
+        Integer rootId = null;
+        try {
+            utils.dataSource.getInstance();
+            utils.DatabaseUpdater.update();
+
+            Post post = new PostService().read(postId);
+            if (post == null) {
+                System.err.println("Post " + postId + " not found");
+                System.exit(1);
+            }
+
+            long start = System.nanoTime();
+            Integer parentId = null;
+            for (int level = 0; level <= depth; level++) {
+                Comment reply = newComment(post, parentId, "Benchmark reply, level " + level);
+                commentService.create(reply);
+                if (parentId != null) {
+                    commentService.create(newComment(post, parentId, "Benchmark sibling, level " + level));
+                } else {
+                    rootId = reply.getId();
+                }
+                parentId = reply.getId();
+            }
+            int deepestId = parentId;
+            System.out.printf("Created a thread %d levels deep in %.1f ms%n", depth, (System.nanoTime() - start) / 1e6);
+
+            final int root = rootId;
+            run("post read + Java grouping", () -> groupInJava(commentService.readByPostId(postId), root));
+            run("readSubtree + CommentTree", () -> CommentTree.build(commentService.readSubtree(root, depth)).size());
+            run("post read + Java ancestor walk", () -> ancestorsInJava(commentService.readByPostId(postId), deepestId));
+            run("readAncestors (path)", () -> commentService.readAncestors(deepestId).size());
+        } catch (Exception e) {
+            System.err.println("Error running benchmark: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (rootId != null) {
+                try {
+                    long start = System.nanoTime();
+                    int deleted = commentService.deleteSubtree(rootId);
+                    System.out.printf("%ndeleteSubtree removed %d comments in %.1f ms%n", deleted, (System.nanoTime() - start) / 1e6);
+                } catch (Exception e) {
+                    System.err.println("Error deleting the benchmark thread: " + e.getMessage());
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Comment newComment(Post post, Integer parentId, String content) {
+        Comment comment = new Comment();
+        comment.setPostId(post.getId());
+        comment.setOwnerId(post.getOwnerId());
+        comment.setParentId(parentId);
+        comment.setContent(content);
+        return comment;
+    }
+
+    private static void run(String name, Read read) throws Exception {
+        int rows = 0;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            rows = read.run();
+        }
+        long[] times = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            rows = read.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-32s %6d rows   median %8.2f ms   p95 %8.2f ms%n", name, rows,
+                times[MEASURED_RUNS / 2] / 1e6, times[(int) (MEASURED_RUNS * 0.95) - 1] / 1e6);
+    }
+
+    // The grouping the controllers did before CommentTree: children by parent, then a recursive flatten
+    private static int groupInJava(List<Comment> comments, int rootId) {
+        Map<Integer, List<Comment>> byParent = new HashMap<>();
+        Comment root = null;
+        for (Comment comment : comments) {
+            if (comment.getId() == rootId) {
+                root = comment;
+            } else if (comment.getParentId() != null) {
+                byParent.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>()).add(comment);
+            }
+        }
+        List<Comment> flattened = new ArrayList<>();
+        if (root != null) {
+            flatten(List.of(root), byParent, flattened);
+        }
+        return flattened.size();
+    }
+
+    private static void flatten(List<Comment> comments, Map<Integer, List<Comment>> byParent, List<Comment> result) {
+        for (Comment comment : comments) {
+            result.add(comment);
+            List<Comment> children = byParent.get(comment.getId());
+            if (children != null) {
+                flatten(children, byParent, result);
+            }
+        }
+    }
+
+    private static int ancestorsInJava(List<Comment> comments, int commentId) {
+        Map<Integer, Comment> byId = new HashMap<>();
+        for (Comment comment : comments) {
+            byId.put(comment.getId(), comment);
+        }
+        int count = 0;
+        Comment current = byId.get(commentId);
+        while (current != null && current.getParentId() != null) {
+            current = byId.get(current.getParentId());
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.utils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded cache of {@link ProfanityFilter} results, for text that is still filtered when shown
+ * (previews, drafts, text typed before it is saved).
+ *
+ * Entries are keyed by the text's hash and the word list generation, and keep the text itself so a
+ * hash collision is never mistaken for a hit. The table has a fixed number of slots and a new entry
+ * replaces whatever was in its slot, so the size never grows and no lock is taken. Changing the word
+ * list bumps the generation, which turns every older entry into a miss without clearing anything.
+ */
+public final class FilterResultCache {
+    // Longer texts are filtered every time rather than pinned in memory
+    private static final int MAX_CACHED_LENGTH = 8192;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final CacheStats stats = new CacheStats();
+
+    private static final class Entry {
+        final int hash;
+        final long generation;
+        final String text;
+        // The text itself when it is clean
+        final String masked;
+
+        Entry(int hash, long generation, String text, String masked) {
+            this.hash = hash;
+            this.generation = generation;
+            this.text = text;
+            this.masked = masked;
+        }
+    }
+
+    /**
+     * @param capacity Maximum number of entries, rounded up to a power of two
+     */
+    public FilterResultCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * @return The cached masked text for this word list generation, {@code text} itself if it was
+     *         clean, or null on a miss
+     */
+    String get(String text, long generation) {
+        int hash = text.hashCode();
+        Entry entry = slots.get(index(hash));
+        if (entry != null && entry.generation == generation && entry.hash == hash
+                && (entry.text == text || entry.text.equals(text))) {
+            stats.hit();
+            return entry.masked == entry.text ? text : entry.masked;
+        }
+        stats.miss();
+        return null;
+    }
+
+    void put(String text, long generation, String masked) {
+        if (text.length() > MAX_CACHED_LENGTH) {
+            return;
+        }
+        int hash = text.hashCode();
+        Entry previous = slots.getAndSet(index(hash), new Entry(hash, generation, text, masked));
+        if (previous != null && previous.generation == generation) {
+            stats.eviction();
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return Hits and misses of lookups; evictions are current entries replaced by newer ones
+     *         (stale entries overwritten are not counted)
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private int index(int hash) {
+        // Fold the high bits in so small tables still use the whole hash
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    @Override
+    public String toString() {
+        return "FilterResultCache{capacity=" + getCapacity()
+                + ", " + stats
+                + "}";
+    }
+}
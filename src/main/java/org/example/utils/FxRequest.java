@@ -0,0 +1,82 @@
+package org.example.utils;
+
+import javafx.application.Platform;
+import org.example.services.DbExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * One slot of background work whose result is shown in the UI, such as "details of the selected post".
+ * Submitting a new request cancels the previous one, and only the latest request's result
+ * reaches the callbacks, which always run on the JavaFX Application Thread.
+ * Slots made with {@link #forWrites()} never cancel: every write runs to completion and every
+ * failure is reported, only the success callback of a superseded write is skipped.
+ * Must be used from the JavaFX Application Thread.
+ */
+public class FxRequest {
+    private final boolean cancelsPrevious;
+    private CompletableFuture<?> pending;
+
+    /**
+     * A slot for reads, a new request cancels the one in flight: it is skipped if it has not
+     * started, otherwise left to finish and its result dropped
+     */
+    public FxRequest() {
+        this(true);
+    }
+
+    private FxRequest(boolean cancelsPrevious) {
+        this.cancelsPrevious = cancelsPrevious;
+    }
+
+    /**
+     * @return A slot for writes, which never cancels the work it tracks
+     */
+    public static FxRequest forWrites() {
+        return new FxRequest(false);
+    }
+
+    /**
+     * Start tracking a request, cancelling the one in flight unless this is a write slot
+     * @param future The background work
+     * @param onSuccess Called with the result on the FX thread
+     * @param onError Called with the unwrapped failure on the FX thread
+     */
+    public <T> void submit(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        cancel();
+        pending = future;
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            boolean latest = pending == future;
+            if (latest) {
+                pending = null;
+            }
+            if (error != null && (latest || !cancelsPrevious)) {
+                onError.accept(DbExecutor.unwrap(error));
+            } else if (error == null && latest) {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    /**
+     * Stop tracking the request in flight, its success callback will not run.
+     * A read is also cancelled, without interrupting a JDBC call already running; a write keeps running.
+     */
+    public void cancel() {
+        if (pending != null) {
+            CompletableFuture<?> stale = pending;
+            pending = null;
+            if (cancelsPrevious) {
+                stale.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return true if a request is in flight
+     */
+    public boolean isPending() {
+        return pending != null;
+    }
+}
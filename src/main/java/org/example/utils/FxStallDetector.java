@@ -0,0 +1,87 @@
+package org.example.utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watchdog that reports when the JavaFX Application Thread is blocked for longer than a frame.
+ * A background thread posts a heartbeat with {@link Platform#runLater}; if it has not run after
+ * the threshold, the FX thread's stack is sampled so the log shows which handler was blocking.
+ */
+public class FxStallDetector {
+    private static final long DEFAULT_THRESHOLD_MS = 16;
+    private static final long POLL_INTERVAL_MS = 4;
+    private static final long IDLE_INTERVAL_MS = 100;
+    private static final int MAX_FRAMES = 12;
+
+    private static volatile boolean started = false;
+
+    private final Thread fxThread;
+    private final long thresholdNanos;
+    private volatile long acknowledged;
+
+    private FxStallDetector(Thread fxThread, long thresholdMs) {
+        this.fxThread = fxThread;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Start the watchdog with the default 16 ms threshold; must be called on the FX thread.
+     * The {@code fx.stallThresholdMs} system property changes the threshold, 0 disables the detector.
+     */
+    public static synchronized void install() {
+        if (started || !Platform.isFxApplicationThread()) {
+            return;
+        }
+        long thresholdMs = Long.getLong("fx.stallThresholdMs", DEFAULT_THRESHOLD_MS);
+        if (thresholdMs <= 0) {
+            return;
+        }
+        started = true;
+        FxStallDetector detector = new FxStallDetector(Thread.currentThread(), thresholdMs);
+        Thread watchdog = new Thread(detector::watch, "fx-stall-detector");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                long sent = System.nanoTime();
+                Platform.runLater(() -> acknowledged = sent);
+
+                StackTraceElement[] stalledAt = null;
+                while (acknowledged != sent) {
+                    TimeUnit.MILLISECONDS.sleep(POLL_INTERVAL_MS);
+                    if (stalledAt == null && acknowledged != sent && System.nanoTime() - sent > thresholdNanos) {
+                        // Sample once, as soon as the threshold is crossed: that is the blocking call
+                        stalledAt = fxThread.getStackTrace();
+                    }
+                }
+                if (stalledAt != null) {
+                    report(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent), stalledAt);
+                }
+                TimeUnit.MILLISECONDS.sleep(IDLE_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            // FX toolkit shut down
+        }
+    }
+
+    private static void report(long blockedMs, StackTraceElement[] stack) {
+        StringBuilder message = new StringBuilder("⚠ FX thread blocked for ~")
+                .append(blockedMs).append(" ms at:");
+        int shown = 0;
+        for (StackTraceElement frame : stack) {
+            message.append("\n\tat ").append(frame);
+            if (++shown >= MAX_FRAMES) {
+                message.append("\n\t...");
+                break;
+            }
+        }
+        System.err.println(message);
+    }
+}
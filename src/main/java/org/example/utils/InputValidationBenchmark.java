@@ -0,0 +1,116 @@
+package org.example.utils;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-keystroke cost of the live form validation: a title, a tag list and a comment are typed one
+ * character at a time, and each intermediate text goes through what the text-change listeners run.
+ * Compares the former regex-based checks ({@code String.matches}, {@code split}) with
+ * {@link InputValidator}, in time and bytes allocated per keystroke.
+ */
+public class InputValidationBenchmark {
+    private static final String TEXT_PATTERN = "^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)]+$";
+    private static final String COMMENT_PATTERN = "^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)\\[\\]]+$";
+    private static final int ROUNDS = 10;
+    private static final int REPEATS = 200;
+
+    private static final String TITLE = "Comment configurer le pool de connexions MySQL pour JavaFX ?";
+    private static final String TAGS = "java, javafx, mysql, jdbc, performance, pool";
+    private static final String COMMENT = ("Merci pour la réponse ! J'ai essayé avec un pool de 10 connexions "
+            + "et le temps de réponse est passé de 300 ms à 40 ms (mesuré sur 1000 requêtes). ").repeat(4);
+
+    private static volatile boolean sink;
+
+    public static void main(String[] args) {
+        String[] titles = prefixes(TITLE);
+        String[] tags = prefixes(TAGS);
+        String[] comments = prefixes(COMMENT);
+        int keystrokes = titles.length + tags.length + comments.length;
+        System.out.println(keystrokes + " keystrokes per pass");
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long regexBytes = allocatedBytes();
+            long regexTime = System.nanoTime();
+            for (int r = 0; r < REPEATS; r++) {
+                for (String title : titles) {
+                    sink = title.matches(TEXT_PATTERN) && regexValidateText(title, 5, 100, TEXT_PATTERN);
+                }
+                for (String tagList : tags) {
+                    sink = regexValidateTags(tagList);
+                }
+                for (String comment : comments) {
+                    sink = comment.matches(COMMENT_PATTERN) && regexValidateText(comment, 2, 1000, COMMENT_PATTERN);
+                }
+            }
+            regexTime = System.nanoTime() - regexTime;
+            regexBytes = allocatedBytes() - regexBytes;
+
+            long scanBytes = allocatedBytes();
+            long scanTime = System.nanoTime();
+            for (int r = 0; r < REPEATS; r++) {
+                for (String title : titles) {
+                    sink = InputValidator.hasOnlyAllowedCharacters(title) && InputValidator.validateTitle(title).isValid();
+                }
+                for (String tagList : tags) {
+                    sink = InputValidator.validateTags(tagList).isValid();
+                }
+                for (String comment : comments) {
+                    sink = InputValidator.hasOnlyAllowedCharacters(comment)
+                            && InputValidator.validateCommentContent(comment).isValid();
+                }
+            }
+            scanTime = System.nanoTime() - scanTime;
+            scanBytes = allocatedBytes() - scanBytes;
+
+            long calls = (long) keystrokes * REPEATS;
+            System.out.printf("Round %2d: regex %7.0f ns %7d B/keystroke   scanner %5.0f ns %4d B/keystroke%n",
+                    round + 1, (double) regexTime / calls, regexBytes / calls,
+                    (double) scanTime / calls, scanBytes / calls);
+        }
+    }
+
+    private static String[] prefixes(String text) {
+        String[] prefixes = new String[text.length()];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = text.substring(0, i + 1);
+        }
+        return prefixes;
+    }
+
+    // The validation code InputValidator used before the scanners
+    private static boolean regexValidateText(String text, int min, int max, String pattern) {
+        if (text == null || text.trim().isEmpty()) {
+            return false;
+        }
+        text = text.trim();
+        return text.length() >= min && text.length() <= max && text.matches(pattern);
+    }
+
+    private static boolean regexValidateTags(String tagsString) {
+        if (tagsString == null || tagsString.trim().isEmpty()) {
+            return true;
+        }
+        String[] tags = tagsString.split(",");
+        if (tags.length > 10) {
+            return false;
+        }
+        for (String tag : tags) {
+            if (tag == null || tag.trim().isEmpty()) {
+                return false;
+            }
+            tag = tag.trim();
+            if (tag.length() < 2 || tag.length() > 20 || !tag.matches("^[a-zA-Z0-9_-]+$")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -2,157 +2,272 @@ package org.example.utils;
 
 /**
  * Classe utilitaire pour la validation des entrées utilisateur
+ *
+ * Les validations sont appelées à chaque frappe : elles parcourent le texte une seule fois,
+ * sans expression régulière ni copie, et renvoient des résultats partagés.
  */
 public class InputValidator {
 
+    private static final ValidationResult VALID = new ValidationResult(true, null);
+
+    private static final ValidationResult TITLE_EMPTY = invalid("Le titre ne peut pas être vide");
+    private static final ValidationResult TITLE_TOO_SHORT = invalid("Le titre doit contenir au moins 5 caractères");
+    private static final ValidationResult TITLE_TOO_LONG = invalid("Le titre ne peut pas dépasser 100 caractères");
+    private static final ValidationResult TITLE_BAD_CHARACTERS = invalid("Le titre contient des caractères non autorisés");
+
+    private static final ValidationResult CONTENT_EMPTY = invalid("Le contenu ne peut pas être vide");
+    private static final ValidationResult CONTENT_TOO_SHORT = invalid("Le contenu doit contenir au moins 10 caractères");
+    private static final ValidationResult CONTENT_TOO_LONG = invalid("Le contenu ne peut pas dépasser 5000 caractères");
+
+    private static final ValidationResult TAG_EMPTY = invalid("Le tag ne peut pas être vide");
+    private static final ValidationResult TAG_TOO_SHORT = invalid("Le tag doit contenir au moins 2 caractères");
+    private static final ValidationResult TAG_TOO_LONG = invalid("Le tag ne peut pas dépasser 20 caractères");
+    private static final ValidationResult TAG_BAD_CHARACTERS = invalid("Le tag ne peut contenir que des lettres, chiffres, tirets et underscores");
+    private static final ValidationResult TOO_MANY_TAGS = invalid("Le nombre maximum de tags est de 10");
+
+    private static final ValidationResult COMMENT_EMPTY = invalid("Le commentaire ne peut pas être vide");
+    private static final ValidationResult COMMENT_TOO_SHORT = invalid("Le commentaire doit contenir au moins 2 caractères");
+    private static final ValidationResult COMMENT_TOO_LONG = invalid("Le commentaire ne peut pas dépasser 1000 caractères");
+    private static final ValidationResult COMMENT_BAD_CHARACTERS = invalid("Le commentaire contient des caractères non autorisés");
+
+    private static final int MAX_TAGS = 10;
+
     /**
      * Valide le titre d'une publication
      * @param title Titre à valider
      * @return Résultat de validation avec message d'erreur si invalide
      */
     public static ValidationResult validateTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            return new ValidationResult(false, "Le titre ne peut pas être vide");
+        if (title == null) {
+            return TITLE_EMPTY;
+        }
+        int start = trimStart(title, 0, title.length());
+        int end = trimEnd(title, start, title.length());
+        int length = end - start;
+
+        if (length == 0) {
+            return TITLE_EMPTY;
         }
-        
-        title = title.trim();
-        
-        if (title.length() < 5) {
-            return new ValidationResult(false, "Le titre doit contenir au moins 5 caractères");
+        if (length < 5) {
+            return TITLE_TOO_SHORT;
         }
-        
-        if (title.length() > 100) {
-            return new ValidationResult(false, "Le titre ne peut pas dépasser 100 caractères");
+        if (length > 100) {
+            return TITLE_TOO_LONG;
         }
-        
-        if (!title.matches("^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)]+$")) {
-            return new ValidationResult(false, "Le titre contient des caractères non autorisés");
+        if (!hasOnlyAllowedCharacters(title, start, end)) {
+            return TITLE_BAD_CHARACTERS;
         }
-        
-        return new ValidationResult(true, null);
+        return VALID;
     }
-    
+
     /**
      * Valide le contenu d'une publication
      * @param content Contenu à valider
      * @return Résultat de validation avec message d'erreur si invalide
      */
     public static ValidationResult validatePostContent(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return new ValidationResult(false, "Le contenu ne peut pas être vide");
+        if (content == null) {
+            return CONTENT_EMPTY;
+        }
+        int start = trimStart(content, 0, content.length());
+        int length = trimEnd(content, start, content.length()) - start;
+
+        if (length == 0) {
+            return CONTENT_EMPTY;
         }
-        
-        content = content.trim();
-        
-        if (content.length() < 10) {
-            return new ValidationResult(false, "Le contenu doit contenir au moins 10 caractères");
+        if (length < 10) {
+            return CONTENT_TOO_SHORT;
         }
-        
-        if (content.length() > 5000) {
-            return new ValidationResult(false, "Le contenu ne peut pas dépasser 5000 caractères");
+        if (length > 5000) {
+            return CONTENT_TOO_LONG;
         }
-        
-        return new ValidationResult(true, null);
+        return VALID;
     }
-    
+
     /**
      * Valide un tag individuel
      * @param tag Tag à valider
      * @return Résultat de validation avec message d'erreur si invalide
      */
     public static ValidationResult validateTag(String tag) {
-        if (tag == null || tag.trim().isEmpty()) {
-            return new ValidationResult(false, "Le tag ne peut pas être vide");
-        }
-        
-        tag = tag.trim();
-        
-        if (tag.length() < 2) {
-            return new ValidationResult(false, "Le tag doit contenir au moins 2 caractères");
-        }
-        
-        if (tag.length() > 20) {
-            return new ValidationResult(false, "Le tag ne peut pas dépasser 20 caractères");
-        }
-        
-        if (!tag.matches("^[a-zA-Z0-9_-]+$")) {
-            return new ValidationResult(false, "Le tag ne peut contenir que des lettres, chiffres, tirets et underscores");
+        if (tag == null) {
+            return TAG_EMPTY;
         }
-        
-        return new ValidationResult(true, null);
+        return validateTag(tag, 0, tag.length());
     }
-    
+
     /**
-     * Valide une liste de tags séparés par des virgules
+     * Valide une liste de tags séparés par des virgules, sans découper la chaîne.
+     * Comme avec {@code split(",")}, les virgules finales sont ignorées ; un tag vide
+     * ailleurs est une erreur.
      * @param tagsString Chaîne de tags à valider
      * @return Résultat de validation avec message d'erreur si invalide
      */
     public static ValidationResult validateTags(String tagsString) {
-        if (tagsString == null || tagsString.trim().isEmpty()) {
-            return new ValidationResult(true, null); // Tags optionnels
-        }
-        
-        String[] tags = tagsString.split(",");
-        
-        if (tags.length > 10) {
-            return new ValidationResult(false, "Le nombre maximum de tags est de 10");
-        }
-        
-        for (String tag : tags) {
-            ValidationResult tagResult = validateTag(tag);
-            if (!tagResult.isValid()) {
-                return tagResult;
+        if (tagsString == null) {
+            return VALID; // Tags optionnels
+        }
+        int length = tagsString.length();
+        if (trimStart(tagsString, 0, length) == length) {
+            return VALID;
+        }
+
+        int count = 0;
+        // Tags vides rencontrés : une erreur seulement si un tag non vide les suit
+        int pendingEmpty = 0;
+        ValidationResult firstError = null;
+        int start = 0;
+        while (start <= length) {
+            int end = tagsString.indexOf(',', start);
+            if (end < 0) {
+                end = length;
             }
+            if (end == start) {
+                pendingEmpty++;
+            } else {
+                if (pendingEmpty > 0 && firstError == null) {
+                    firstError = TAG_EMPTY;
+                }
+                count += pendingEmpty + 1;
+                pendingEmpty = 0;
+                if (firstError == null) {
+                    ValidationResult tagResult = validateTag(tagsString, start, end);
+                    if (!tagResult.isValid()) {
+                        firstError = tagResult;
+                    }
+                }
+            }
+            start = end + 1;
+        }
+
+        // Le nombre de tags est vérifié avant le contenu de chacun
+        if (count > MAX_TAGS) {
+            return TOO_MANY_TAGS;
         }
-        
-        return new ValidationResult(true, null);
+        return firstError != null ? firstError : VALID;
     }
-    
+
     /**
      * Valide le contenu d'un commentaire
      * @param content Contenu du commentaire à valider
      * @return Résultat de validation avec message d'erreur si invalide
      */
     public static ValidationResult validateCommentContent(String content) {
-        if (content == null || content.trim().isEmpty()) {
-            return new ValidationResult(false, "Le commentaire ne peut pas être vide");
+        if (content == null) {
+            return COMMENT_EMPTY;
+        }
+        int start = trimStart(content, 0, content.length());
+        int end = trimEnd(content, start, content.length());
+        int length = end - start;
+
+        if (length == 0) {
+            return COMMENT_EMPTY;
         }
-        
-        content = content.trim();
-        
-        if (content.length() < 2) {
-            return new ValidationResult(false, "Le commentaire doit contenir au moins 2 caractères");
+        if (length < 2) {
+            return COMMENT_TOO_SHORT;
         }
-        
-        if (content.length() > 1000) {
-            return new ValidationResult(false, "Le commentaire ne peut pas dépasser 1000 caractères");
+        if (length > 1000) {
+            return COMMENT_TOO_LONG;
         }
-        
-        if (!content.matches("^[a-zA-Z0-9\\sÀ-ÿ\\.,\\?!;:'\"-_\\(\\)\\[\\]]+$")) {
-            return new ValidationResult(false, "Le commentaire contient des caractères non autorisés");
+        if (!hasOnlyAllowedCharacters(content, start, end)) {
+            return COMMENT_BAD_CHARACTERS;
         }
-        
-        return new ValidationResult(true, null);
+        return VALID;
     }
-    
+
+    /**
+     * Vérifie que le texte ne contient que des caractères autorisés dans un titre ou un commentaire,
+     * pour la vérification en temps réel du format
+     * @param text Texte saisi, non tronqué
+     * @return true si tous les caractères sont autorisés
+     */
+    public static boolean hasOnlyAllowedCharacters(CharSequence text) {
+        return hasOnlyAllowedCharacters(text, 0, text.length());
+    }
+
+    private static boolean hasOnlyAllowedCharacters(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isAllowedTextChar(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Les caractères de l'ancienne expression {@code [a-zA-Z0-9\sÀ-ÿ\.,\?!;:'"-_\(\)\[\]]}.
+     * Dans cette classe, {@code "-_} est un intervalle : de '"' à '_' sont acceptés, donc aussi
+     * # $ % & * + / < = > @ \ ^ ; conservé tel quel pour que les textes déjà acceptés le restent.
+     */
+    private static boolean isAllowedTextChar(char c) {
+        return (c >= '!' && c <= '_')
+                || (c >= 'a' && c <= 'z')
+                || (c >= 'À' && c <= 'ÿ')
+                || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static ValidationResult validateTag(String tags, int from, int to) {
+        int start = trimStart(tags, from, to);
+        int end = trimEnd(tags, start, to);
+        int length = end - start;
+
+        if (length == 0) {
+            return TAG_EMPTY;
+        }
+        if (length < 2) {
+            return TAG_TOO_SHORT;
+        }
+        if (length > 20) {
+            return TAG_TOO_LONG;
+        }
+        for (int i = start; i < end; i++) {
+            char c = tags.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '_' || c == '-';
+            if (!allowed) {
+                return TAG_BAD_CHARACTERS;
+            }
+        }
+        return VALID;
+    }
+
+    // Mêmes bornes que String.trim() : tout caractère <= ' ' est retiré
+    private static int trimStart(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start, int end) {
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static ValidationResult invalid(String errorMessage) {
+        return new ValidationResult(false, errorMessage);
+    }
+
     /**
      * Classe pour représenter le résultat d'une validation
      */
     public static class ValidationResult {
         private final boolean valid;
         private final String errorMessage;
-        
+
         public ValidationResult(boolean valid, String errorMessage) {
             this.valid = valid;
             this.errorMessage = errorMessage;
         }
-        
+
         public boolean isValid() {
             return valid;
         }
-        
+
         public String getErrorMessage() {
             return errorMessage;
         }
     }
-} 
\ No newline at end of file
+}
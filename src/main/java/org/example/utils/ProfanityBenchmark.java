@@ -0,0 +1,97 @@
+package org.example.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the Aho–Corasick {@link ProfanityMatcher} with the former single-regex filter
+ * ({@code \b(word1|word2|...)\b}) on generated comments, with a 10k-word list.
+ * Usage: ProfanityBenchmark [wordCount]
+ */
+public class ProfanityBenchmark {
+    private static final int TEXTS = 2_000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int wordCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < wordCount; i++) {
+            words.add(randomWord(random, 4 + random.nextInt(6)));
+        }
+
+        // Comments of ~60 words, one in ten containing a listed word
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < TEXTS; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 60; w++) {
+                text.append(randomWord(random, 2 + random.nextInt(8))).append(w % 12 == 11 ? ". " : " ");
+            }
+            if (i % 10 == 0) {
+                text.append(words.get(random.nextInt(words.size()))).append('!');
+            }
+            texts.add(text.toString());
+        }
+
+        long start = System.nanoTime();
+        Pattern pattern = buildRegex(words);
+        System.out.printf("Regex compiled in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        ProfanityMatcher matcher = ProfanityMatcher.build(words);
+        System.out.printf("Automaton built in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            int regexHits = 0;
+            int automatonHits = 0;
+            long regexTime = System.nanoTime();
+            for (String text : texts) {
+                if (!regexFilter(pattern, text).equals(text)) {
+                    regexHits++;
+                }
+            }
+            regexTime = System.nanoTime() - regexTime;
+            long automatonTime = System.nanoTime();
+            for (String text : texts) {
+                if (matcher.mask(text) != text) {
+                    automatonHits++;
+                }
+            }
+            automatonTime = System.nanoTime() - automatonTime;
+            System.out.printf("Round %2d: regex %8.2f µs/text (%d masked)   automaton %6.2f µs/text (%d masked)%n",
+                    round + 1, regexTime / 1e3 / TEXTS, regexHits, automatonTime / 1e3 / TEXTS, automatonHits);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    // The matching code ProfanityFilter used before the automaton
+    private static Pattern buildRegex(List<String> words) {
+        StringBuilder patternBuilder = new StringBuilder("\\b(");
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) {
+                patternBuilder.append("|");
+            }
+            patternBuilder.append(Pattern.quote(words.get(i)));
+        }
+        patternBuilder.append(")\\b");
+        return Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static String regexFilter(Pattern pattern, String input) {
+        Matcher matcher = pattern.matcher(input);
+        StringBuilder result = new StringBuilder(input);
+        while (matcher.find()) {
+            result.replace(matcher.start(), matcher.end(), "*".repeat(matcher.end() - matcher.start()));
+        }
+        return result.toString();
+    }
+}
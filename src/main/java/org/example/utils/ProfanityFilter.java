@@ -1,72 +1,103 @@
 package org.example.utils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
 
 /**
- * Utility class for filtering profanity in user-generated content
+ * Utility class for filtering profanity in user-generated content.
+ * Matching is done by an immutable {@link ProfanityMatcher}; changing the word list builds a new
+ * one and swaps it in, so filtering never waits for or sees a half-updated list.
+ * Texts and words both go through {@link ProfanityNormalizer} first, so "b@dw0rd", "b a d w o r d"
+ * or an accented or zero-width-spaced spelling still match, and are masked in the original text.
+ * Results are remembered in a {@link FilterResultCache} ({@code forum.profanity.cacheSize} entries),
+ * so text shown again and again is only filtered once per word list.
+ *
+ * Besides the built-in words and those added with {@link #addBadWord}, words can come from a
+ * text file (one per line, '#' starts a comment) that is reloaded whenever it changes,
+ * see {@link #watchWordList(Path)}.
+ *
+ * Every word list has a {@link #version()}, the same from one run to the next for the same words,
+ * so stored masked text can tell which list it was masked with.
  */
 public class ProfanityFilter {
-    
+
     // Common bad words list - this should be expanded in a real application
     private static final Set<String> BAD_WORDS = new HashSet<>(Arrays.asList(
-        "badword", "profanity", "offensive", "explicit", "inappropriate", 
-        "vulgar", "obscene", "curse", "swear", "rude"
+        "badword", "profanity", "offensive", "explicit", "inappropriate",
+        "vulgar", "obscene", "curse", "swear", "rude",
+        "damn", "hell", "crap", "shit", "fuck", "ass", "bitch"
     ));
-    
-    // Cache the patterns for better performance
-    private static Pattern wordPattern;
-    
-    static {
-        // Create a regex pattern that matches whole words only
-        StringBuilder patternBuilder = new StringBuilder("\\b(");
-        int count = 0;
-        for (String word : BAD_WORDS) {
-            if (count > 0) {
-                patternBuilder.append("|");
-            }
-            patternBuilder.append(Pattern.quote(word));
-            count++;
+
+    // Words read from the watched word list file
+    private static Set<String> fileWords = new HashSet<>();
+
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+
+    /**
+     * A matcher with the version of the words it was built from, published together so filtering
+     * never pairs the matcher of one list with the version of another
+     */
+    private static final class WordList {
+        final ProfanityMatcher matcher;
+        // Checksum of the words, stable across runs
+        final int version;
+        // Incremented on every rebuild, keys the result cache
+        final long generation;
+
+        WordList(ProfanityMatcher matcher, int version, long generation) {
+            this.matcher = matcher;
+            this.version = version;
+            this.generation = generation;
         }
-        patternBuilder.append(")\\b");
-        wordPattern = Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE);
     }
-    
+
+    private static volatile WordList wordList;
+
+    private static final FilterResultCache cache = new FilterResultCache(
+            Integer.getInteger("forum.profanity.cacheSize", DEFAULT_CACHE_SIZE));
+
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    static {
+        rebuildMatcher();
+    }
+
+    private static Thread watcher;
+
     /**
      * Filter potentially offensive words from a string, replacing them with asterisks
      * @param input The string to filter
-     * @return The filtered string with bad words replaced by asterisks
+     * @return The filtered string with bad words replaced by asterisks;
+     *         the input itself when it contains none
      */
     public static String filter(String input) {
         if (input == null || input.isEmpty()) {
             return input;
         }
-        
-        Matcher matcher = wordPattern.matcher(input);
-        StringBuilder result = new StringBuilder(input);
-        
-        // Track offset as we replace text
-        int offset = 0;
-        
-        while (matcher.find()) {
-            int start = matcher.start() + offset;
-            int end = matcher.end() + offset;
-            String badWord = result.substring(start, end);
-            
-            // Replace with asterisks of same length
-            String replacement = "*".repeat(badWord.length());
-            
-            result.replace(start, end, replacement);
-            
-            // No offset change since replacement is same length
-        }
-        
-        return result.toString();
+        WordList current = wordList;
+        String masked = cache.get(input, current.generation);
+        if (masked == null) {
+            masked = mask(current.matcher, input);
+            cache.put(input, current.generation, masked);
+        }
+        return masked;
     }
-    
+
     /**
      * Check if a string contains any bad words
      * @param input The string to check
@@ -76,53 +107,170 @@ public class ProfanityFilter {
         if (input == null || input.isEmpty()) {
             return false;
         }
-        
-        Matcher matcher = wordPattern.matcher(input);
-        return matcher.find();
+        return filter(input) != input;
+    }
+
+    /**
+     * @return Lookup counts of the filter result cache
+     */
+    public static FilterResultCache cache() {
+        return cache;
     }
-    
+
+    /**
+     * @return A checksum of the current word list: equal versions mask text the same way
+     */
+    public static int version() {
+        return wordList.version;
+    }
+
+    /**
+     * Run a task after every change of the word list, on the thread that changed it
+     * @param listener Should return quickly, e.g. by scheduling the actual work
+     */
+    public static void addWordListListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Add a custom bad word to the filter
      * @param word The word to add to the filter
      */
     public static void addBadWord(String word) {
         if (word != null && !word.isEmpty()) {
-            BAD_WORDS.add(word.toLowerCase());
-            // Rebuild the pattern
-            rebuildPattern();
+            addBadWords(new String[] {word});
         }
     }
-    
+
     /**
      * Add multiple bad words to the filter
      * @param words The words to add to the filter
      */
-    public static void addBadWords(String[] words) {
+    public static synchronized void addBadWords(String[] words) {
         if (words != null && words.length > 0) {
+            boolean changed = false;
             for (String word : words) {
                 if (word != null && !word.isEmpty()) {
-                    BAD_WORDS.add(word.toLowerCase());
+                    changed |= BAD_WORDS.add(word.toLowerCase());
                 }
             }
-            // Rebuild the pattern once after adding all words
-            rebuildPattern();
+            // Rebuild the matcher once after adding all words
+            if (changed) {
+                rebuildMatcher();
+            }
+        }
+    }
+
+    /**
+     * Replace the words read from a word list file
+     * @param file One word per line; blank lines and lines starting with '#' are skipped
+     * @throws IOException if the file cannot be read; the current words are kept
+     */
+    public static void loadWordList(Path file) throws IOException {
+        Set<String> words = new HashSet<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String word = line.trim();
+            if (!word.isEmpty() && !word.startsWith("#")) {
+                words.add(word.toLowerCase());
+            }
+        }
+        synchronized (ProfanityFilter.class) {
+            fileWords = words;
+            rebuildMatcher();
         }
+        System.out.println("✅ Loaded " + words.size() + " words from " + file);
     }
-    
+
     /**
-     * Rebuild the regex pattern after modifying the bad words list
+     * Load a word list file if it exists and reload it in the background whenever it is
+     * created or modified. Only the first call starts watching.
+     * @param file The word list file
      */
-    private static void rebuildPattern() {
-        StringBuilder patternBuilder = new StringBuilder("\\b(");
-        int count = 0;
+    public static synchronized void watchWordList(Path file) {
+        if (watcher != null) {
+            return;
+        }
+        Path path = file.toAbsolutePath();
+        Path directory = path.getParent();
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(path)) {
+                loadWordList(path);
+            }
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watcher = new Thread(() -> watch(watchService, path), "profanity-list-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            System.err.println("❌ Cannot watch profanity word list " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static void watch(WatchService watchService, Path path) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (path.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    try {
+                        loadWordList(path);
+                    } catch (IOException e) {
+                        System.err.println("❌ Cannot reload profanity word list: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Build a matcher for the current words and publish it with its version; callers hold the class lock
+     */
+    private static void rebuildMatcher() {
+        ProfanityNormalizer normalizer = ProfanityNormalizer.forCurrentThread();
+        Set<String> words = new HashSet<>();
         for (String word : BAD_WORDS) {
-            if (count > 0) {
-                patternBuilder.append("|");
+            words.add(normalizer.normalize(word).toString());
+        }
+        for (String word : fileWords) {
+            words.add(normalizer.normalize(word).toString());
+        }
+        List<String> sorted = new ArrayList<>(words);
+        sorted.sort(null);
+        CRC32 checksum = new CRC32();
+        for (String word : sorted) {
+            checksum.update((word + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        int version = (int) checksum.getValue();
+        WordList previous = wordList;
+        // The new generation makes every cached result a miss, nothing has to be cleared
+        wordList = new WordList(ProfanityMatcher.build(words), version, previous == null ? 0 : previous.generation + 1);
+        if (previous != null && previous.version != version) {
+            for (Runnable listener : listeners) {
+                listener.run();
             }
-            patternBuilder.append(Pattern.quote(word));
-            count++;
         }
-        patternBuilder.append(")\\b");
-        wordPattern = Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE);
     }
-} 
\ No newline at end of file
+
+    private static String mask(ProfanityMatcher matcher, String input) {
+        ProfanityNormalizer normalized = ProfanityNormalizer.forCurrentThread().normalize(input);
+        if (!matcher.matches(normalized)) {
+            return input;
+        }
+        char[] masked = input.toCharArray();
+        matcher.forEachMatch(normalized, (start, end) -> {
+            // Star the original characters behind the match, separators and repeats included
+            Arrays.fill(masked, normalized.originalStart(start), normalized.originalEnd(end - 1), '*');
+            return true;
+        });
+        return new String(masked);
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aho–Corasick automaton over a fixed word list: finds every listed word in one left-to-right pass,
+ * whatever the number of words. Matching ignores case and only reports whole words (the characters
+ * around a match must not be letters or digits).
+ *
+ * Instances are immutable, so one can be shared by any number of threads and replaced atomically.
+ */
+public final class ProfanityMatcher {
+    private static final int ROOT = 0;
+
+    // Transitions of each state, sorted by character: labels[s][i] leads to targets[s][i]
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // Length of the longest word ending in each state (0 if none), and the next state on the
+    // fail chain that ends a word, to enumerate the shorter ones
+    private final int[] wordLength;
+    private final int[] nextWord;
+    private final int wordCount;
+
+    /**
+     * Receives whole-word matches as [start, end) ranges of the input
+     */
+    public interface MatchHandler {
+        /**
+         * @return false to stop matching
+         */
+        boolean onMatch(int start, int end);
+    }
+
+    private ProfanityMatcher(char[][] labels, int[][] targets, int[] fail, int[] wordLength, int[] nextWord, int wordCount) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.wordLength = wordLength;
+        this.nextWord = nextWord;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * @param words The words to find; blanks are ignored and case does not matter
+     */
+    public static ProfanityMatcher build(Collection<String> words) {
+        List<StringBuilder> labelLists = new ArrayList<>();
+        List<List<Integer>> targetLists = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        labelLists.add(new StringBuilder());
+        targetLists.add(new ArrayList<>());
+        lengths.add(0);
+        int count = 0;
+
+        // Trie of the folded words
+        for (String word : words) {
+            if (word == null || word.trim().isEmpty()) {
+                continue;
+            }
+            String folded = word.trim();
+            int state = ROOT;
+            for (int i = 0; i < folded.length(); i++) {
+                char c = fold(folded.charAt(i));
+                int index = labelLists.get(state).indexOf(String.valueOf(c));
+                if (index >= 0) {
+                    state = targetLists.get(state).get(index);
+                } else {
+                    int next = labelLists.size();
+                    labelLists.add(new StringBuilder());
+                    targetLists.add(new ArrayList<>());
+                    lengths.add(0);
+                    labelLists.get(state).append(c);
+                    targetLists.get(state).add(next);
+                    state = next;
+                }
+            }
+            if (lengths.get(state) == 0) {
+                count++;
+            }
+            lengths.set(state, folded.length());
+        }
+
+        int states = labelLists.size();
+        char[][] labels = new char[states][];
+        int[][] targets = new int[states][];
+        int[] wordLength = new int[states];
+        for (int s = 0; s < states; s++) {
+            char[] stateLabels = labelLists.get(s).toString().toCharArray();
+            int[] stateTargets = new int[stateLabels.length];
+            Integer[] order = new Integer[stateLabels.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Character.compare(stateLabels[a], stateLabels[b]));
+            labels[s] = new char[stateLabels.length];
+            for (int i = 0; i < order.length; i++) {
+                labels[s][i] = stateLabels[order[i]];
+                stateTargets[i] = targetLists.get(s).get(order[i]);
+            }
+            targets[s] = stateTargets;
+            wordLength[s] = lengths.get(s);
+        }
+
+        // Fail links, breadth first so a state's fail target is always computed before it
+        int[] fail = new int[states];
+        int[] nextWord = new int[states];
+        Arrays.fill(nextWord, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[ROOT]) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int f = fail[state];
+                int next;
+                while ((next = step(labels, targets, f, c)) < 0 && f != ROOT) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 && next != child ? next : ROOT;
+                int failState = fail[child];
+                nextWord[child] = wordLength[failState] > 0 ? failState : nextWord[failState];
+                queue.add(child);
+            }
+        }
+        return new ProfanityMatcher(labels, targets, fail, wordLength, nextWord, count);
+    }
+
+    /**
+     * @return The number of distinct words
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * @return true if the text contains a listed word
+     */
+    public boolean matches(CharSequence text) {
+        return text != null && scan(text, null);
+    }
+
+    /**
+     * Replace every listed word with asterisks of the same length
+     * @return The input itself when nothing matches, so the common case allocates nothing
+     */
+    public String mask(String text) {
+        if (text == null || text.isEmpty() || !scan(text, null)) {
+            return text;
+        }
+        char[] masked = text.toCharArray();
+        scan(text, masked);
+        return new String(masked);
+    }
+
+    /**
+     * Report whole-word matches in order of their end position
+     * @return true if the scan reached the end of the text, false if the handler stopped it
+     */
+    public boolean forEachMatch(CharSequence text, MatchHandler handler) {
+        int state = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != ROOT) {
+                state = fail[state];
+            }
+            state = next < 0 ? ROOT : next;
+            int end = i + 1;
+            if (end < length && isWordChar(text.charAt(end))) {
+                // A match here would continue into a longer word
+                continue;
+            }
+            for (int s = wordLength[state] > 0 ? state : nextWord[state]; s > 0; s = nextWord[s]) {
+                int start = end - wordLength[s];
+                if ((start == 0 || !isWordChar(text.charAt(start - 1))) && !handler.onMatch(start, end)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The matching loop of {@link #matches} and {@link #mask}, kept free of allocations
+     * @param masked Null to stop at the first match, otherwise every match is starred in it
+     * @return true if at least one word matched
+     */
+    private boolean scan(CharSequence text, char[] masked) {
+        boolean found = false;
+        int state = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != ROOT) {
+                state = fail[state];
+            }
+            state = next < 0 ? ROOT : next;
+            int end = i + 1;
+            if (end < length && isWordChar(text.charAt(end))) {
+                continue;
+            }
+            for (int s = wordLength[state] > 0 ? state : nextWord[state]; s > 0; s = nextWord[s]) {
+                int start = end - wordLength[s];
+                if (start == 0 || !isWordChar(text.charAt(start - 1))) {
+                    if (masked == null) {
+                        return true;
+                    }
+                    Arrays.fill(masked, start, end, '*');
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int step(char[][] labels, int[][] targets, int state, char c) {
+        char[] stateLabels = labels[state];
+        // Most states have one or two transitions: scan those, binary search the wide ones
+        if (stateLabels.length <= 4) {
+            for (int i = 0; i < stateLabels.length; i++) {
+                if (stateLabels[i] == c) {
+                    return targets[state][i];
+                }
+            }
+            return -1;
+        }
+        int index = Arrays.binarySearch(stateLabels, c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+}
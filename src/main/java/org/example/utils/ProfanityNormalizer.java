@@ -0,0 +1,256 @@
+package org.example.utils;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Undoes the usual ways of disguising a word before profanity matching, in one pass:
+ * <ul>
+ *   <li>compatibility and accent folding, lower case ("ＢÀＤ" → "bad")</li>
+ *   <li>invisible characters dropped (zero-width spaces and joiners, soft hyphens)</li>
+ *   <li>leet and look-alike letters mapped ("b@dw0rd", Cyrillic "а" → "badword")</li>
+ *   <li>letters spelled out one by one joined ("b a d", "b.a.d" → "bad")</li>
+ *   <li>letters repeated three times or more squashed ("baaaad" → "bad")</li>
+ *   <li>other runs of separators turned into one space</li>
+ * </ul>
+ * The result is this object itself, a {@link CharSequence} over a buffer that is reused from
+ * one call to the next, and every character of it remembers the range of the original text it
+ * came from, so matches can be masked in the original.
+ *
+ * Not thread-safe: use {@link #forCurrentThread()}.
+ */
+public final class ProfanityNormalizer implements CharSequence {
+    private static final char SEPARATOR = 0;
+    private static final char IGNORED = 1;
+    private static final char EXPANDED = 2;
+    // Folded form of every BMP character: a letter or digit, SEPARATOR, IGNORED or EXPANDED
+    private static final char[] FOLD = new char[65536];
+    // Characters that fold to more than one letter
+    private static final Map<Character, String> EXPANSIONS = new HashMap<>();
+
+    private static final ThreadLocal<ProfanityNormalizer> CURRENT = ThreadLocal.withInitial(ProfanityNormalizer::new);
+
+    static {
+        for (int c = 0; c < FOLD.length; c++) {
+            FOLD[c] = computeFold((char) c);
+        }
+        String leet = "@a4a3e€e1i!i|l0o$s5s7t+t8b9g";
+        for (int i = 0; i < leet.length(); i += 2) {
+            FOLD[leet.charAt(i)] = leet.charAt(i + 1);
+        }
+        // Cyrillic and Greek letters that look like Latin ones
+        String confusables = "аaвbеeкkмmнhоoрpсcтtуyхxіiјjѕsαaβbεeιiκkνvοoρpτtυuχx";
+        for (int i = 0; i < confusables.length(); i += 2) {
+            char from = confusables.charAt(i);
+            FOLD[from] = confusables.charAt(i + 1);
+            FOLD[Character.toUpperCase(from)] = confusables.charAt(i + 1);
+        }
+        EXPANSIONS.put('œ', "oe");
+        EXPANSIONS.put('Œ', "oe");
+        EXPANSIONS.put('æ', "ae");
+        EXPANSIONS.put('Æ', "ae");
+        EXPANSIONS.put('ß', "ss");
+        EXPANSIONS.put('ﬀ', "ff");
+        EXPANSIONS.put('ﬁ', "fi");
+        EXPANSIONS.put('ﬂ', "fl");
+        for (char c : EXPANSIONS.keySet()) {
+            FOLD[c] = EXPANDED;
+        }
+    }
+
+    private char[] chars = new char[256];
+    private int[] starts = new int[256];
+    private int[] ends = new int[256];
+    private int length = 0;
+
+    public static ProfanityNormalizer forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Normalize a text into this buffer, replacing the previous content
+     * @return this
+     */
+    public ProfanityNormalizer normalize(CharSequence input) {
+        length = 0;
+        int inputLength = input.length();
+        // Letters in the current token of the input, which may span joined single letters
+        int tokenLength = 0;
+        boolean previousTokenSingle = false;
+        int separatorStart = -1;
+        // Repeats of the last output letter within the current word
+        int run = 0;
+
+        for (int i = 0; i < inputLength; i++) {
+            char c = input.charAt(i);
+            char folded = foldAt(input, i);
+            if (folded == IGNORED) {
+                continue;
+            }
+            if (folded == SEPARATOR) {
+                if (separatorStart < 0) {
+                    separatorStart = i;
+                    previousTokenSingle = tokenLength == 1;
+                }
+                continue;
+            }
+            if (separatorStart >= 0) {
+                boolean join = previousTokenSingle && singleLetterAt(input, i);
+                if (!join) {
+                    if (length > 0) {
+                        append(' ', separatorStart, i);
+                    }
+                    run = 0;
+                }
+                separatorStart = -1;
+                tokenLength = 0;
+            }
+            tokenLength++;
+
+            if (folded == EXPANDED) {
+                String expansion = EXPANSIONS.get(c);
+                for (int k = 0; k < expansion.length(); k++) {
+                    append(expansion.charAt(k), i, i + 1);
+                }
+                run = 1;
+                continue;
+            }
+            if (run > 0 && chars[length - 1] == folded) {
+                run++;
+                if (run == 3) {
+                    // Third repeat: keep a single letter covering the whole run
+                    length--;
+                    ends[length - 1] = i + 1;
+                } else if (run > 3) {
+                    ends[length - 1] = i + 1;
+                } else {
+                    append(folded, i, i + 1);
+                }
+                continue;
+            }
+            run = 1;
+            append(folded, i, i + 1);
+        }
+        return this;
+    }
+
+    /**
+     * @return The start of the original text range that produced the character at index
+     */
+    public int originalStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @return The end (exclusive) of the original text range that produced the character at index
+     */
+    public int originalEnd(int index) {
+        return ends[index];
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void append(char c, int start, int end) {
+        if (length == chars.length) {
+            int capacity = length * 2;
+            chars = Arrays.copyOf(chars, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        chars[length] = c;
+        starts[length] = start;
+        ends[length] = end;
+        length++;
+    }
+
+    private static char foldAt(CharSequence input, int index) {
+        char c = input.charAt(index);
+        return isSymbol(c) && !symbolInWord(input, index) ? SEPARATOR : FOLD[c];
+    }
+
+    /**
+     * A leet symbol stands for a letter when a letter follows it ("sh!t", "@ss") but not when it
+     * ends a word ("bad!!"), except for '$' after a letter ("a$$")
+     */
+    private static boolean symbolInWord(CharSequence input, int index) {
+        for (int i = index + 1; i < input.length(); i++) {
+            char next = input.charAt(i);
+            char folded = FOLD[next];
+            if (folded != IGNORED && !isSymbol(next)) {
+                if (folded != SEPARATOR) {
+                    return true;
+                }
+                break;
+            }
+        }
+        if (input.charAt(index) != '$') {
+            return false;
+        }
+        for (int i = index - 1; i >= 0; i--) {
+            char previous = input.charAt(i);
+            if (FOLD[previous] != IGNORED && previous != '$') {
+                return FOLD[previous] != SEPARATOR;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSymbol(char c) {
+        return c == '@' || c == '$' || c == '!' || c == '|' || c == '+' || c == '€';
+    }
+
+    /**
+     * @return true if the letter at index is followed by a separator or the end of the input
+     */
+    private static boolean singleLetterAt(CharSequence input, int index) {
+        for (int i = index + 1; i < input.length(); i++) {
+            char folded = foldAt(input, i);
+            if (folded != IGNORED) {
+                return folded == SEPARATOR;
+            }
+        }
+        return true;
+    }
+
+    private static char computeFold(char c) {
+        int type = Character.getType(c);
+        if (type == Character.FORMAT || type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK) {
+            return IGNORED;
+        }
+        if (!Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+            return SEPARATOR;
+        }
+        if (c < 0x80) {
+            return Character.toLowerCase(c);
+        }
+        // Compatibility decomposition drops width and style variants; then drop the accents
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFKD);
+        for (int i = 0; i < decomposed.length(); i++) {
+            char base = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(base)) {
+                return Character.toLowerCase(base);
+            }
+        }
+        return Character.toLowerCase(c);
+    }
+}
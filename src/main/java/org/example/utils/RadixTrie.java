@@ -0,0 +1,265 @@
+package org.example.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Radix trie (compressed prefix tree) from string keys to weighted values, answering
+ * "the k heaviest values whose key starts with this prefix". Each node remembers the heaviest
+ * weight below it, so a top-k lookup visits only the branches that can still contribute and
+ * costs about the prefix length plus k, whatever the number of keys. Not thread-safe.
+ * @param <V> The value type; a key may hold several values
+ */
+public class RadixTrie<V> {
+    private final Node<V> root = new Node<>("");
+    private int size = 0;
+
+    private static final class Node<V> {
+        String edge;
+        Node<V>[] children = newArray(0);
+        Object[] values = new Object[0];
+        long[] weights = new long[0];
+        long maxWeight = Long.MIN_VALUE;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].edge.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addChild(Node<V> child) {
+            int index = -childIndex(child.edge.charAt(0)) - 1;
+            Node<V>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            grown[index] = child;
+            children = grown;
+        }
+
+        void recomputeMax() {
+            long max = Long.MIN_VALUE;
+            for (long weight : weights) {
+                max = Math.max(max, weight);
+            }
+            for (Node<V> child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+
+    /**
+     * Best-first search entry: a subtree bounded by its heaviest weight, or a single value
+     */
+    private static final class Candidate<V> {
+        final long weight;
+        final Node<V> node;
+        final V value;
+
+        Candidate(long weight, Node<V> node, V value) {
+            this.weight = weight;
+            this.node = node;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Add a value under a key; adding the same (key, value) again only updates its weight
+     */
+    public void put(String key, V value, long weight) {
+        put(root, key, value, weight);
+    }
+
+    /**
+     * @return true if the value was stored under the key
+     */
+    public boolean remove(String key, V value) {
+        return remove(root, key, value);
+    }
+
+    /**
+     * @param prefix The key prefix; an empty prefix matches every key
+     * @param k Maximum number of values to return
+     * @return Up to k distinct values under the prefix, heaviest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> topK(String prefix, int k) {
+        Node<V> start = find(prefix);
+        Set<V> result = new LinkedHashSet<>();
+        if (start == null || start.maxWeight == Long.MIN_VALUE) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<Candidate<V>> queue = new PriorityQueue<>((a, b) -> Long.compare(b.weight, a.weight));
+        queue.add(new Candidate<>(start.maxWeight, start, null));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate<V> next = queue.poll();
+            if (next.node == null) {
+                result.add(next.value);
+                continue;
+            }
+            Node<V> node = next.node;
+            for (int i = 0; i < node.values.length; i++) {
+                queue.add(new Candidate<>(node.weights[i], null, (V) node.values[i]));
+            }
+            for (Node<V> child : node.children) {
+                queue.add(new Candidate<>(child.maxWeight, child, null));
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * @return The number of (key, value) pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    private void put(Node<V> node, String rest, V value, long weight) {
+        if (rest.isEmpty()) {
+            for (int i = 0; i < node.values.length; i++) {
+                if (node.values[i].equals(value)) {
+                    node.weights[i] = weight;
+                    node.recomputeMax();
+                    return;
+                }
+            }
+            node.values = Arrays.copyOf(node.values, node.values.length + 1);
+            node.weights = Arrays.copyOf(node.weights, node.weights.length + 1);
+            node.values[node.values.length - 1] = value;
+            node.weights[node.weights.length - 1] = weight;
+            node.maxWeight = Math.max(node.maxWeight, weight);
+            size++;
+            return;
+        }
+        int index = node.childIndex(rest.charAt(0));
+        if (index < 0) {
+            Node<V> leaf = new Node<>(rest);
+            node.addChild(leaf);
+            put(leaf, "", value, weight);
+        } else {
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.edge, rest);
+            if (common < child.edge.length()) {
+                // Split the edge: the shared part becomes a new node above the child
+                Node<V> middle = new Node<>(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                middle.addChild(child);
+                middle.maxWeight = child.maxWeight;
+                node.children[index] = middle;
+                child = middle;
+            }
+            put(child, rest.substring(common), value, weight);
+        }
+        node.maxWeight = Math.max(node.maxWeight, weight);
+    }
+
+    private boolean remove(Node<V> node, String rest, V value) {
+        boolean removed = false;
+        if (rest.isEmpty()) {
+            for (int i = 0; i < node.values.length; i++) {
+                if (node.values[i].equals(value)) {
+                    node.values = without(node.values, i);
+                    node.weights = without(node.weights, i);
+                    size--;
+                    removed = true;
+                    break;
+                }
+            }
+        } else {
+            int index = node.childIndex(rest.charAt(0));
+            if (index >= 0) {
+                Node<V> child = node.children[index];
+                if (rest.startsWith(child.edge)) {
+                    removed = remove(child, rest.substring(child.edge.length()), value);
+                    if (child.values.length == 0 && child.children.length == 0) {
+                        node.children = without(node.children, index);
+                    }
+                }
+            }
+        }
+        if (removed) {
+            node.recomputeMax();
+        }
+        return removed;
+    }
+
+    /**
+     * @return The node whose subtree holds exactly the keys starting with the prefix, or null
+     */
+    private Node<V> find(String prefix) {
+        Node<V> node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.edge, prefix.substring(position));
+            if (position + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.edge.length()) {
+                return null;
+            }
+            position += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Object[] without(Object[] array, int index) {
+        Object[] shrunk = new Object[array.length - 1];
+        System.arraycopy(array, 0, shrunk, 0, index);
+        System.arraycopy(array, index + 1, shrunk, index, array.length - index - 1);
+        return shrunk;
+    }
+
+    private static long[] without(long[] array, int index) {
+        long[] shrunk = new long[array.length - 1];
+        System.arraycopy(array, 0, shrunk, 0, index);
+        System.arraycopy(array, index + 1, shrunk, index, array.length - index - 1);
+        return shrunk;
+    }
+
+    private static <V> Node<V>[] without(Node<V>[] array, int index) {
+        Node<V>[] shrunk = newArray(array.length - 1);
+        System.arraycopy(array, 0, shrunk, 0, index);
+        System.arraycopy(array, index + 1, shrunk, index, array.length - index - 1);
+        return shrunk;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newArray(int length) {
+        // Only ever holds Node<V>, the array type cannot say so
+        return (Node<V>[]) new Node<?>[length];
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.utils;
+
+import org.example.models.forum.SearchHits;
+import org.example.services.forum.LocalSearchIndex;
+import org.example.services.forum.SearchEngine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the search engines (substring scan, local index, MySQL FULLTEXT) on the configured database.
+ * Usage: SearchBenchmark [query...]; without arguments a few sample queries are used.
+ */
+public class SearchBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 20;
+    private static final int PAGE_SIZE = 50;
+
+    public static void main(String[] args) {
+        List<String> queries = args.length > 0 ? Arrays.asList(args)
+                : Arrays.asList("java", "base de données", "projet stage", "prog");
+        try {
+            utils.dataSource.getInstance();
+            utils.DatabaseUpdater.update();
+
+            long start = System.nanoTime();
+            LocalSearchIndex.getInstance().load();
+            System.out.printf("Local index built in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+            for (String engineName : new String[] {"scan", "local", "mysql"}) {
+                SearchEngine engine = SearchEngine.forName(engineName);
+                System.out.println("\n== " + engineName + " ==");
+                for (String query : queries) {
+                    try {
+                        run(engine, query);
+                    } catch (Exception e) {
+                        System.err.println("Error searching '" + query + "' with " + engineName + ": " + e.getMessage());
+                    }
+                }
+            }
+            System.out.println("\nBenchmark completed!");
+        } catch (Exception e) {
+            System.err.println("Error running benchmark: " + e.getMessage());
+            e.printStackTrace();
+        }
+        System.exit(0);
+    }
+
+    private static void run(SearchEngine engine, String query) throws Exception {
+        SearchHits hits = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            hits = engine.search(query, 0, PAGE_SIZE);
+        }
+        long[] times = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            hits = engine.search(query, 0, PAGE_SIZE);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.printf("%-20s %6d hits   median %8.2f ms   p95 %8.2f ms%n",
+                "'" + query + "'", hits.getTotal(),
+                times[MEASURED_RUNS / 2] / 1e6, times[(int) (MEASURED_RUNS * 0.95) - 1] / 1e6);
+    }
+}
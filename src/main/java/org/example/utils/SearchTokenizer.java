@@ -0,0 +1,115 @@
+package org.example.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits French and English text into search terms.
+ * Text is lower-cased and stripped of accents ("Élève" and "eleve" give the same term),
+ * split on anything that is not a letter or a digit (so "l'école" gives "ecole"), and
+ * common French and English stop words are dropped.
+ */
+public final class SearchTokenizer {
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        // English
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+        "he", "her", "his", "i", "if", "in", "into", "is", "it", "its", "me", "my", "not", "of",
+        "on", "or", "our", "she", "so", "that", "the", "their", "them", "then", "there", "these",
+        "they", "this", "to", "was", "we", "were", "what", "when", "which", "who", "will", "with",
+        "you", "your",
+        // French (without accents, as produced by the tokenizer)
+        "au", "aux", "avec", "ce", "ces", "cet", "cette", "dans", "de", "des", "du", "elle",
+        "elles", "en", "est", "et", "eu", "il", "ils", "je", "la", "le", "les", "leur", "leurs",
+        "lui", "ma", "mais", "me", "meme", "mes", "moi", "mon", "ne", "nos", "notre", "nous",
+        "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se", "ses", "son", "sont", "sur",
+        "ta", "te", "tes", "toi", "ton", "tu", "un", "une", "vos", "votre", "vous", "ete", "etre"
+    ));
+
+    private SearchTokenizer() {}
+
+    /**
+     * @param text The text to split, may be null
+     * @return The terms in text order, with repeats
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder term = new StringBuilder(16);
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(term, Character.toLowerCase(c));
+            } else {
+                flush(term, terms);
+            }
+        }
+        flush(term, terms);
+        return terms;
+    }
+
+    /**
+     * Fold text the way terms are folded, keeping the word order: lower case, no accents, and
+     * words separated by single spaces. "L'Élève  Studieux" gives "l eleve studieux".
+     * Stop words are kept.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(out, Character.toLowerCase(c));
+            } else if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+                out.append(' ');
+            }
+        }
+        int length = out.length();
+        if (length > 0 && out.charAt(length - 1) == ' ') {
+            out.setLength(length - 1);
+        }
+        return out.toString();
+    }
+
+    public static boolean isStopWord(String term) {
+        return STOP_WORDS.contains(term);
+    }
+
+    // Ligatures are not split by NFD
+    private static void appendFolded(StringBuilder term, char c) {
+        switch (c) {
+            case 'œ': term.append("oe"); break;
+            case 'æ': term.append("ae"); break;
+            case 'ß': term.append("ss"); break;
+            default: term.append(c);
+        }
+    }
+
+    private static void flush(StringBuilder term, List<String> terms) {
+        if (term.length() >= MIN_LENGTH) {
+            String value = term.length() > MAX_LENGTH ? term.substring(0, MAX_LENGTH) : term.toString();
+            if (!STOP_WORDS.contains(value)) {
+                terms.add(value);
+            }
+        }
+        term.setLength(0);
+    }
+}
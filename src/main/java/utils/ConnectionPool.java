@@ -0,0 +1,569 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ * At most {@code maxPoolSize} physical connections exist at any time; callers block
+ * up to {@code borrowTimeoutMs} when all of them are in use.
+ * Borrowed connections are proxies: calling {@code close()} on them resets their state
+ * and hands the physical connection back to the pool instead of closing it.
+ */
+public class ConnectionPool {
+    // Upper bounds (in ms) of the borrow latency histogram buckets, the last bucket is unbounded
+    private static final long[] LATENCY_BUCKETS_MS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+    // Idle connections used more recently than this are handed out without a round trip
+    private static final long VALIDATION_BYPASS_MS = 500;
+
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<Connection, PooledConnection> borrowed = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LongAdder[] latencyHistogram = new LongAdder[LATENCY_BUCKETS_MS.length + 1];
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder closedCount = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxPoolSize(), true);
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = new LongAdder();
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMs();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open connections until the pool holds {@code count} idle connections (bounded by the max size)
+     * @param count Number of connections to open
+     * @throws SQLException if a connection cannot be opened
+     */
+    public void fill(int count) throws SQLException {
+        int target = Math.min(count, config.getMaxPoolSize());
+        while (totalConnections.get() < target && permits.tryAcquire()) {
+            try {
+                idle.offerFirst(createConnection());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Open up to {@code count} connections concurrently, so startup pays for one
+     * handshake round trip instead of {@code count} of them
+     * @param count Number of connections to open
+     * @throws SQLException if none of the connections could be opened
+     */
+    public void fillParallel(int count) throws SQLException {
+        int target = Math.min(count, config.getMaxPoolSize()) - totalConnections.get();
+        if (target <= 1) {
+            fill(count);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(target, r -> {
+            Thread t = new Thread(r, "db-pool-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<PooledConnection>> futures = new ArrayList<>();
+            for (int i = 0; i < target; i++) {
+                futures.add(executor.submit(this::createConnection));
+            }
+            SQLException failure = null;
+            int opened = 0;
+            for (Future<PooledConnection> future : futures) {
+                try {
+                    idle.offerFirst(future.get());
+                    opened++;
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof SQLException
+                            ? (SQLException) e.getCause()
+                            : new SQLException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while warming up the connection pool", e);
+                }
+            }
+            if (opened == 0 && failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured timeout if the pool is exhausted
+     * @return A validated connection; closing it returns it to the pool
+     * @throws SQLException if no connection became available in time or it could not be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            // Callers that closed the physical connection themselves never return it, reclaim those first
+            reclaimClosed();
+            waitingThreads.incrementAndGet();
+            try {
+                if (!permits.tryAcquire(config.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                    timeoutCount.increment();
+                    throw new SQLException("Timed out after " + config.getBorrowTimeoutMs()
+                            + " ms waiting for a database connection (" + getActiveCount() + " in use)");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            } finally {
+                waitingThreads.decrementAndGet();
+            }
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            // Filling in a stack trace on every borrow is costly, only pay for it when leak detection is on (off by default)
+            pooled.borrowTrace = config.getLeakDetectionThresholdMs() > 0
+                    ? new Throwable("Connection borrowed by " + Thread.currentThread().getName())
+                    : null;
+            pooled.leakReported = false;
+            borrowed.put(pooled.connection, pooled);
+            recordLatency(System.nanoTime() - start);
+            borrowCount.increment();
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ProxyHandler(pooled));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool, equivalent to calling {@code close()} on it
+     * @param connection The connection obtained from {@link #borrow()}
+     */
+    public void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ProxyHandler) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Error returning connection to pool: " + e.getMessage());
+            }
+            return;
+        }
+        PooledConnection pooled = borrowed.get(connection);
+        if (pooled == null) {
+            System.err.println("Ignoring release of a connection that is not borrowed from the pool");
+            return;
+        }
+        returnConnection(pooled);
+    }
+
+    private void returnConnection(PooledConnection pooled) {
+        if (borrowed.remove(pooled.connection) == null) {
+            return;
+        }
+        Connection connection = pooled.connection;
+        try {
+            boolean reusable = !shutdown && !pooled.isExpired(config.getMaxLifetimeMs()) && !connection.isClosed();
+            if (reusable) {
+                pooled.resetState();
+                pooled.lastUsedAt = System.currentTimeMillis();
+                pooled.borrowTrace = null;
+                idle.offerFirst(pooled);
+            } else {
+                closeConnection(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error returning connection to pool: " + e.getMessage());
+            closeConnection(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close every idle connection and stop the housekeeping thread.
+     * Borrowed connections are closed as they are released.
+     * @return Number of connections closed
+     */
+    public int shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        int closed = 0;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            closeConnection(pooled);
+            closed++;
+        }
+        return closed;
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        // Most recently used first, so the tail of the deque can age out under low load
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isExpired(config.getMaxLifetimeMs()) || !isValid(pooled)) {
+                closeConnection(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MS) {
+                return true;
+            }
+            int timeoutSeconds = (int) Math.max(1, config.getValidationTimeoutMs() / 1000);
+            return pooled.connection.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword());
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        StatementCache statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(connection, config.getStatementCacheSize(), statementHits, statementMisses, statementEvictions)
+                : null;
+        return new PooledConnection(connection, statementCache);
+    }
+
+    private void closeConnection(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        closedCount.increment();
+        if (pooled.statementCache != null) {
+            pooled.statementCache.clear();
+        }
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+
+    private void reclaimClosed() {
+        for (PooledConnection pooled : borrowed.values()) {
+            try {
+                if (pooled.connection.isClosed() && borrowed.remove(pooled.connection, pooled)) {
+                    totalConnections.decrementAndGet();
+                    closedCount.increment();
+                    permits.release();
+                }
+            } catch (SQLException e) {
+                // isClosed() does not hit the network, nothing to recover here
+            }
+        }
+    }
+
+    /**
+     * Periodic maintenance: evict idle and expired connections, top up to the minimum
+     * idle count and report connections held longer than the leak detection threshold.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            reclaimClosed();
+
+            int idleCount = idle.size();
+            for (PooledConnection pooled : idle) {
+                boolean idleTooLong = now - pooled.lastUsedAt > config.getIdleTimeoutMs()
+                        && idleCount > config.getMinIdle();
+                if ((idleTooLong || pooled.isExpired(config.getMaxLifetimeMs())) && idle.remove(pooled)) {
+                    closeConnection(pooled);
+                    idleCount--;
+                }
+            }
+
+            if (!shutdown && idle.size() < config.getMinIdle()) {
+                fill(Math.min(config.getMaxPoolSize(), getActiveCount() + config.getMinIdle()));
+            }
+
+            long threshold = config.getLeakDetectionThresholdMs();
+            if (threshold > 0) {
+                for (PooledConnection pooled : borrowed.values()) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > threshold) {
+                        pooled.leakReported = true;
+                        System.err.println("⚠ Possible connection leak: connection held for "
+                                + (now - pooled.borrowedAt) + " ms");
+                        Throwable trace = pooled.borrowTrace;
+                        if (trace != null) {
+                            trace.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error during connection pool housekeeping: " + e.getMessage());
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && millis > LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        latencyHistogram[bucket].increment();
+    }
+
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    public int getWaitingCount() {
+        return waitingThreads.get();
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * Borrow latency histogram; bucket {@code i} counts borrows that took at most
+     * {@link #getLatencyBucketBoundsMs()}{@code [i]} ms, the last bucket counts the rest
+     * @return A snapshot of the bucket counts
+     */
+    public long[] getBorrowLatencyHistogram() {
+        long[] snapshot = new long[latencyHistogram.length];
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            snapshot[i] = latencyHistogram[i].sum();
+        }
+        return snapshot;
+    }
+
+    public long[] getLatencyBucketBoundsMs() {
+        return LATENCY_BUCKETS_MS.clone();
+    }
+
+    public long getStatementCacheHits() {
+        return statementHits.sum();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementEvictions.sum();
+    }
+
+    /**
+     * @return Fraction of {@code prepareStatement} calls served from the statement cache
+     */
+    public double getStatementCacheHitRatio() {
+        long hits = statementHits.sum();
+        long total = hits + statementMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder histogram = new StringBuilder();
+        long[] counts = getBorrowLatencyHistogram();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.append(i < LATENCY_BUCKETS_MS.length ? "<=" + LATENCY_BUCKETS_MS[i] + "ms" : ">"
+                    + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] + "ms");
+            histogram.append('=').append(counts[i]).append(i < counts.length - 1 ? ", " : "");
+        }
+        return "ConnectionPool{active=" + getActiveCount()
+                + ", idle=" + getIdleCount()
+                + ", total=" + getTotalCount()
+                + ", waiting=" + getWaitingCount()
+                + ", borrows=" + getBorrowCount()
+                + ", timeouts=" + getTimeoutCount()
+                + ", created=" + createdCount.sum()
+                + ", closed=" + closedCount.sum()
+                + ", stmtHits=" + getStatementCacheHits()
+                + ", stmtMisses=" + getStatementCacheMisses()
+                + ", stmtEvictions=" + getStatementCacheEvictions()
+                + ", latency=[" + histogram + "]}";
+    }
+
+    private static class PooledConnection {
+        final Connection connection;
+        final StatementCache statementCache;
+        final long createdAt;
+        final int defaultIsolation;
+        final boolean defaultReadOnly;
+        volatile long lastUsedAt;
+        volatile long borrowedAt;
+        volatile Throwable borrowTrace;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection connection, StatementCache statementCache) throws SQLException {
+            this.connection = connection;
+            this.statementCache = statementCache;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsedAt = createdAt;
+            this.defaultIsolation = connection.getTransactionIsolation();
+            this.defaultReadOnly = connection.isReadOnly();
+        }
+
+        boolean isExpired(long maxLifetimeMs) {
+            return maxLifetimeMs > 0 && System.currentTimeMillis() - createdAt > maxLifetimeMs;
+        }
+
+        /**
+         * Undo whatever the previous borrower changed so the next one gets a clean connection
+         */
+        void resetState() throws SQLException {
+            if (!connection.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.getTransactionIsolation() != defaultIsolation) {
+                connection.setTransactionIsolation(defaultIsolation);
+            }
+            if (connection.isReadOnly() != defaultReadOnly) {
+                connection.setReadOnly(defaultReadOnly);
+            }
+            connection.clearWarnings();
+        }
+    }
+
+    /**
+     * Backs the proxy handed out by {@link #borrow()}. A new handler is created for every
+     * borrow, so a stale reference kept by a previous borrower cannot touch the connection again.
+     */
+    private class ProxyHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private boolean closed = false;
+
+        ProxyHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeStatements();
+                        returnConnection(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.connection;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (pooled.statementCache != null && "prepareStatement".equals(method.getName()) && isCacheable(method)) {
+                int autoGeneratedKeys = args.length > 1 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                PreparedStatement statement = pooled.statementCache.prepare((String) args[0], autoGeneratedKeys);
+                openStatements.add(statement);
+                return statement;
+            }
+            try {
+                Object result = method.invoke(pooled.connection, args);
+                if (result instanceof Statement) {
+                    openStatements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+
+        private void closeStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // The statement is discarded either way
+                }
+            }
+            openStatements.clear();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Applies schema changes the application relies on.
+ * Every step is idempotent: changes that are already in place are reported and skipped,
+ * so this can run at every startup.
+ */
+public class DatabaseUpdater {
+
+    // { description, SQL }
+    private static final String[][] STEPS = {
+        {"image_path column on post",
+            "ALTER TABLE post ADD COLUMN image_path VARCHAR(255) NULL AFTER content"},
+        {"(created_at, id) index on post for the keyset-paginated feed",
+            "CREATE INDEX idx_post_created_id ON post (created_at, id)"},
+        {"post_stats counter table",
+            "CREATE TABLE post_stats (" +
+            " post_id INT NOT NULL PRIMARY KEY," +
+            " likes INT NOT NULL DEFAULT 0," +
+            " dislikes INT NOT NULL DEFAULT 0," +
+            " comments INT NOT NULL DEFAULT 0" +
+            ")"},
+        // Duplicate tag names have to be merged before the unique index can be added
+        {"post_tag links moved to the oldest tag of each name",
+            "UPDATE IGNORE post_tag pt JOIN tag t ON t.id = pt.tag_id " +
+            "JOIN (SELECT name, MIN(id) AS keep_id FROM tag GROUP BY name) k ON k.name = t.name " +
+            "SET pt.tag_id = k.keep_id WHERE pt.tag_id <> k.keep_id"},
+        {"post_tag links to duplicate tags removed",
+            "DELETE pt FROM post_tag pt JOIN tag t ON t.id = pt.tag_id " +
+            "JOIN (SELECT name, MIN(id) AS keep_id FROM tag GROUP BY name) k ON k.name = t.name " +
+            "WHERE t.id <> k.keep_id"},
+        {"duplicate tags removed",
+            "DELETE t FROM tag t " +
+            "JOIN (SELECT name, MIN(id) AS keep_id FROM tag GROUP BY name) k ON k.name = t.name " +
+            "WHERE t.id <> k.keep_id"},
+        {"unique tag names",
+            "ALTER TABLE tag ADD UNIQUE KEY uq_tag_name (name)"},
+        {"FULLTEXT index on post (title, content) for the mysql search engine",
+            "CREATE FULLTEXT INDEX ft_post_text ON post (title, content)"},
+        {"FULLTEXT index on tag (name) for the mysql search engine",
+            "CREATE FULLTEXT INDEX ft_tag_name ON tag (name)"},
+        // Profanity-masked copies, NULL when the text is clean; filled in by ContentMaskService
+        {"title_masked column on post",
+            "ALTER TABLE post ADD COLUMN title_masked VARCHAR(255) NULL"},
+        {"content_masked column on post",
+            "ALTER TABLE post ADD COLUMN content_masked TEXT NULL"},
+        {"mask_version column on post",
+            "ALTER TABLE post ADD COLUMN mask_version INT NULL"},
+        {"content_masked column on comment",
+            "ALTER TABLE comment ADD COLUMN content_masked TEXT NULL"},
+        {"mask_version column on comment",
+            "ALTER TABLE comment ADD COLUMN mask_version INT NULL"},
+        {"(post_id, parent_id, created_at, id) index on comment for keyset-paginated threads",
+            "CREATE INDEX idx_comment_thread ON comment (post_id, parent_id, created_at, id)"},
+        // Materialized path of each comment, "/root/.../parent/id/", kept up to date by CommentService.create
+        {"path column on comment",
+            "ALTER TABLE comment ADD COLUMN path VARCHAR(700) CHARACTER SET ascii NULL"},
+        {"path index on comment",
+            "CREATE INDEX idx_comment_path ON comment (path)"},
+        // Starts only from comments whose parent already has a path (or that have no parent), so once
+        // every reachable path is filled in this is one indexed lookup that finds nothing. Paths that
+        // would not fit are left NULL, as CommentService.create does; readAncestors walks those instead.
+        {"paths of comments created before the path column",
+            "UPDATE comment c JOIN (" +
+            " WITH RECURSIVE tree (id, path) AS (" +
+            "  SELECT r.id, CAST(CONCAT(COALESCE(p.path, '/'), r.id, '/') AS CHAR(700)) FROM comment r" +
+            "  LEFT JOIN comment p ON p.id = r.parent_id" +
+            "  WHERE r.path IS NULL AND (p.id IS NULL OR p.path IS NOT NULL)" +
+            "  AND CHAR_LENGTH(COALESCE(p.path, '/')) + CHAR_LENGTH(r.id) + 1 <= 700" +
+            "  UNION ALL" +
+            "  SELECT k.id, CONCAT(t.path, k.id, '/') FROM comment k JOIN tree t ON k.parent_id = t.id" +
+            "  WHERE k.path IS NULL AND CHAR_LENGTH(t.path) + CHAR_LENGTH(k.id) + 1 <= 700" +
+            " ) SELECT id, path FROM tree" +
+            ") p ON p.id = c.id " +
+            "SET c.path = p.path WHERE c.path IS NULL"},
+    };
+
+    public static void main(String[] args) {
+        System.out.println("Starting database update...");
+        update();
+        System.out.println("Database update completed!");
+    }
+
+    /**
+     * Apply every pending schema change
+     */
+    public static void update() {
+        Connection conn = null;
+        Statement stmt = null;
+        try {
+            conn = dataSource.getInstance().getConnection();
+            stmt = conn.createStatement();
+            for (String[] step : STEPS) {
+                try {
+                    stmt.executeUpdate(step[1]);
+                    System.out.println("✅ Applied: " + step[0]);
+                } catch (SQLException e) {
+                    if (isAlreadyApplied(e)) {
+                        System.out.println("✔ Already applied: " + step[0]);
+                    } else {
+                        System.err.println("❌ Failed to apply " + step[0] + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating database: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (stmt != null) try { stmt.close(); } catch (SQLException e) { /* ignore */ }
+            if (conn != null) dataSource.getInstance().releaseConnection(conn);
+        }
+    }
+
+    private static boolean isAlreadyApplied(SQLException e) {
+        String message = e.getMessage();
+        return message != null && (message.contains("Duplicate column")
+                || message.contains("Duplicate key name")
+                || message.contains("already exists"));
+    }
+}
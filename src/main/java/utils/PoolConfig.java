@@ -0,0 +1,114 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings used by {@link ConnectionPool}
+ */
+public class PoolConfig {
+    private static final String RESOURCE = "/db.properties";
+
+    private String url = "jdbc:mysql://localhost:3306/pidevversion2";
+    private String username = "root";
+    private String password = "";
+    private int maxPoolSize = 10;
+    private int minIdle = 2;
+    private long borrowTimeoutMs = 5000;
+    private long validationTimeoutMs = 2000;
+    private long idleTimeoutMs = 600_000;
+    private long maxLifetimeMs = 1_800_000;
+    private long leakDetectionThresholdMs = 0;
+    private long housekeepingIntervalMs = 30_000;
+    private int initialSize = 5;
+    private boolean parallelWarmup = true;
+    private int statementCacheSize = 64;
+
+    /**
+     * Load the settings from {@code db.properties} on the classpath, letting JVM system
+     * properties with the same keys override them. Missing keys keep their defaults.
+     * @return The loaded configuration
+     */
+    public static PoolConfig load() {
+        Properties properties = new Properties();
+        try (InputStream in = PoolConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            } else {
+                System.out.println("No " + RESOURCE + " found on the classpath, using default database settings");
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading " + RESOURCE + ": " + e.getMessage());
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+
+        PoolConfig config = new PoolConfig();
+        config.url = properties.getProperty("db.url", config.url);
+        config.username = properties.getProperty("db.username", config.username);
+        config.password = properties.getProperty("db.password", config.password);
+        config.initialSize = intProperty(properties, "db.pool.initialSize", config.initialSize);
+        config.maxPoolSize = intProperty(properties, "db.pool.maxSize", config.maxPoolSize);
+        config.minIdle = intProperty(properties, "db.pool.minIdle", config.minIdle);
+        config.borrowTimeoutMs = longProperty(properties, "db.pool.borrowTimeoutMs", config.borrowTimeoutMs);
+        config.validationTimeoutMs = longProperty(properties, "db.pool.validationTimeoutMs", config.validationTimeoutMs);
+        config.idleTimeoutMs = longProperty(properties, "db.pool.idleTimeoutMs", config.idleTimeoutMs);
+        config.maxLifetimeMs = longProperty(properties, "db.pool.maxLifetimeMs", config.maxLifetimeMs);
+        config.leakDetectionThresholdMs = longProperty(properties, "db.pool.leakDetectionThresholdMs", config.leakDetectionThresholdMs);
+        config.housekeepingIntervalMs = longProperty(properties, "db.pool.housekeepingIntervalMs", config.housekeepingIntervalMs);
+        config.statementCacheSize = intProperty(properties, "db.pool.statementCacheSize", config.statementCacheSize);
+        config.parallelWarmup = Boolean.parseBoolean(properties.getProperty("db.pool.parallelWarmup", String.valueOf(config.parallelWarmup)));
+        return config;
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        return (int) longProperty(properties, key, defaultValue);
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value '" + value + "' for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    // Getters and Setters
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    public int getMaxPoolSize() { return maxPoolSize; }
+    public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+    public int getMinIdle() { return minIdle; }
+    public void setMinIdle(int minIdle) { this.minIdle = minIdle; }
+    public long getBorrowTimeoutMs() { return borrowTimeoutMs; }
+    public void setBorrowTimeoutMs(long borrowTimeoutMs) { this.borrowTimeoutMs = borrowTimeoutMs; }
+    public long getValidationTimeoutMs() { return validationTimeoutMs; }
+    public void setValidationTimeoutMs(long validationTimeoutMs) { this.validationTimeoutMs = validationTimeoutMs; }
+    public long getIdleTimeoutMs() { return idleTimeoutMs; }
+    public void setIdleTimeoutMs(long idleTimeoutMs) { this.idleTimeoutMs = idleTimeoutMs; }
+    public long getMaxLifetimeMs() { return maxLifetimeMs; }
+    public void setMaxLifetimeMs(long maxLifetimeMs) { this.maxLifetimeMs = maxLifetimeMs; }
+    public long getLeakDetectionThresholdMs() { return leakDetectionThresholdMs; }
+    public void setLeakDetectionThresholdMs(long leakDetectionThresholdMs) { this.leakDetectionThresholdMs = leakDetectionThresholdMs; }
+    public long getHousekeepingIntervalMs() { return housekeepingIntervalMs; }
+    public void setHousekeepingIntervalMs(long housekeepingIntervalMs) { this.housekeepingIntervalMs = housekeepingIntervalMs; }
+    public int getInitialSize() { return initialSize; }
+    public void setInitialSize(int initialSize) { this.initialSize = initialSize; }
+    public boolean isParallelWarmup() { return parallelWarmup; }
+    public void setParallelWarmup(boolean parallelWarmup) { this.parallelWarmup = parallelWarmup; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; }
+}
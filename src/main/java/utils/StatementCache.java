@@ -0,0 +1,180 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of prepared statements for one physical connection.
+ * Statements handed out are proxies whose {@code close()} puts the statement back in the
+ * cache, so services that prepare and close the same SQL on every call reuse it.
+ */
+class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    // Access-ordered, so iteration starts at the least recently used statement
+    private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Get a statement for the given SQL, reusing a cached one when available
+     * @param sql The SQL text
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     * @return A statement whose {@code close()} returns it to this cache
+     * @throws SQLException if the statement cannot be prepared
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement statement;
+        synchronized (this) {
+            // Checked out statements are removed, so nested use of the same SQL gets its own statement
+            statement = statements.remove(key);
+        }
+        if (statement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new CachedStatementHandler(key, statement));
+    }
+
+    /**
+     * Close every cached statement, used when the physical connection goes away
+     */
+    synchronized void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+    }
+
+    private void checkIn(Key key, PreparedStatement statement) {
+        List<PreparedStatement> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (statements.containsKey(key)) {
+                // A second copy prepared while the first was checked out, keep only one
+                closeQuietly(statement);
+                return;
+            }
+            statements.put(key, statement);
+            Iterator<Map.Entry<Key, PreparedStatement>> eldest = statements.entrySet().iterator();
+            while (statements.size() > maxSize && eldest.hasNext()) {
+                evicted.add(eldest.next().getValue());
+                eldest.remove();
+            }
+        }
+        for (PreparedStatement stale : evicted) {
+            evictions.increment();
+            closeQuietly(stale);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // The statement is discarded either way
+        }
+    }
+
+    private static final class Key {
+        final String sql;
+        final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+    }
+
+    private class CachedStatementHandler implements InvocationHandler {
+        private final Key key;
+        private final PreparedStatement statement;
+        private boolean closed = false;
+
+        CachedStatementHandler(Key key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        recycle();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void recycle() {
+            try {
+                if (statement.isClosed() || connection.isClosed()) {
+                    return;
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                checkIn(key, statement);
+            } catch (SQLException e) {
+                closeQuietly(statement);
+            }
+        }
+    }
+}
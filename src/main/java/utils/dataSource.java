@@ -1,69 +1,64 @@
 package utils;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class dataSource {
-    private String url="jdbc:mysql://localhost:3306/pidevversion2";
-    private String username="root";
-    private String pwd="";
-    private static dataSource instance;
-    private final ConcurrentLinkedQueue<Connection> connectionPool = new ConcurrentLinkedQueue<>();
-    private static final int INITIAL_POOL_SIZE = 5;
-    
+    // volatile so the fully constructed pool is visible to every thread that reads the instance
+    private static volatile dataSource instance;
+    private final ConnectionPool connectionPool;
+
     private dataSource() {
+        PoolConfig config = PoolConfig.load();
+        connectionPool = new ConnectionPool(config);
         try {
-            for (int i = 0; i < INITIAL_POOL_SIZE; i++) {
-                Connection conn = DriverManager.getConnection(url, username, pwd);
-                connectionPool.add(conn);
+            if (config.isParallelWarmup()) {
+                connectionPool.fillParallel(config.getInitialSize());
+            } else {
+                connectionPool.fill(config.getInitialSize());
             }
-            System.out.println("✅ Connection pool initialized with " + INITIAL_POOL_SIZE + " connections!");
+            System.out.println("✅ Connection pool initialized with " + connectionPool.getTotalCount() + " connections!");
         } catch (SQLException e) {
             System.err.println("❌ Error initializing connection pool!");
+            connectionPool.shutdown();
             throw new RuntimeException(e);
         }
     }
-    
+
+    /**
+     * Lazily create the shared instance. Double-checked locking rather than a holder class,
+     * so a failed initialization (database down) can be retried on the next call.
+     */
     public static dataSource getInstance() {
-        if (instance == null) {
-            instance = new dataSource();
+        dataSource result = instance;
+        if (result == null) {
+            synchronized (dataSource.class) {
+                result = instance;
+                if (result == null) {
+                    result = new dataSource();
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
-    
+
     public Connection getConnection() throws SQLException {
-        Connection connection = connectionPool.poll();
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(url, username, pwd);
-            System.out.println("Created new database connection");
-        }
-        return connection;
+        return connectionPool.borrow();
     }
-    
+
     public void releaseConnection(Connection connection) {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connectionPool.add(connection);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error releasing connection: " + e.getMessage());
-        }
+        connectionPool.release(connection);
+    }
+
+    /**
+     * @return The underlying pool, for monitoring its counters
+     */
+    public ConnectionPool getPool() {
+        return connectionPool;
     }
-    
+
     public void closeAllConnections() {
-        int closedCount = 0;
-        Connection conn;
-        while ((conn = connectionPool.poll()) != null) {
-            try {
-                conn.close();
-                closedCount++;
-            } catch (SQLException e) {
-                System.err.println("Error closing connection: " + e.getMessage());
-            }
-        }
+        int closedCount = connectionPool.shutdown();
         System.out.println("Closed " + closedCount + " connections");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package org.example.services.forum;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.dataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs {@link CommentService#deleteSubtree} against an in-memory H2 database in MySQL mode,
+ * standing in for the forum schema
+ */
+class CommentServiceTest {
+    private static final int POST_ID = 1;
+
+    private final CommentService commentService = new CommentService();
+
+    @BeforeAll
+    static void useEmbeddedDatabase() throws SQLException {
+        System.setProperty("db.url", "jdbc:h2:mem:forum;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.pool.initialSize", "1");
+        System.setProperty("db.pool.parallelWarmup", "false");
+        try (Connection conn = dataSource.getInstance().getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE comment (" +
+                    " id INT AUTO_INCREMENT PRIMARY KEY," +
+                    " post_id INT NOT NULL," +
+                    " owner_id INT NOT NULL," +
+                    " parent_id INT NULL," +
+                    " content TEXT," +
+                    " content_masked TEXT NULL," +
+                    " mask_version INT NULL," +
+                    " path VARCHAR(700) NULL," +
+                    " created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                    " CONSTRAINT fk_comment_parent FOREIGN KEY (parent_id) REFERENCES comment (id))");
+            stmt.executeUpdate("CREATE TABLE post_stats (" +
+                    " post_id INT NOT NULL PRIMARY KEY," +
+                    " likes INT NOT NULL DEFAULT 0," +
+                    " dislikes INT NOT NULL DEFAULT 0," +
+                    " comments INT NOT NULL DEFAULT 0)");
+        }
+    }
+
+    @BeforeEach
+    void emptyTables() throws SQLException {
+        try (Connection conn = dataSource.getInstance().getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE comment SET parent_id = NULL");
+            stmt.executeUpdate("DELETE FROM comment");
+            stmt.executeUpdate("DELETE FROM post_stats");
+        }
+    }
+
+    @Test
+    void deletesSubtreesLargerThanOneBatch() throws SQLException {
+        // More replies than one IN (...) batch, so the root and its replies are deleted in different batches
+        int root = insert(null);
+        int replies = 700;
+        int lastReply = root;
+        for (int i = 0; i < replies; i++) {
+            lastReply = insert(root);
+        }
+        // Nested replies land after every direct reply in the thread order
+        int nested = insert(lastReply);
+        insert(nested);
+        int unrelated = insert(null);
+        setCommentCount(replies + 4);
+
+        assertEquals(replies + 3, commentService.deleteSubtree(root));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM comment"));
+        assertEquals(1, count("SELECT COUNT(*) FROM comment WHERE id = " + unrelated));
+        assertEquals(1, count("SELECT comments FROM post_stats WHERE post_id = " + POST_ID));
+    }
+
+    @Test
+    void deletingAMissingCommentDeletesNothing() throws SQLException {
+        insert(null);
+
+        assertEquals(0, commentService.deleteSubtree(Integer.MAX_VALUE));
+        assertEquals(1, count("SELECT COUNT(*) FROM comment"));
+    }
+
+    private static int insert(Integer parentId) throws SQLException {
+        try (Connection conn = dataSource.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO comment (post_id, owner_id, parent_id, content) VALUES (?, 1, ?, 'text')",
+                     Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, POST_ID);
+            stmt.setObject(2, parentId);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static void setCommentCount(int comments) throws SQLException {
+        try (Connection conn = dataSource.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO post_stats (post_id, comments) VALUES (?, ?)")) {
+            stmt.setInt(1, POST_ID);
+            stmt.setInt(2, comments);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int count(String query) throws SQLException {
+        try (Connection conn = dataSource.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
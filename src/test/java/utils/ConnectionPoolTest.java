@@ -0,0 +1,116 @@
+package utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the pool against an in-memory H2 database standing in for MySQL, and checks that
+ * closing a borrowed connection returns the physical connection instead of destroying it.
+ */
+class ConnectionPoolTest {
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void createPool() throws SQLException {
+        pool = newPool(2, 5000);
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE reaction (id INT PRIMARY KEY)");
+        }
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void tryWithResourcesReusesThePhysicalConnection() throws SQLException {
+        Connection physical;
+        try (Connection conn = pool.borrow()) {
+            physical = conn.unwrap(org.h2.jdbc.JdbcConnection.class);
+        }
+        for (int i = 0; i < 20; i++) {
+            try (Connection conn = pool.borrow()) {
+                assertSame(physical, conn.unwrap(org.h2.jdbc.JdbcConnection.class));
+                assertFalse(physical.isClosed());
+            }
+        }
+        assertEquals(1, pool.getTotalCount());
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void closeRollsBackAndResetsState() throws SQLException {
+        int defaultIsolation;
+        try (Connection conn = pool.borrow()) {
+            defaultIsolation = conn.getTransactionIsolation();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO reaction (id) VALUES (1)");
+            }
+            // Closed without commit
+        }
+        try (Connection conn = pool.borrow();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM reaction")) {
+            assertTrue(conn.getAutoCommit());
+            assertEquals(defaultIsolation, conn.getTransactionIsolation());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void closeClosesStatementsAndDetachesTheProxy() throws SQLException {
+        Connection conn = pool.borrow();
+        Statement stmt = conn.createStatement();
+        conn.close();
+
+        assertTrue(stmt.isClosed());
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+        // Closing twice must not hand the connection back twice
+        conn.close();
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void borrowTimesOutWhenThePoolIsExhausted() throws SQLException {
+        ConnectionPool small = newPool(1, 100);
+        try (Connection held = small.borrow()) {
+            assertThrows(SQLException.class, small::borrow);
+            assertEquals(1, small.getTimeoutCount());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    private static ConnectionPool newPool(int maxPoolSize, long borrowTimeoutMs) {
+        PoolConfig config = new PoolConfig();
+        config.setUrl("jdbc:h2:mem:pool" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaxPoolSize(maxPoolSize);
+        config.setBorrowTimeoutMs(borrowTimeoutMs);
+        config.setInitialSize(0);
+        config.setMinIdle(0);
+        return new ConnectionPool(config);
+    }
+}